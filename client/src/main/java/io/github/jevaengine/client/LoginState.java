@@ -15,6 +15,7 @@ package io.github.jevaengine.client;
 import io.github.jevaengine.Core;
 import io.github.jevaengine.ResourceLibrary;
 import io.github.jevaengine.client.ClientGame.ClientConfiguration;
+import io.github.jevaengine.client.library.IClientLibrary;
 import io.github.jevaengine.communication.tcp.RemoteSocketCommunicator;
 import io.github.jevaengine.netcommon.user.UserCredentials;
 
@@ -32,7 +33,7 @@ public abstract class LoginState implements IClientGameState
 			ClientGame game = Core.getService(ClientGame.class);
 			clientSocket.setTcpNoDelay(true);
 			
-			game.connect(new RemoteSocketCommunicator(clientSocket));
+			game.connect(new RemoteSocketCommunicator(clientSocket, Core.getService(IClientLibrary.class).getClassRegistry()));
 			game.setState(new WaitForUserState(new UserCredentials(nickname)));
 
 		} catch (IOException e)
@@ -12,6 +12,7 @@
  ******************************************************************************/
 package io.github.jevaengine.client.library;
 
+import io.github.jevaengine.communication.ClassRegistry;
 import io.github.jevaengine.communication.SharedEntity;
 
 import java.util.List;
@@ -19,4 +20,7 @@ import java.util.List;
 public interface IClientLibrary
 {
 	List<Class<? extends SharedEntity>> getSharedClasses();
+	
+	//Must register the same classes, under the same ids, as that of the server library.
+	ClassRegistry getClassRegistry();
 }
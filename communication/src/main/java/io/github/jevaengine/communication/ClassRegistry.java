@@ -0,0 +1,177 @@
+package io.github.jevaengine.communication;
+
+import io.github.jevaengine.communication.Snapshot.FieldSnapshot;
+import io.github.jevaengine.util.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+/*
+ * Assigns the classes exchanged by communicators stable numeric ids, and optionally a serializer, such that instances are
+ * encoded with their class's id rather than its name. Both ends of a connection must register the same classes under
+ * the same ids, which is best ensured by constructing both of their registries from the same class. Classes which are
+ * not registered can still be sent, but are encoded with their name.
+ *
+ * Ids below FIRST_ID are reserved for those registered by Kryo and by the communication package. Serializers are shared
+ * by every Kryo instance the registry configures, and thus must be stateless. A registry must not be modified once it
+ * has been used to configure a connection.
+ */
+public class ClassRegistry
+{
+	public static final int FIRST_ID = 32;
+
+	private static final int FIRST_RESERVED_ID = 16;
+
+	private static final ThreadLocal<Kryo> UNREGISTERED_MESSAGE_KRYO = new ThreadLocal<Kryo>() {
+		@Override
+		protected Kryo initialValue()
+		{
+			return new Kryo(null);
+		}
+	};
+
+	private final TreeMap<Integer, RegisteredClass<?>> m_registrations = new TreeMap<>();
+
+	private final ThreadLocal<Kryo> m_messageKryo = new ThreadLocal<Kryo>() {
+		@Override
+		protected Kryo initialValue()
+		{
+			Kryo kryo = new Kryo(null);
+			configure(kryo);
+
+			return kryo;
+		}
+	};
+
+	public ClassRegistry()
+	{
+		registerReserved(FIRST_RESERVED_ID, EntityId.class, new EntityIdSerializer());
+		registerReserved(FIRST_RESERVED_ID + 1, FieldSnapshot.class, new FieldSnapshotSerializer());
+		registerReserved(FIRST_RESERVED_ID + 2, ArrayList.class, null);
+		registerReserved(FIRST_RESERVED_ID + 3, HashMap.class, null);
+		registerReserved(FIRST_RESERVED_ID + 4, String[].class, null);
+		registerReserved(FIRST_RESERVED_ID + 5, int[].class, null);
+	}
+
+	public final void register(int id, Class<?> type)
+	{
+		register(id, type, null);
+	}
+
+	public final <T> void register(int id, Class<T> type, @Nullable Serializer<T> serializer)
+	{
+		if (id < FIRST_ID)
+			throw new ClassRegistrationException("Class id " + id + " is reserved.");
+
+		registerReserved(id, type, serializer);
+	}
+
+	private <T> void registerReserved(int id, Class<T> type, @Nullable Serializer<T> serializer)
+	{
+		if (m_registrations.containsKey(id))
+			throw new ClassRegistrationException("Class id " + id + " is already assigned to " + m_registrations.get(id).type.getName());
+
+		for (RegisteredClass<?> c : m_registrations.values())
+		{
+			if (c.type.equals(type))
+				throw new ClassRegistrationException("Class " + type.getName() + " is already registered.");
+		}
+
+		m_registrations.put(id, new RegisteredClass<T>(type, serializer));
+	}
+
+	@SuppressWarnings("unchecked")
+	public final void configure(Kryo kryo)
+	{
+		for (Map.Entry<Integer, RegisteredClass<?>> c : m_registrations.entrySet())
+			c.getValue().register(kryo, c.getKey());
+
+		kryo.getContext().put(ClassRegistry.class, this);
+	}
+
+	//The registry which configured the given Kryo instance, or null if it was configured by none.
+	@Nullable
+	@SuppressWarnings("unchecked")
+	static ClassRegistry getConfiguringRegistry(Kryo kryo)
+	{
+		return (ClassRegistry) kryo.getContext().get(ClassRegistry.class);
+	}
+
+	/*
+	 * A Kryo instance of the calling thread, configured by the same registry as the given instance, for encoding messages
+	 * outside of the object graph the given instance is writing. It is only ever used to write or read a message as a
+	 * whole, such that every message is a graph of its own and its encoding does not refer to classes written before it.
+	 */
+	static Kryo getMessageKryo(Kryo kryo)
+	{
+		ClassRegistry registry = getConfiguringRegistry(kryo);
+
+		return registry == null ? UNREGISTERED_MESSAGE_KRYO.get() : registry.m_messageKryo.get();
+	}
+
+	private static final class RegisteredClass<T>
+	{
+		public final Class<T> type;
+
+		@Nullable
+		public final Serializer<T> serializer;
+
+		public RegisteredClass(Class<T> _type, @Nullable Serializer<T> _serializer)
+		{
+			type = _type;
+			serializer = _serializer;
+		}
+
+		public void register(Kryo kryo, int id)
+		{
+			if (serializer == null)
+				kryo.register(type, id);
+			else
+				kryo.register(type, serializer, id);
+		}
+	}
+
+	private static final class EntityIdSerializer extends Serializer<EntityId>
+	{
+		@Override
+		public void write(Kryo kryo, Output output, EntityId id)
+		{
+			output.writeBoolean(id.isOwned());
+			output.writeLong(id.getId(), true);
+		}
+
+		@Override
+		public EntityId read(Kryo kryo, Input input, Class<EntityId> type)
+		{
+			return new EntityId(input.readBoolean(), input.readLong(true));
+		}
+	}
+
+	private static final class FieldSnapshotSerializer extends Serializer<FieldSnapshot>
+	{
+		@Override
+		public void write(Kryo kryo, Output output, FieldSnapshot field)
+		{
+			output.writeBoolean(field.getSender().isOwned());
+			output.writeLong(field.getSender().getId(), true);
+			output.writeInt(field.getFieldId(), true);
+			kryo.writeClassAndObject(output, field.getValue());
+		}
+
+		@Override
+		public FieldSnapshot read(Kryo kryo, Input input, Class<FieldSnapshot> type)
+		{
+			EntityId sender = new EntityId(input.readBoolean(), input.readLong(true));
+			int fieldId = input.readInt(true);
+
+			return new FieldSnapshot(sender, fieldId, kryo.readClassAndObject(input));
+		}
+	}
+}
@@ -19,8 +19,9 @@ import io.github.jevaengine.util.StaticSet;
 
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
@@ -33,6 +34,9 @@ public abstract class Communicator
 	private HashMap<String, Class<?>> m_registeredClasses;
 
 	private ConcurrentHashMap<EntityId, SharedEntity> m_pairs;
+	
+	//Reverse of m_pairs, by entity identity, such that an entity's id is found without scanning every pair.
+	private Map<SharedEntity, EntityId> m_entityIds;
 
 	private Snapshot m_workingSnapshot;
 
@@ -46,6 +50,7 @@ public abstract class Communicator
 	{
 		m_registeredClasses = new HashMap<String, Class<?>>();
 		m_pairs = new ConcurrentHashMap<EntityId, SharedEntity>();
+		m_entityIds = Collections.synchronizedMap(new IdentityHashMap<SharedEntity, EntityId>());
 		m_workingSnapshot = new Snapshot();
 
 		m_nextId = 0;
@@ -53,13 +58,28 @@ public abstract class Communicator
 
 	private EntityId getEntityId(SharedEntity entity)
 	{
-		for (Map.Entry<EntityId, SharedEntity> entry : m_pairs.entrySet())
-		{
-			if (entry.getValue() == entity)
-				return entry.getKey();
-		}
+		EntityId id = m_entityIds.get(entity);
+		
+		if (id == null)
+			throw new NoSuchElementException();
 
-		throw new NoSuchElementException();
+		return id;
+	}
+	
+	private void addPair(EntityId id, SharedEntity entity)
+	{
+		m_pairs.put(id, entity);
+		m_entityIds.put(entity, id);
+	}
+	
+	private SharedEntity removePair(EntityId id)
+	{
+		SharedEntity entity = m_pairs.remove(id);
+		
+		if (entity != null)
+			m_entityIds.remove(entity);
+		
+		return entity;
 	}
 
 	private void routeSnapshot(Snapshot snapshot) throws SnapshotSynchronizationException
@@ -102,7 +122,7 @@ public abstract class Communicator
 
 	private void pairEntity(long id, SharedEntity entity)
 	{
-		m_pairs.put(new EntityId(false, id), entity);
+		addPair(new EntityId(false, id), entity);
 	}
 
 	protected final void createPair(long parentId, long id, String className)
@@ -164,7 +184,7 @@ public abstract class Communicator
 		else if (shared.policy().canWrite(false))
 			throw new PolicyViolationException(pairClass.getCanonicalName(), shared.policy());
 
-		SharedEntity entity = m_pairs.remove(id);
+		SharedEntity entity = removePair(id);
 		entity.unbindCommunicator(this);
 		
 		SharedEntity parent = entity.getParent();
@@ -183,7 +203,7 @@ public abstract class Communicator
 		}
 	}
 
-	final void enqueueMessage(SharedEntity networkEntity, Object message)
+	final void enqueueMessage(SharedEntity networkEntity, EncodedMessage message)
 	{
 		synchronized (m_workingSnapshot)
 		{
@@ -200,6 +220,10 @@ public abstract class Communicator
 				if (m_remote == null)
 					throw new UnboundCommunicatorException();
 
+				//Held back, and sent along with the next snapshot, until the remote has caught up.
+				if (m_remote.isCongested())
+					return;
+
 				m_remote.remoteSnapshot(m_workingSnapshot);
 			}
 			m_workingSnapshot.clear();
@@ -221,7 +245,7 @@ public abstract class Communicator
 
 	public final void shareEntity(SharedEntity networkEntity) throws ShareEntityException
 	{
-		if (m_pairs.containsValue(networkEntity))
+		if (m_entityIds.containsKey(networkEntity))
 			return;
 
 		if (!m_registeredClasses.values().contains(networkEntity.getClass()))
@@ -238,7 +262,7 @@ public abstract class Communicator
 			throw new UnboundCommunicatorException();
 
 		EntityId id = new EntityId(true, m_nextId++);
-		m_pairs.put(id, networkEntity);
+		addPair(id, networkEntity);
 
 		SharedEntity parent = networkEntity.getParent();
 		if(parent != null)
@@ -257,40 +281,26 @@ public abstract class Communicator
 		if (m_remote == null)
 			throw new UnboundCommunicatorException();
 		
-		ArrayList<EntityId> garbage = new ArrayList<EntityId>();
+		EntityId id = m_entityIds.get(networkEntity);
 
-		for (Map.Entry<EntityId, SharedEntity> entry : m_pairs.entrySet())
-		{
-			if (entry.getKey().isOwned() && entry.getValue() == networkEntity)
-			{
-				garbage.add(entry.getKey());
-			}
-		}
-
-		for (EntityId id : garbage)
-		{
-			SharedEntity garbageEntity = m_pairs.get(id);
+		if (id == null || !id.isOwned())
+			return false;
 
-			m_observers.entityUnshared(m_pairs.get(id));
-			
-			garbageEntity.unbindCommunicator(this);
-			m_remote.remoteDestroyPair(id.getId());
-			
-			m_pairs.remove(id);
-		}
+		m_observers.entityUnshared(networkEntity);
+		
+		networkEntity.unbindCommunicator(this);
+		m_remote.remoteDestroyPair(id.getId());
+		
+		removePair(id);
 
-		return garbage.size() > 0;
+		return true;
 	}
 
 	public boolean isOwned(SharedEntity sharedEntity)
 	{
-		for (Map.Entry<EntityId, SharedEntity> entry : m_pairs.entrySet())
-		{
-			if (entry.getValue() == sharedEntity)
-				return entry.getKey().isOwned();
-		}
+		EntityId id = m_entityIds.get(sharedEntity);
 
-		return false;
+		return id != null && id.isOwned();
 	}
 
 	public final boolean isBound()
@@ -323,7 +333,7 @@ public abstract class Communicator
 			// every time we remove a listener.
 			m_observers.entityUnshared(next.getValue());
 			next.getValue().unbindCommunicator(this);
-			m_pairs.remove(next.getKey());
+			removePair(next.getKey());
 		}
 
 		m_workingSnapshot.clear();
@@ -448,6 +458,12 @@ public abstract class Communicator
 			return m_listener;
 		}
 		
+		//Whether the remote is not keeping up with what is sent to it, such that snapshots should be held back.
+		public boolean isCongested()
+		{
+			return false;
+		}
+		
 		protected abstract void onBind();
 
 		protected abstract void onUnbind();
@@ -0,0 +1,48 @@
+package io.github.jevaengine.communication;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Output;
+
+/*
+ * A message sent by a shared entity, which is encoded the first time it is written and shared, as encoded, by every
+ * snapshot it is sent in. A message broadcast to many communicators is thereby encoded once rather than once per
+ * communicator. The message must not be modified after it is sent.
+ *
+ * The encoding depends upon the class registry that configured the Kryo instance encoding it, and is redone should the
+ * message be written by an instance configured by a different registry. Messages are encoded by a Kryo instance of their
+ * own rather than the one writing the snapshot, as an encoding must not refer to classes seen earlier in any one graph.
+ */
+final class EncodedMessage
+{
+	private static final int INITIAL_BUFFER_SIZE = 64;
+
+	private final Object m_message;
+
+	private byte[] m_encoded;
+	private ClassRegistry m_encodedBy;
+
+	public EncodedMessage(Object message)
+	{
+		m_message = message;
+	}
+
+	public Object getMessage()
+	{
+		return m_message;
+	}
+
+	public synchronized byte[] getEncoded(Kryo kryo)
+	{
+		ClassRegistry registry = ClassRegistry.getConfiguringRegistry(kryo);
+
+		if (m_encoded == null || m_encodedBy != registry)
+		{
+			Output out = new Output(INITIAL_BUFFER_SIZE, -1);
+			ClassRegistry.getMessageKryo(kryo).writeClassAndObject(out, m_message);
+			m_encoded = out.toBytes();
+			m_encodedBy = registry;
+		}
+
+		return m_encoded;
+	}
+}
@@ -311,13 +311,16 @@ public abstract class SharedEntity
 	protected final void send(Communicator receiver, Object message)
 	{
 		if (m_boundCommunicators.contains(receiver))
-			receiver.enqueueMessage(this, message);
+			receiver.enqueueMessage(this, new EncodedMessage(message));
 	}
 
+	//The message is encoded once, regardless of how many communicators it is sent through.
 	protected final void send(Object message)
 	{
+		EncodedMessage encoded = new EncodedMessage(message);
+		
 		for (Communicator listener : m_boundCommunicators)
-			listener.enqueueMessage(this, message);
+			listener.enqueueMessage(this, encoded);
 	}
 
 	protected void synchronizeShared(Communicator sender, SharedField<?> sharedField, Object value)
@@ -12,12 +12,7 @@
  ******************************************************************************/
 package io.github.jevaengine.communication;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.util.ArrayList;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.KryoSerializable;
@@ -39,44 +34,38 @@ public final class Snapshot implements KryoSerializable
 	@Override
 	public void read(Kryo kryo, Input input)
 	{
-		try
+		m_enroutedFields = (ArrayList<FieldSnapshot>) kryo.readObject(input, ArrayList.class);
+		
+		int messageCount = input.readInt(true);
+		m_enroutedMessages = new ArrayList<MessageSnapshot>(messageCount);
+		
+		for (int i = 0; i < messageCount; i++)
 		{
-			byte[] inputBuffer = kryo.readObject(input, byte[].class);
-
-			ByteArrayInputStream bis = new ByteArrayInputStream(inputBuffer);
-
-			Input in = new Input(new GZIPInputStream(bis));
-
-			m_enroutedFields = (ArrayList<FieldSnapshot>) kryo.readObject(in, ArrayList.class);
-			m_enroutedMessages = (ArrayList<MessageSnapshot>) kryo.readObject(in, ArrayList.class);
-
-			in.close();
-		} catch (IOException e)
-		{
-			e.printStackTrace();
+			EntityId sender = new EntityId(input.readBoolean(), input.readLong(true));
+			byte[] encoded = input.readBytes(input.readInt(true));
+			
+			m_enroutedMessages.add(new MessageSnapshot(sender, ClassRegistry.getMessageKryo(kryo).readClassAndObject(new Input(encoded))));
 		}
 	}
 
+	//Snapshots are written uncompressed, compression is left to the transport they are sent over.
 	@Override
 	public void write(Kryo kryo, Output output)
 	{
-		try
+		kryo.writeObject(output, m_enroutedFields);
+		
+		//Messages are encoded once and shared by every snapshot they are sent in. Only the id of the sender, which differs
+		//per communicator, is written per snapshot.
+		output.writeInt(m_enroutedMessages.size(), true);
+		
+		for (MessageSnapshot msg : m_enroutedMessages)
 		{
-			ByteArrayOutputStream compressedOut = new ByteArrayOutputStream();
-			GZIPOutputStream gop = new GZIPOutputStream(compressedOut);
-
-			Output kryoOut = new Output(gop);
-
-			kryo.writeObject(kryoOut, m_enroutedFields);
-			kryo.writeObject(kryoOut, m_enroutedMessages);
-
-			kryoOut.close();
-
-			kryo.writeObject(output, compressedOut.toByteArray());
-
-		} catch (IOException e)
-		{
-			throw new RuntimeException(e);
+			byte[] encoded = msg.m_encodedMessage.getEncoded(kryo);
+			
+			output.writeBoolean(msg.m_sender.isOwned());
+			output.writeLong(msg.m_sender.getId(), true);
+			output.writeInt(encoded.length, true);
+			output.writeBytes(encoded);
 		}
 	}
 
@@ -86,7 +75,7 @@ public final class Snapshot implements KryoSerializable
 		m_enroutedMessages.clear();
 	}
 
-	protected void enqueueMessage(EntityId target, Object message)
+	protected void enqueueMessage(EntityId target, EncodedMessage message)
 	{
 		m_enroutedMessages.add(new MessageSnapshot(target, message));
 	}
@@ -115,18 +104,22 @@ public final class Snapshot implements KryoSerializable
 	{
 		EntityId m_sender;
 		Object m_message;
-
-		@SuppressWarnings("unused")
-		// Used by Kryo
-		private MessageSnapshot()
-		{
-		}
+		
+		//Only present for messages being sent.
+		EncodedMessage m_encodedMessage;
 
 		public MessageSnapshot(EntityId sender, Object message)
 		{
 			m_sender = sender;
 			m_message = message;
 		}
+		
+		MessageSnapshot(EntityId sender, EncodedMessage message)
+		{
+			m_sender = sender;
+			m_message = message.getMessage();
+			m_encodedMessage = message;
+		}
 
 		public EntityId getSender()
 		{
@@ -0,0 +1,292 @@
+package io.github.jevaengine.communication.tcp;
+
+import io.github.jevaengine.communication.ClassRegistry;
+import io.github.jevaengine.communication.Communicator;
+import io.github.jevaengine.communication.Snapshot;
+import io.github.jevaengine.communication.SnapshotSynchronizationException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+/*
+ * Encodes and decodes the frames exchanged by the tcp communicators. A frame is the length of its body, as a four byte
+ * integer, followed by its body: a header byte, holding the type of the frame and the id of the compressor that compressed
+ * it, and the Kryo encoding of its contents. Compressed frames follow their header with the length of their contents
+ * before compression. As every frame is prefixed by its length, frames can be read from a non-blocking channel without
+ * decoding them until they have been received whole.
+ *
+ * Contents are only compressed when they are at least the compression threshold in length, and compress to less than
+ * they were. Kryo instances and buffers are kept per thread and reused, such that encoding a frame allocates only the
+ * frame itself. Buffers grown beyond a retained size by a large frame are released once it has been encoded or decoded.
+ * Each Kryo instance is configured by the codec's class registry, which must match that of the remote.
+ */
+final class FrameCodec
+{
+	public static final int LENGTH_SIZE = 4;
+	public static final int MAX_FRAME_SIZE = 16 * 1024 * 1024;
+
+	public static final int DEFAULT_COMPRESSION_THRESHOLD = 256;
+
+	private static final int HEADER_SIZE = 1;
+	private static final int DECOMPRESSED_LENGTH_SIZE = 4;
+
+	private static final int TYPE_MASK = 0x0F;
+	private static final int COMPRESSOR_SHIFT = 4;
+
+	private static final byte[] EMPTY_BUFFER = new byte[0];
+
+	private final ThreadLocal<CodecBuffers> m_buffers = new ThreadLocal<CodecBuffers>() {
+		@Override
+		protected CodecBuffers initialValue()
+		{
+			return new CodecBuffers(m_registry);
+		}
+	};
+
+	private final ClassRegistry m_registry;
+
+	private final IFrameCompressor m_compressor;
+	private final int m_compressionThreshold;
+
+	public FrameCodec(ClassRegistry registry, IFrameCompressor compressor, int compressionThreshold)
+	{
+		m_registry = registry;
+		m_compressor = compressor;
+		m_compressionThreshold = compressionThreshold;
+	}
+
+	public FrameCodec(ClassRegistry registry)
+	{
+		this(registry, new DeflateFrameCompressor(), DEFAULT_COMPRESSION_THRESHOLD);
+	}
+
+	public ByteBuffer encodeSnapshot(Snapshot snapshot)
+	{
+		return encode(FrameType.Snapshot, snapshot);
+	}
+
+	public ByteBuffer encodeQueryPair(long parentId, long id, String className)
+	{
+		return encode(FrameType.QueryPair, new QueryPair(parentId, id, className));
+	}
+
+	public ByteBuffer encodePairDestroyed(long id)
+	{
+		return encode(FrameType.PairDestroyed, new PairDestroyed(id));
+	}
+
+	private ByteBuffer encode(FrameType type, Object contents)
+	{
+		CodecBuffers buffers = m_buffers.get();
+
+		Output output = buffers.output;
+		output.clear();
+		buffers.kryo.writeObject(output, contents);
+
+		int length = output.position();
+		int compressedLength = -1;
+
+		if (length >= m_compressionThreshold)
+		{
+			byte[] compressed = buffers.getScratch(length);
+			compressedLength = m_compressor.compress(output.getBuffer(), length, compressed);
+		}
+
+		ByteBuffer frame;
+
+		if (compressedLength < 0 || compressedLength >= length)
+		{
+			frame = ByteBuffer.allocate(LENGTH_SIZE + HEADER_SIZE + length);
+			frame.putInt(HEADER_SIZE + length);
+			frame.put(type.getId());
+			frame.put(output.getBuffer(), 0, length);
+		} else
+		{
+			frame = ByteBuffer.allocate(LENGTH_SIZE + HEADER_SIZE + DECOMPRESSED_LENGTH_SIZE + compressedLength);
+			frame.putInt(HEADER_SIZE + DECOMPRESSED_LENGTH_SIZE + compressedLength);
+			frame.put((byte) (type.getId() | (m_compressor.getId() << COMPRESSOR_SHIFT)));
+			frame.putInt(length);
+			frame.put(buffers.scratch, 0, compressedLength);
+		}
+
+		buffers.trim();
+
+		frame.flip();
+
+		return frame;
+	}
+
+	/*
+	 * Decodes the body of a frame, from its position to its limit, and delivers it to the given communicator. Frames whose
+	 * contents are longer than maxLength, once decompressed, are rejected.
+	 */
+	public void decode(ByteBuffer body, int maxLength, Communicator listener) throws IOException, SnapshotSynchronizationException
+	{
+		CodecBuffers buffers = m_buffers.get();
+
+		byte header = body.get();
+		int type = header & TYPE_MASK;
+		int compressorId = (header >> COMPRESSOR_SHIFT) & TYPE_MASK;
+
+		if (type > FrameType.Max.getId())
+			throw new IOException("Unknown frame type: " + type);
+
+		int length;
+
+		if (compressorId == 0)
+		{
+			length = body.remaining();
+			body.get(buffers.getContents(length), 0, length);
+		} else
+		{
+			if (compressorId != m_compressor.getId())
+				throw new IOException("Frame was compressed by an unknown compressor: " + compressorId);
+
+			length = body.getInt();
+
+			if (length < 0 || length > Math.min(maxLength, MAX_FRAME_SIZE))
+				throw new IOException("Invalid decompressed frame length: " + length);
+
+			int compressedLength = body.remaining();
+			body.get(buffers.getScratch(compressedLength), 0, compressedLength);
+
+			m_compressor.decompress(buffers.scratch, compressedLength, buffers.getContents(length), length);
+		}
+
+		Input input = buffers.input;
+		input.setBuffer(buffers.contents, 0, length);
+
+		try
+		{
+			//Contents are read whole before they are delivered, as delivering them may encode frames on this thread.
+			switch (FrameType.values()[type])
+			{
+				case PairDestroyed:
+					listener.remoteDestroyPair(buffers.kryo.readObject(input, PairDestroyed.class).id);
+					break;
+				case QueryPair:
+					QueryPair request = buffers.kryo.readObject(input, QueryPair.class);
+					listener.remoteQueryPair(request.parentId, request.id, request.className);
+					break;
+				case Snapshot:
+					listener.remoteSnapshot(buffers.kryo.readObject(input, Snapshot.class));
+					break;
+				default:
+					throw new IOException("Unknown frame type: " + type);
+			}
+		} catch (KryoException e)
+		{
+			throw new IOException(e);
+		} finally
+		{
+			input.setBuffer(EMPTY_BUFFER);
+			buffers.trim();
+		}
+	}
+
+	private static final class CodecBuffers
+	{
+		private static final int INITIAL_BUFFER_SIZE = 256;
+		private static final int RETAINED_BUFFER_SIZE = 64 * 1024;
+
+		public final Kryo kryo = new Kryo(null);
+
+		public final Output output = new Output(INITIAL_BUFFER_SIZE, MAX_FRAME_SIZE);
+		public final Input input = new Input();
+
+		public byte[] scratch = new byte[INITIAL_BUFFER_SIZE];
+		public byte[] contents = new byte[INITIAL_BUFFER_SIZE];
+
+		public CodecBuffers(ClassRegistry registry)
+		{
+			registry.configure(kryo);
+		}
+
+		public byte[] getScratch(int length)
+		{
+			if (scratch.length < length)
+				scratch = new byte[Math.max(length, scratch.length * 2)];
+
+			return scratch;
+		}
+
+		public byte[] getContents(int length)
+		{
+			if (contents.length < length)
+				contents = new byte[Math.max(length, contents.length * 2)];
+
+			return contents;
+		}
+
+		//Releases buffers grown beyond the retained size, such that a thread does not hold on to them for good.
+		public void trim()
+		{
+			if (output.getBuffer().length > RETAINED_BUFFER_SIZE)
+				output.setBuffer(new byte[INITIAL_BUFFER_SIZE], MAX_FRAME_SIZE);
+
+			if (scratch.length > RETAINED_BUFFER_SIZE)
+				scratch = new byte[INITIAL_BUFFER_SIZE];
+
+			if (contents.length > RETAINED_BUFFER_SIZE)
+				contents = new byte[INITIAL_BUFFER_SIZE];
+		}
+	}
+
+	private static class QueryPair
+	{
+		public long parentId;
+		public long id;
+		public String className;
+
+		@SuppressWarnings("unused")
+		// Used by Kryo
+		private QueryPair()
+		{
+		}
+
+		public QueryPair(long _parentId, long _id, String _className)
+		{
+			parentId = _parentId;
+			id = _id;
+			className = _className;
+		}
+	}
+
+	private static class PairDestroyed
+	{
+		public long id;
+
+		@SuppressWarnings("unused")
+		// Used by Kryo
+		private PairDestroyed()
+		{
+		}
+
+		public PairDestroyed(long _id)
+		{
+			id = _id;
+		}
+	}
+
+	private static enum FrameType
+	{
+		Snapshot((byte) 0), QueryPair((byte) 1), PairDestroyed((byte) 2), Max((byte) 2);
+
+		private byte type;
+
+		FrameType(byte _type)
+		{
+			type = _type;
+		}
+
+		public byte getId()
+		{
+			return type;
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package io.github.jevaengine.communication.tcp;
+
+import java.io.IOException;
+
+/*
+ * Compresses the bodies of frames. Compressors must be safe to use from many threads at once, as frames are encoded and
+ * decoded on whichever thread sends or receives them.
+ */
+public interface IFrameCompressor
+{
+	//Identifies the compressor in the frames it has compressed, from 1 to 15. Both ends must use the same compressor.
+	byte getId();
+	
+	//Returns the length of the data compressed into the target, or -1 if it could not be compressed into the target.
+	int compress(byte[] source, int length, byte[] target);
+	
+	void decompress(byte[] source, int length, byte[] target, int decompressedLength) throws IOException;
+}
@@ -0,0 +1,131 @@
+package io.github.jevaengine.communication.tcp;
+
+import io.github.jevaengine.IDisposable;
+import io.github.jevaengine.communication.ClassRegistry;
+import io.github.jevaengine.communication.tcp.NioWorker.ISelectionHandler;
+import io.github.jevaengine.util.StaticSet;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+/*
+ * Accepts connections on a non-blocking server channel, and services them with a small pool of worker threads rather than
+ * a thread per connection. Accepted connections are spread evenly across the workers, and presented to observers as
+ * RemoteNioCommunicators. Observers are notified from a worker thread, and must not block it.
+ */
+public final class NioServer implements IDisposable
+{
+	private final ServerSocketChannel m_serverChannel;
+	private final NioWorker[] m_workers;
+
+	private final FrameCodec m_codec;
+
+	private int m_nextWorker = 0;
+
+	private final Observers m_observers = new Observers();
+
+	//Frames are compressed with the given compressor when their contents are at least the threshold in length.
+	public NioServer(int port, int workerCount, ClassRegistry registry, IFrameCompressor compressor, int compressionThreshold) throws IOException
+	{
+		m_codec = new FrameCodec(registry, compressor, compressionThreshold);
+		m_workers = new NioWorker[Math.max(1, workerCount)];
+
+		for (int i = 0; i < m_workers.length; i++)
+			m_workers[i] = new NioWorker("Nio Worker " + i);
+
+		m_serverChannel = ServerSocketChannel.open();
+		m_serverChannel.configureBlocking(false);
+		m_serverChannel.socket().bind(new InetSocketAddress(port));
+
+		//Accepting is serviced by the first worker.
+		m_workers[0].execute(new Runnable() {
+			@Override
+			public void run()
+			{
+				try
+				{
+					m_serverChannel.register(m_workers[0].getSelector(), SelectionKey.OP_ACCEPT, new AcceptHandler());
+				} catch (IOException e)
+				{
+					System.out.println(e);
+				}
+			}
+		});
+	}
+
+	public NioServer(int port, int workerCount, ClassRegistry registry) throws IOException
+	{
+		this(port, workerCount, registry, new DeflateFrameCompressor(), FrameCodec.DEFAULT_COMPRESSION_THRESHOLD);
+	}
+
+	public NioServer(int port, ClassRegistry registry) throws IOException
+	{
+		this(port, Runtime.getRuntime().availableProcessors(), registry);
+	}
+
+	public void addObserver(INioServerObserver o)
+	{
+		m_observers.add(o);
+	}
+
+	public void removeObserver(INioServerObserver o)
+	{
+		m_observers.remove(o);
+	}
+
+	@Override
+	public void dispose()
+	{
+		try
+		{
+			m_serverChannel.close();
+		} catch (IOException e)
+		{
+			System.out.println(e);
+		}
+
+		for (NioWorker worker : m_workers)
+			worker.stop();
+	}
+
+	private final class AcceptHandler implements ISelectionHandler
+	{
+		@Override
+		public void selected(SelectionKey key) throws IOException
+		{
+			for (SocketChannel channel; (channel = m_serverChannel.accept()) != null;)
+			{
+				channel.configureBlocking(false);
+				channel.socket().setTcpNoDelay(true);
+
+				NioWorker worker = m_workers[m_nextWorker];
+				m_nextWorker = (m_nextWorker + 1) % m_workers.length;
+
+				m_observers.connectionAccepted(new RemoteNioCommunicator(channel, worker, m_codec));
+			}
+		}
+
+		@Override
+		public void failed(IOException e)
+		{
+			System.out.println("Failed to accept connection: " + e);
+		}
+	}
+
+	public interface INioServerObserver
+	{
+		void connectionAccepted(RemoteNioCommunicator communicator);
+	}
+
+	private static final class Observers extends StaticSet<INioServerObserver>
+	{
+		public void connectionAccepted(RemoteNioCommunicator communicator)
+		{
+			for (INioServerObserver o : this)
+				o.connectionAccepted(communicator);
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package io.github.jevaengine.communication.tcp;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/*
+ * Thread servicing the channels registered with its selector. Channels must be registered, and their interest changed,
+ * from the worker's thread, which other threads do by executing tasks on it.
+ */
+final class NioWorker implements Runnable
+{
+	private final Selector m_selector;
+	private final Queue<Runnable> m_tasks = new ConcurrentLinkedQueue<>();
+
+	private volatile boolean m_queryStop = false;
+
+	public NioWorker(String name) throws IOException
+	{
+		m_selector = Selector.open();
+
+		Thread thread = new Thread(this, name);
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	public Selector getSelector()
+	{
+		return m_selector;
+	}
+
+	public void execute(Runnable task)
+	{
+		m_tasks.add(task);
+		m_selector.wakeup();
+	}
+
+	public void stop()
+	{
+		m_queryStop = true;
+		m_selector.wakeup();
+	}
+
+	@Override
+	public void run()
+	{
+		while (!m_queryStop)
+		{
+			try
+			{
+				m_selector.select();
+			} catch (IOException e)
+			{
+				System.out.println(e);
+				break;
+			}
+
+			for (Runnable task; (task = m_tasks.poll()) != null;)
+				task.run();
+
+			Iterator<SelectionKey> it = m_selector.selectedKeys().iterator();
+
+			while (it.hasNext())
+			{
+				SelectionKey key = it.next();
+				it.remove();
+
+				ISelectionHandler handler = (ISelectionHandler) key.attachment();
+
+				try
+				{
+					if (key.isValid())
+						handler.selected(key);
+				} catch (IOException e)
+				{
+					handler.failed(e);
+				}
+			}
+		}
+
+		for (SelectionKey key : m_selector.keys())
+			((ISelectionHandler) key.attachment()).failed(new IOException("Worker stopped."));
+
+		try
+		{
+			m_selector.close();
+		} catch (IOException e)
+		{
+			System.out.println(e);
+		}
+	}
+
+	//Attached to the keys of channels registered with a worker.
+	public interface ISelectionHandler
+	{
+		void selected(SelectionKey key) throws IOException;
+		void failed(IOException e);
+	}
+}
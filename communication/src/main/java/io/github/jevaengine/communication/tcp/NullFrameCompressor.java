@@ -0,0 +1,25 @@
+package io.github.jevaengine.communication.tcp;
+
+import java.io.IOException;
+
+//Leaves frames uncompressed.
+public final class NullFrameCompressor implements IFrameCompressor
+{
+	@Override
+	public byte getId()
+	{
+		return 0;
+	}
+
+	@Override
+	public int compress(byte[] source, int length, byte[] target)
+	{
+		return -1;
+	}
+
+	@Override
+	public void decompress(byte[] source, int length, byte[] target, int decompressedLength) throws IOException
+	{
+		throw new IOException("Frame was compressed, but compression is disabled.");
+	}
+}
@@ -0,0 +1,346 @@
+package io.github.jevaengine.communication.tcp;
+
+import io.github.jevaengine.IDisposable;
+import io.github.jevaengine.communication.Snapshot;
+import io.github.jevaengine.communication.SnapshotSynchronizationException;
+import io.github.jevaengine.communication.UnboundCommunicatorException;
+import io.github.jevaengine.communication.Communicator.RemoteCommunicator;
+import io.github.jevaengine.communication.tcp.NioWorker.ISelectionHandler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Communicates over a non-blocking channel serviced by a NioWorker. Frames are encoded by the thread sending them and
+ * queued, such that sending never blocks on the remote; the worker writes queued frames as the channel permits.
+ *
+ * A remote which does not keep up with the frames queued for it is congested once the bytes queued exceed a soft limit,
+ * which holds back further snapshots (see Communicator.snapshot.) The remote is disconnected when the bytes queued exceed
+ * a hard limit, or it has been congested for longer than is permitted.
+ *
+ * Frames received are limited to a maximum size, beyond which the remote is disconnected. The read buffer grows with
+ * the bytes of a frame actually received rather than to the length its header claims, such that a remote cannot have
+ * large buffers allocated by sending headers alone, and returns to its initial size once a large frame is consumed.
+ */
+public final class RemoteNioCommunicator extends RemoteCommunicator implements IDisposable
+{
+	private static final int INITIAL_READ_BUFFER_SIZE = 4096;
+
+	private static final long DEFAULT_SOFT_WRITE_LIMIT = 256 * 1024;
+	private static final long DEFAULT_HARD_WRITE_LIMIT = 4 * 1024 * 1024;
+	private static final long DEFAULT_MAX_CONGESTION_TIME = 10000;
+
+	private static final int DEFAULT_MAX_READ_FRAME_SIZE = 1024 * 1024;
+
+	private final SocketChannel m_channel;
+	private final NioWorker m_worker;
+
+	private final FrameCodec m_codec;
+
+	private final Queue<ByteBuffer> m_writeQueue = new ConcurrentLinkedQueue<>();
+	private final AtomicLong m_queuedBytes = new AtomicLong();
+	private final AtomicBoolean m_isWriteRequested = new AtomicBoolean();
+
+	private ByteBuffer m_readBuffer = ByteBuffer.allocateDirect(INITIAL_READ_BUFFER_SIZE);
+
+	private long m_softWriteLimit = DEFAULT_SOFT_WRITE_LIMIT;
+	private long m_hardWriteLimit = DEFAULT_HARD_WRITE_LIMIT;
+	private long m_maxCongestionTime = DEFAULT_MAX_CONGESTION_TIME;
+
+	private int m_maxReadFrameSize = DEFAULT_MAX_READ_FRAME_SIZE;
+
+	private long m_congestedSince = 0;
+
+	private SelectionKey m_key;
+
+	private volatile boolean m_isConnected = true;
+
+	RemoteNioCommunicator(SocketChannel channel, NioWorker worker, FrameCodec codec)
+	{
+		m_codec = codec;
+		m_channel = channel;
+		m_worker = worker;
+
+		m_worker.execute(new Runnable() {
+			@Override
+			public void run()
+			{
+				register();
+			}
+		});
+	}
+
+	/*
+	 * Bytes queued beyond which the remote is congested, beyond which it is disconnected, and the time in milliseconds
+	 * for which it may remain congested before it is disconnected.
+	 */
+	public void setWriteLimits(long softLimit, long hardLimit, long maxCongestionTime)
+	{
+		m_softWriteLimit = softLimit;
+		m_hardWriteLimit = hardLimit;
+		m_maxCongestionTime = maxCongestionTime;
+	}
+
+	//Length, in bytes, beyond which frames received, or their contents once decompressed, are rejected. At most FrameCodec.MAX_FRAME_SIZE.
+	public void setMaxReadFrameSize(int maxFrameSize)
+	{
+		m_maxReadFrameSize = Math.min(maxFrameSize, FrameCodec.MAX_FRAME_SIZE);
+	}
+
+	public boolean isConnected()
+	{
+		return m_isConnected;
+	}
+
+	public long getQueuedBytes()
+	{
+		return m_queuedBytes.get();
+	}
+
+	@Override
+	public boolean isCongested()
+	{
+		if (m_queuedBytes.get() <= m_softWriteLimit)
+		{
+			m_congestedSince = 0;
+			return false;
+		}
+
+		long now = System.currentTimeMillis();
+
+		if (m_congestedSince == 0)
+			m_congestedSince = now;
+		else if (now - m_congestedSince > m_maxCongestionTime)
+			disconnect("Remote was congested for longer than " + m_maxCongestionTime + "ms");
+
+		return true;
+	}
+
+	@Override
+	protected void onBind()
+	{
+	}
+
+	@Override
+	protected void onUnbind()
+	{
+		disconnect(null);
+	}
+
+	@Override
+	public void dispose()
+	{
+		disconnect(null);
+	}
+
+	private void disconnect(String reason)
+	{
+		if (!m_isConnected)
+			return;
+
+		m_isConnected = false;
+
+		if (reason != null)
+			System.out.println("Disconnecting remote " + m_channel + ": " + reason);
+
+		m_worker.execute(new Runnable() {
+			@Override
+			public void run()
+			{
+				close();
+			}
+		});
+	}
+
+	//Invoked only by the worker.
+	private void close()
+	{
+		m_isConnected = false;
+
+		if (m_key != null)
+			m_key.cancel();
+
+		try
+		{
+			m_channel.close();
+		} catch (IOException e)
+		{
+			System.out.println(e);
+		}
+
+		m_writeQueue.clear();
+		m_queuedBytes.set(0);
+	}
+
+	private void register()
+	{
+		if (!m_isConnected)
+			return;
+
+		try
+		{
+			m_key = m_channel.register(m_worker.getSelector(), SelectionKey.OP_READ, new SelectionHandler());
+
+			if (!m_writeQueue.isEmpty())
+			{
+				m_isWriteRequested.set(true);
+				m_key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+			}
+		} catch (IOException e)
+		{
+			System.out.println(e);
+			close();
+		}
+	}
+
+	private void enqueue(ByteBuffer frame)
+	{
+		if (!m_isConnected)
+			return;
+
+		m_writeQueue.add(frame);
+
+		if (m_queuedBytes.addAndGet(frame.remaining()) > m_hardWriteLimit)
+		{
+			disconnect("Remote exceeded the write queue limit of " + m_hardWriteLimit + " bytes");
+			return;
+		}
+
+		if (m_isWriteRequested.compareAndSet(false, true))
+		{
+			m_worker.execute(new Runnable() {
+				@Override
+				public void run()
+				{
+					if (m_key != null && m_key.isValid())
+						m_key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+				}
+			});
+		}
+	}
+
+	@Override
+	public void remoteDestroyPair(long id)
+	{
+		if (m_isConnected)
+			enqueue(m_codec.encodePairDestroyed(id));
+	}
+
+	@Override
+	public void remoteQueryPair(long parentId, long id, String className)
+	{
+		if (m_isConnected)
+			enqueue(m_codec.encodeQueryPair(parentId, id, className));
+	}
+
+	@Override
+	public void remoteSnapshot(Snapshot snapshot)
+	{
+		if (m_isConnected)
+			enqueue(m_codec.encodeSnapshot(snapshot));
+	}
+
+	private void read() throws IOException, SnapshotSynchronizationException
+	{
+		if (m_channel.read(m_readBuffer) < 0)
+			throw new IOException("Remote closed the connection.");
+
+		m_readBuffer.flip();
+
+		while (m_readBuffer.remaining() >= FrameCodec.LENGTH_SIZE)
+		{
+			int length = m_readBuffer.getInt(m_readBuffer.position());
+
+			if (length <= 0 || length > m_maxReadFrameSize)
+				throw new IOException("Invalid frame length: " + length);
+
+			if (m_readBuffer.remaining() < FrameCodec.LENGTH_SIZE + length)
+			{
+				//Buffers filled by a frame larger than them are doubled, up to the size of the frame, until it is held whole.
+				if (m_readBuffer.remaining() == m_readBuffer.capacity())
+				{
+					ByteBuffer readBuffer = ByteBuffer.allocateDirect(Math.min(m_readBuffer.capacity() * 2, FrameCodec.LENGTH_SIZE + length));
+					readBuffer.put(m_readBuffer);
+					m_readBuffer = readBuffer;
+					return;
+				}
+
+				break;
+			}
+
+			int end = m_readBuffer.position() + FrameCodec.LENGTH_SIZE + length;
+
+			ByteBuffer body = m_readBuffer.duplicate();
+			body.position(m_readBuffer.position() + FrameCodec.LENGTH_SIZE);
+			body.limit(end);
+
+			m_readBuffer.position(end);
+
+			m_codec.decode(body.slice(), m_maxReadFrameSize, getListener());
+		}
+
+		//Buffers grown for a large frame are released once it is consumed, rather than held for the life of the connection.
+		if (m_readBuffer.capacity() > INITIAL_READ_BUFFER_SIZE && m_readBuffer.remaining() < INITIAL_READ_BUFFER_SIZE)
+		{
+			ByteBuffer readBuffer = ByteBuffer.allocateDirect(INITIAL_READ_BUFFER_SIZE);
+			readBuffer.put(m_readBuffer);
+			m_readBuffer = readBuffer;
+		} else
+			m_readBuffer.compact();
+	}
+
+	private void write() throws IOException
+	{
+		for (ByteBuffer frame; (frame = m_writeQueue.peek()) != null;)
+		{
+			int written = m_channel.write(frame);
+			m_queuedBytes.addAndGet(-written);
+
+			if (frame.hasRemaining())
+				return;
+
+			m_writeQueue.poll();
+		}
+
+		m_key.interestOps(SelectionKey.OP_READ);
+		m_isWriteRequested.set(false);
+
+		//Frames queued after the queue was found empty, but before write interest was cleared, would otherwise be stranded.
+		if (!m_writeQueue.isEmpty() && m_isWriteRequested.compareAndSet(false, true))
+			m_key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+	}
+
+	private final class SelectionHandler implements ISelectionHandler
+	{
+		@Override
+		public void selected(SelectionKey key) throws IOException
+		{
+			if (key.isReadable())
+			{
+				try
+				{
+					read();
+				} catch (SnapshotSynchronizationException | UnboundCommunicatorException e)
+				{
+					throw new IOException(e);
+				}
+			}
+
+			if (key.isValid() && key.isWritable())
+				write();
+		}
+
+		@Override
+		public void failed(IOException e)
+		{
+			System.out.println(e);
+			close();
+		}
+	}
+}
@@ -13,39 +13,46 @@
 package io.github.jevaengine.communication.tcp;
 
 import io.github.jevaengine.IDisposable;
+import io.github.jevaengine.communication.ClassRegistry;
 import io.github.jevaengine.communication.Snapshot;
 import io.github.jevaengine.communication.SnapshotSynchronizationException;
 import io.github.jevaengine.communication.UnboundCommunicatorException;
 import io.github.jevaengine.communication.Communicator.RemoteCommunicator;
 
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.Socket;
+import java.nio.ByteBuffer;
 
-import com.esotericsoftware.kryo.Kryo;
-import com.esotericsoftware.kryo.KryoException;
-import com.esotericsoftware.kryo.io.Input;
-import com.esotericsoftware.kryo.io.Output;
-
+//Communicates over a blocking socket, reading frames on a thread of its own. See FrameCodec.
 public class RemoteSocketCommunicator extends RemoteCommunicator implements IDisposable
 {
-	private Output m_out;
+	private OutputStream m_out;
 
 	private DataListener m_dataListener;
 
 	private Socket m_remote;
 
-	private Kryo m_kryo;
+	private FrameCodec m_codec;
 
 	private boolean m_isConnected = true;
 
-	public RemoteSocketCommunicator(Socket remote) throws IOException
+	//Frames are compressed with the given compressor when their contents are at least the threshold in length.
+	public RemoteSocketCommunicator(Socket remote, ClassRegistry registry, IFrameCompressor compressor, int compressionThreshold) throws IOException
 	{
-		m_kryo = new Kryo(null);
+		m_codec = new FrameCodec(registry, compressor, compressionThreshold);
 		m_remote = remote;
-		m_out = new Output(remote.getOutputStream());
+		m_out = new BufferedOutputStream(remote.getOutputStream());
 		m_dataListener = new DataListener(remote.getInputStream());
 	}
+	
+	public RemoteSocketCommunicator(Socket remote, ClassRegistry registry) throws IOException
+	{
+		this(remote, registry, new DeflateFrameCompressor(), FrameCodec.DEFAULT_COMPRESSION_THRESHOLD);
+	}
 
 	@Override
 	protected void onBind()
@@ -72,46 +79,41 @@ public class RemoteSocketCommunicator extends RemoteCommunicator implements IDis
 				m_remote.close();
 
 			m_out.close();
-		} catch (IOException | KryoException e)
+		} catch (IOException e)
 		{
 			System.out.println(e);
 		}
 	}
 
-	@Override
-	public synchronized void remoteDestroyPair(long id)
+	private void write(ByteBuffer frame)
 	{
-		if (!m_isConnected)
-			return;
-
 		try
 		{
-			m_out.write(DataTransmitType.PairDestroyed.getId());
-			m_kryo.writeObject(m_out, new PairDestroyed(id));
+			m_out.write(frame.array(), frame.arrayOffset() + frame.position(), frame.remaining());
 			m_out.flush();
-		} catch (KryoException e)
+		} catch (IOException e)
 		{
 			System.out.println(e);
 			disconnect();
 		}
 	}
 
+	@Override
+	public synchronized void remoteDestroyPair(long id)
+	{
+		if (!m_isConnected)
+			return;
+
+		write(m_codec.encodePairDestroyed(id));
+	}
+
 	@Override
 	public synchronized void remoteQueryPair(long parentId, long id, String className)
 	{
 		if (!m_isConnected)
 			return;
 
-		try
-		{
-			m_out.write(DataTransmitType.QueryPair.getId());
-			m_kryo.writeObject(m_out, new QueryPair(parentId, id, className));
-			m_out.flush();
-		} catch (KryoException e)
-		{
-			System.out.println(e);
-			disconnect();
-		}
+		write(m_codec.encodeQueryPair(parentId, id, className));
 	}
 
 	@Override
@@ -120,16 +122,7 @@ public class RemoteSocketCommunicator extends RemoteCommunicator implements IDis
 		if (!m_isConnected)
 			return;
 
-		try
-		{
-			m_out.write(DataTransmitType.Snapshot.getId());
-			m_kryo.writeObject(m_out, snapshot);
-			m_out.flush();
-		} catch (KryoException e)
-		{
-			System.out.println(e);
-			disconnect();
-		}
+		write(m_codec.encodeSnapshot(snapshot));
 	}
 
 	@Override
@@ -140,15 +133,13 @@ public class RemoteSocketCommunicator extends RemoteCommunicator implements IDis
 
 	private class DataListener implements Runnable
 	{
-		private Input m_in;
-
-		private Kryo m_kryo = new Kryo(null);
+		private DataInputStream m_in;
 
 		private volatile boolean m_queryEnd;
 
 		public DataListener(InputStream inputStream) throws IOException
 		{
-			m_in = new Input(inputStream);
+			m_in = new DataInputStream(inputStream);
 
 			Thread t = new Thread(this);
 			t.start();
@@ -160,37 +151,24 @@ public class RemoteSocketCommunicator extends RemoteCommunicator implements IDis
 			{
 				try
 				{
-					byte type = m_in.readByte();
-
-					if (type > DataTransmitType.Max.getId())
-						throw new ClassNotFoundException();
-
-					switch (DataTransmitType.values()[type])
-					{
-						case PairDestroyed:
-							RemoteSocketCommunicator.this.getListener().remoteDestroyPair(m_kryo.readObject(m_in, PairDestroyed.class).id);
-							break;
-						case QueryPair:
-							QueryPair request = m_kryo.readObject(m_in, QueryPair.class);
-							RemoteSocketCommunicator.this.getListener().remoteQueryPair(request.parentId, request.id, request.className);
-							break;
-						case Snapshot:
-							RemoteSocketCommunicator.this.getListener().remoteSnapshot(m_kryo.readObject(m_in, Snapshot.class));
-							break;
-						default:
-							throw new ClassNotFoundException();
-					}
-
-				} catch (KryoException | IOException | UnboundCommunicatorException e)
+					int length = m_in.readInt();
+
+					if (length <= 0 || length > FrameCodec.MAX_FRAME_SIZE)
+						throw new IOException("Invalid frame length: " + length);
+
+					byte[] body = new byte[length];
+					m_in.readFully(body);
+
+					m_codec.decode(ByteBuffer.wrap(body), FrameCodec.MAX_FRAME_SIZE, RemoteSocketCommunicator.this.getListener());
+				} catch (IOException | UnboundCommunicatorException e)
 				{
 					e.printStackTrace();
 					end();
-				} catch (ClassNotFoundException | SnapshotSynchronizationException e)
+				} catch (SnapshotSynchronizationException e)
 				{
 					e.printStackTrace();
 					end();
 				}
-
 			}
 		}
 
@@ -199,64 +177,11 @@ public class RemoteSocketCommunicator extends RemoteCommunicator implements IDis
 			try
 			{
 				m_in.close();
-			} catch (KryoException e)
+			} catch (IOException e)
 			{
 			}
 
 			m_queryEnd = true;
 		}
 	}
-
-	private static class QueryPair
-	{
-		public long parentId;
-		public long id;
-		public String className;
-
-		@SuppressWarnings("unused")
-		// Used by Kryo
-		private QueryPair()
-		{
-		}
-
-		public QueryPair(long _parentId, long _id, String _className)
-		{
-			parentId = _parentId;
-			id = _id;
-			className = _className;
-		}
-	}
-
-	private static class PairDestroyed
-	{
-		public long id;
-
-		@SuppressWarnings("unused")
-		// Used by Kryo
-		private PairDestroyed()
-		{
-		}
-
-		public PairDestroyed(long _id)
-		{
-			id = _id;
-		}
-	}
-
-	private static enum DataTransmitType
-	{
-		Snapshot((byte) 0), QueryPair((byte) 1), PairDestroyed((byte) 2), Max((byte) 2);
-
-		private byte type;
-
-		DataTransmitType(byte _type)
-		{
-			type = _type;
-		}
-
-		public byte getId()
-		{
-			return type;
-		}
-	}
 }
@@ -26,6 +26,18 @@ public class DefaultEngineThreadPool implements IEngineThreadPool
 	
 	private ExecutorService m_engineLogicExector = Executors.newSingleThreadExecutor();
 	
+	//Leave a core for the game logic thread, route searches should not compete with it.
+	private ExecutorService m_pathfindingExecutor = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable r)
+		{
+			Thread thread = Executors.defaultThreadFactory().newThread(r);
+			thread.setDaemon(true);
+			
+			return thread;
+		}
+	});
+	
 	@Override
 	public void execute(Purpose purpose, Runnable task)
 	{
@@ -43,6 +55,9 @@ public class DefaultEngineThreadPool implements IEngineThreadPool
 		case GameLogic:
 			m_engineLogicExector.execute(task);
 			break;
+		case Pathfinding:
+			m_pathfindingExecutor.execute(task);
+			break;
 		default:
 			throw new UnsupportedOperationException("Unrecognized task purpose.");
 		}
@@ -13,5 +13,6 @@ public interface IEngineThreadPool
 		GameLogic,
 		LongLivingLowPriority,
 		LongLivingLowPriorityDaemon,
+		Pathfinding,
 	}
 }
@@ -2,6 +2,8 @@ package io.github.jevaengine.game;
 
 import io.github.jevaengine.graphics.IRenderable;
 import io.github.jevaengine.math.Vector2D;
+import io.github.jevaengine.util.ProfileSection;
+import io.github.jevaengine.util.Profiler;
 
 import java.awt.BufferCapabilities;
 import java.awt.Color;
@@ -27,6 +29,8 @@ public final class FrameRenderer implements IRenderer
 {
 	private final Logger m_logger = LoggerFactory.getLogger(FrameRenderer.class);
 	
+	private static final ProfileSection PROFILE_RENDER = Profiler.getSection("FrameRenderer.render");
+	
 	private static final int PREFERRED_BIT_DEPTH = 16;
 	private static final int MIN_BIT_DEPTH = 16;
 	
@@ -175,6 +179,8 @@ public final class FrameRenderer implements IRenderer
 		if(m_renderTarget == null)
 			return;
 		
+		long profileStart = PROFILE_RENDER.begin();
+		
 		Graphics2D g = (Graphics2D)m_bufferStrategy.getDrawGraphics();
 		g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
 		g.setRenderingHint(RenderingHints.KEY_ALPHA_INTERPOLATION, RenderingHints.VALUE_ALPHA_INTERPOLATION_SPEED);
@@ -208,6 +214,8 @@ public final class FrameRenderer implements IRenderer
 		g.dispose();
 		
 		m_bufferStrategy.show();
+		
+		PROFILE_RENDER.end(profileStart);
 	}
 	
 	public enum RenderFitMode
@@ -6,23 +6,38 @@ import io.github.jevaengine.math.Vector2D;
 import io.github.jevaengine.math.Vector2F;
 import io.github.jevaengine.math.Vector3F;
 import io.github.jevaengine.util.Nullable;
+import io.github.jevaengine.util.ProfileSection;
+import io.github.jevaengine.util.Profiler;
 import io.github.jevaengine.world.IImmutableSceneBuffer;
 import io.github.jevaengine.world.World;
 import io.github.jevaengine.world.scene.ISceneBuffer;
 import io.github.jevaengine.world.scene.ISceneBufferFactory;
 
+import java.util.concurrent.ForkJoinPool;
+
 public abstract class SceneBufferCamera implements ICamera
 {
+	private static final ProfileSection PROFILE_GET_SCENE = Profiler.getSection("SceneBufferCamera.getScene");
+	
 	@Nullable
 	private World m_world;
 	
 	private final ISceneBuffer m_sceneBuffer;
+	
+	@Nullable
+	private ForkJoinPool m_sceneBuildPool;
 
 	public SceneBufferCamera(ISceneBufferFactory sceneBufferFactory)
 	{
 		m_sceneBuffer = sceneBufferFactory.create();
 	}
 	
+	//When set, visible sectors are culled across the pool rather than on the rendering thread alone.
+	public void setSceneBuildPool(@Nullable ForkJoinPool pool)
+	{
+		m_sceneBuildPool = pool;
+	}
+	
 	@Override
 	public void attach(World world)
 	{
@@ -76,6 +91,17 @@ public abstract class SceneBufferCamera implements ICamera
 	
 	@Override
 	public final IImmutableSceneBuffer getScene(Rect2D bounds, float scale)
+	{
+		long profileStart = PROFILE_GET_SCENE.begin();
+		
+		IImmutableSceneBuffer scene = getWorldScene(bounds, scale);
+		
+		PROFILE_GET_SCENE.end(profileStart);
+		
+		return scene;
+	}
+	
+	private IImmutableSceneBuffer getWorldScene(Rect2D bounds, float scale)
 	{
 		m_sceneBuffer.reset();
 		
@@ -96,7 +122,10 @@ public abstract class SceneBufferCamera implements ICamera
 
 		m_sceneBuffer.translate(new Vector2D(-lookatScreen.x + bounds.width / 2, -lookatScreen.y + bounds.height / 2));
 		
-		m_world.fillScene(m_sceneBuffer, projectedView);
+		if(m_sceneBuildPool == null)
+			m_world.fillScene(m_sceneBuffer, projectedView);
+		else
+			m_world.fillScene(m_sceneBuffer, projectedView, m_sceneBuildPool);
 		
 		return m_sceneBuffer;
 	}
@@ -15,25 +15,60 @@ package io.github.jevaengine.graphics;
 import io.github.jevaengine.math.Rect2D;
 import io.github.jevaengine.util.Nullable;
 
+import java.awt.AlphaComposite;
 import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+/*
+ * Glyphs are looked up in a table indexed by character. Runs of text that are drawn repeatedly at the same scale, such as
+ * labels, are rendered once into an image which is then drawn in place of their glyphs. The least recently drawn runs are
+ * evicted once the images retained exceed a fixed budget.
+ */
 public final class DefaultFont implements IFont
 {
+	//Pixels of rendered text runs retained by a font, roughly four megabytes.
+	private static final int MAX_CACHED_RUN_PIXELS = 1 << 20;
+	
+	//Runs tracked by a font, including those that have only been drawn once and are not yet rendered.
+	private static final int MAX_TEXT_RUNS = 1024;
+	
 	private final IImmutableGraphic m_srcImage;
-	private final HashMap<Character, Rect2D> m_characterMap;
+	private final Rect2D[] m_glyphs;
 
 	private final Rect2D m_maxCharacterBounds;
 	
+	private final LinkedHashMap<TextRunKey, TextRun> m_textRuns = new LinkedHashMap<>(16, 0.75F, true);
+	private int m_cachedRunPixels = 0;
+	
 	public DefaultFont(IImmutableGraphic srcImage, HashMap<Character, Rect2D> characterMap)
 	{
 		m_srcImage = srcImage;
-		m_characterMap = characterMap;
+		m_glyphs = createGlyphTable(characterMap);
 		
 		m_maxCharacterBounds = getMaxBounds(characterMap.values());
 	}
 	
+	private static Rect2D[] createGlyphTable(Map<Character, Rect2D> characterMap)
+	{
+		int maxCharacter = -1;
+		
+		for(Character c : characterMap.keySet())
+			maxCharacter = Math.max(maxCharacter, c);
+		
+		Rect2D[] glyphs = new Rect2D[maxCharacter + 1];
+		
+		for(Map.Entry<Character, Rect2D> glyph : characterMap.entrySet())
+			glyphs[glyph.getKey()] = new Rect2D(glyph.getValue());
+		
+		return glyphs;
+	}
+	
 	private Rect2D getMaxBounds(Collection<Rect2D> bounds)
 	{
 		int maxWidth = 0;
@@ -51,10 +86,7 @@ public final class DefaultFont implements IFont
 	@Nullable
 	private Rect2D getChar(char c)
 	{
-		if (!m_characterMap.containsKey(c))
-			return null;
-
-		return m_characterMap.get(c);
+		return c < m_glyphs.length ? m_glyphs[c] : null;
 	}
 
 	@Override
@@ -75,9 +107,9 @@ public final class DefaultFont implements IFont
 		int x = 0;
 		int y = 0;
 		
-		for(char c : text.toCharArray())
+		for(int i = 0; i < text.length(); i++)
 		{
-			Rect2D charBounds = getChar(c);
+			Rect2D charBounds = getChar(text.charAt(i));
 			
 			if(charBounds != null)
 			{
@@ -90,24 +122,153 @@ public final class DefaultFont implements IFont
 	}
 	
 	@Override
-	public Rect2D drawText(Graphics2D g, int x, int y, float scale, String text)
+	public MeasuredText measureText(String text)
+	{
+		int[] offsets = new int[text.length() + 1];
+		int height = 0;
+		
+		for(int i = 0; i < text.length(); i++)
+		{
+			Rect2D charBounds = getChar(text.charAt(i));
+			
+			offsets[i + 1] = offsets[i];
+			
+			if(charBounds != null)
+			{
+				offsets[i + 1] += charBounds.width;
+				height = Math.max(height, charBounds.height);
+			}
+		}
+		
+		return new MeasuredText(text, offsets, height);
+	}
+	
+	private Rect2D drawGlyphs(Graphics2D g, int x, int y, float scale, String text)
 	{
 		float currentX = 0;
 		float maxY = 0;
 		
-		for(char c : text.toCharArray())
+		for(int i = 0; i < text.length(); i++)
 		{
-			Rect2D charBounds = getChar(c);
+			Rect2D charBounds = getChar(text.charAt(i));
+			
 			if(charBounds != null)
 			{
 				m_srcImage.render(g, x + (int)currentX, y, (int)(charBounds.width * scale), (int)(charBounds.height * scale), 
 						 charBounds.x, charBounds.y, charBounds.width, charBounds.height);
 	
 				currentX += charBounds.width * scale;
-				maxY = Math.max(y, charBounds.height * scale);
+				maxY = Math.max(maxY, charBounds.height * scale);
 			}
 		}
 		
 		return new Rect2D(x, y, (int)currentX, (int)maxY);
 	}
+	
+	@Override
+	public Rect2D drawText(Graphics2D g, int x, int y, float scale, String text)
+	{
+		BufferedImage runImage = getTextRun(g, scale, text);
+		
+		if(runImage == null)
+			return drawGlyphs(g, x, y, scale, text);
+		
+		g.drawImage(runImage, x, y, null);
+		
+		return new Rect2D(x, y, runImage.getWidth(), runImage.getHeight());
+	}
+	
+	/*
+	 * Returns the rendered image of the given run of text, or null if it has not yet been rendered. Runs are only rendered
+	 * the second time they are drawn, so that text which is drawn once, or changes every frame, is not needlessly retained.
+	 */
+	@Nullable
+	private BufferedImage getTextRun(Graphics2D g, float scale, String text)
+	{
+		TextRunKey key = new TextRunKey(text, scale);
+		
+		synchronized(m_textRuns)
+		{
+			TextRun run = m_textRuns.get(key);
+			
+			if(run == null)
+			{
+				m_textRuns.put(key, new TextRun());
+				evictTextRuns();
+				return null;
+			}
+			
+			if(run.image == null)
+			{
+				Rect2D bounds = getTextBounds(text);
+				int width = (int)Math.ceil(bounds.width * scale);
+				int height = (int)Math.ceil(bounds.height * scale);
+				
+				if(width <= 0 || height <= 0 || width * height > MAX_CACHED_RUN_PIXELS / 4)
+					return null;
+				
+				run.image = g.getDeviceConfiguration().createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+				
+				Graphics2D runGraphics = run.image.createGraphics();
+				runGraphics.setComposite(AlphaComposite.Src);
+				drawGlyphs(runGraphics, 0, 0, scale, text);
+				runGraphics.dispose();
+				
+				m_cachedRunPixels += width * height;
+				evictTextRuns();
+			}
+			
+			return run.image;
+		}
+	}
+	
+	private void evictTextRuns()
+	{
+		Iterator<TextRun> it = m_textRuns.values().iterator();
+		
+		//Least recently drawn runs are evicted first.
+		while(it.hasNext() && (m_cachedRunPixels > MAX_CACHED_RUN_PIXELS || m_textRuns.size() > MAX_TEXT_RUNS))
+		{
+			TextRun run = it.next();
+			
+			if(run.image != null)
+				m_cachedRunPixels -= run.image.getWidth() * run.image.getHeight();
+			
+			it.remove();
+		}
+	}
+	
+	private static final class TextRun
+	{
+		public BufferedImage image;
+	}
+	
+	private static final class TextRunKey
+	{
+		private final String m_text;
+		private final float m_scale;
+		
+		public TextRunKey(String text, float scale)
+		{
+			m_text = text;
+			m_scale = scale;
+		}
+		
+		@Override
+		public int hashCode()
+		{
+			return m_text.hashCode() * 31 + Float.floatToIntBits(m_scale);
+		}
+		
+		@Override
+		public boolean equals(Object o)
+		{
+			if(!(o instanceof TextRunKey))
+				return false;
+			
+			TextRunKey key = (TextRunKey)o;
+			
+			return m_scale == key.m_scale && m_text.equals(key.m_text);
+		}
+	}
 }
@@ -11,24 +11,72 @@ import io.github.jevaengine.graphics.DefaultSpriteFactory.SpriteDeclaration.Anim
 import io.github.jevaengine.graphics.DefaultSpriteFactory.SpriteDeclaration.FrameDeclaration;
 import io.github.jevaengine.graphics.IGraphicFactory.GraphicConstructionException;
 import io.github.jevaengine.graphics.Sprite.NoSuchSpriteAnimation;
+import io.github.jevaengine.graphics.SpriteAtlas.PackedRegions;
 import io.github.jevaengine.math.Rect2D;
 import io.github.jevaengine.math.Vector2D;
+import io.github.jevaengine.util.Nullable;
 import io.github.jevaengine.util.ThreadSafe;
 
-import javax.inject.Inject;
+import java.util.ArrayList;
+
 import javax.inject.Singleton;
 
+import com.google.inject.Inject;
+
 @Singleton
 public class DefaultSpriteFactory implements ISpriteFactory
 {
 	private final IConfigurationFactory m_configurationFactory;
 	private final IGraphicFactory m_graphicFactory;
 	
-	@Inject
-	public DefaultSpriteFactory(IConfigurationFactory configurationFactory, IGraphicFactory graphicFactory)
+	@Nullable
+	private SpriteAtlas m_atlas;
+	
+	//Sprites are drawn from their textures packed into the given atlas, or their own textures when there is no atlas.
+	public DefaultSpriteFactory(IConfigurationFactory configurationFactory, IGraphicFactory graphicFactory, @Nullable SpriteAtlas atlas)
 	{
 		m_configurationFactory = configurationFactory;
 		m_graphicFactory = graphicFactory;
+		m_atlas = atlas;
+	}
+	
+	@Inject
+	public DefaultSpriteFactory(IConfigurationFactory configurationFactory, IGraphicFactory graphicFactory)
+	{
+		this(configurationFactory, graphicFactory, null);
+	}
+	
+	//Optional, the atlas is only injected where it is bound explicitly (i.e, bind(SpriteAtlas.class).toInstance(...)).
+	@Inject(optional = true)
+	void setAtlas(SpriteAtlas atlas)
+	{
+		m_atlas = atlas;
+	}
+	
+	//Normalized as the graphic factory normalizes texture names. Resources ('@') and files of the same path remain distinct.
+	private static String getTextureKey(String texture)
+	{
+		String key = texture.replace("\\", "/").trim();
+		
+		if(key.startsWith("/"))
+			key = key.substring(1);
+		
+		return key;
+	}
+	
+	//Packs the regions drawn by the declared sprite into the atlas, returning null if they could not be packed.
+	@Nullable
+	private PackedRegions pack(SpriteDeclaration spriteDecl, IImmutableGraphic srcImage)
+	{
+		ArrayList<Rect2D> regions = new ArrayList<>();
+		
+		for (AnimationDeclaration anim : spriteDecl.animations)
+		{
+			for(FrameDeclaration frame : anim.frames)
+				regions.add(frame.region);
+		}
+		
+		return m_atlas.pack(getTextureKey(spriteDecl.texture), srcImage, regions);
 	}
 	
 	@Override
@@ -40,15 +88,20 @@ public class DefaultSpriteFactory implements ISpriteFactory
 			SpriteDeclaration spriteDecl = m_configurationFactory.create(name).getValue(SpriteDeclaration.class);
 			
 			IImmutableGraphic srcImage = m_graphicFactory.create(spriteDecl.texture);
+			
+			PackedRegions packedRegions = m_atlas == null ? null : pack(spriteDecl, srcImage);
 	
-			Sprite sprite = new Sprite(srcImage, spriteDecl.scale);
+			Sprite sprite = new Sprite(packedRegions == null ? srcImage : packedRegions.getPage(), spriteDecl.scale);
 	
 			for (AnimationDeclaration anim : spriteDecl.animations)
 			{
 				Animation animBuffer = new Animation();
 	
 				for(FrameDeclaration frame : anim.frames)
-					animBuffer.addFrame(new Frame(frame.region, frame.delay, frame.anchor, frame.event));
+				{
+					Rect2D region = packedRegions == null ? frame.region : packedRegions.getRegion(frame.region);
+					animBuffer.addFrame(new Frame(region, frame.delay, frame.anchor, frame.event));
+				}
 	
 				sprite.addAnimation(anim.name, animBuffer);
 			}
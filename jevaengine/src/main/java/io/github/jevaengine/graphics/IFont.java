@@ -7,6 +7,7 @@ import java.awt.Graphics2D;
 public interface IFont
 {
 	Rect2D getTextBounds(String text);
+	MeasuredText measureText(String text);
 	Rect2D drawText(Graphics2D g, int x, int y, float scale, String text);
 	Rect2D getMaxCharacterBounds();
 	boolean doesMappingExists(char keyChar);
@@ -0,0 +1,73 @@
+package io.github.jevaengine.graphics;
+
+import io.github.jevaengine.math.Rect2D;
+
+/*
+ * Text measured once by a font, such that the offset of each of its characters can be looked up without measuring the
+ * text again. Offsets are in unscaled pixels.
+ */
+public final class MeasuredText
+{
+	private final String m_text;
+
+	//Offset of every character, followed by the width of the entire text.
+	private final int[] m_offsets;
+	private final int m_height;
+
+	public MeasuredText(String text, int[] offsets, int height)
+	{
+		if(offsets.length != text.length() + 1)
+			throw new IllegalArgumentException("Text of " + text.length() + " characters requires " + (text.length() + 1) + " offsets.");
+
+		m_text = text;
+		m_offsets = offsets;
+		m_height = height;
+	}
+
+	public String getText()
+	{
+		return m_text;
+	}
+
+	public int getLength()
+	{
+		return m_text.length();
+	}
+
+	public Rect2D getBounds()
+	{
+		return new Rect2D(getWidth(), m_height);
+	}
+
+	public int getWidth()
+	{
+		return m_offsets[m_text.length()];
+	}
+
+	public int getHeight()
+	{
+		return m_height;
+	}
+
+	//Offset of the character at the given index, or the width of the text when the index is its length.
+	public int getOffset(int index)
+	{
+		return m_offsets[Math.max(0, Math.min(m_text.length(), index))];
+	}
+
+	//Width of the characters from the begin index up to, excluding, the end index.
+	public int getWidth(int beginIndex, int endIndex)
+	{
+		return getOffset(endIndex) - getOffset(beginIndex);
+	}
+
+	//Index of the first character whose offset is at or beyond the given offset.
+	public int pickIndex(int offset)
+	{
+		int i;
+
+		for(i = 0; i < m_text.length() && m_offsets[i] < offset; i++);
+
+		return i;
+	}
+}
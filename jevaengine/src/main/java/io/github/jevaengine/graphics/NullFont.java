@@ -12,6 +12,12 @@ public final class NullFont implements IFont
 		return new Rect2D(1, 1);
 	}
 
+	@Override
+	public MeasuredText measureText(String text)
+	{
+		return new MeasuredText(text, new int[text.length() + 1], 1);
+	}
+
 	@Override
 	public Rect2D drawText(Graphics2D g, int x, int y, float scale, String text)
 	{
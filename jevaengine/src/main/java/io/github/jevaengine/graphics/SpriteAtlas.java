@@ -0,0 +1,242 @@
+package io.github.jevaengine.graphics;
+
+import io.github.jevaengine.game.IRenderer;
+import io.github.jevaengine.math.Rect2D;
+import io.github.jevaengine.util.Nullable;
+import io.github.jevaengine.util.ThreadSafe;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Packs the regions of textures that sprites draw from into large shared pages, such that sprites render from a few
+ * accelerated images rather than an image each. Regions of a texture are packed onto the same page, as a sprite draws all
+ * of its frames from a single image. Regions are packed with shelf packing and kept a pixel apart, so that scaled frames
+ * do not sample their neighbours.
+ *
+ * Pages are retained for as long as the atlas is, regardless of whether the sprites drawing from them are, and textures are
+ * packed once per name. An atlas is therefore only used where one is bound explicitly, by applications which do not reload
+ * their textures.
+ */
+public final class SpriteAtlas
+{
+	private static final int DEFAULT_PAGE_SIZE = 2048;
+	private static final int PADDING = 1;
+
+	private final GraphicsConfiguration m_graphicsConfiguration;
+	private final int m_pageSize;
+
+	private final ArrayList<Page> m_pages = new ArrayList<>();
+	private final HashMap<String, PackedTexture> m_textures = new HashMap<>();
+
+	public SpriteAtlas(IRenderer renderer)
+	{
+		this(renderer.getGraphicsConfiguration(), DEFAULT_PAGE_SIZE);
+	}
+
+	public SpriteAtlas(GraphicsConfiguration graphicsConfiguration, int pageSize)
+	{
+		m_graphicsConfiguration = graphicsConfiguration;
+		m_pageSize = pageSize;
+	}
+
+	public int getPageCount()
+	{
+		synchronized(m_pages)
+		{
+			return m_pages.size();
+		}
+	}
+
+	/*
+	 * Packs the given regions of the named texture, returning where they were placed, or null if they could not be packed
+	 * onto a single page. Regions already packed for the texture are not packed again.
+	 */
+	@Nullable
+	@ThreadSafe
+	public PackedRegions pack(String textureName, IImmutableGraphic texture, Collection<Rect2D> regions)
+	{
+		synchronized(m_pages)
+		{
+			PackedTexture packed = m_textures.get(textureName);
+
+			ArrayList<Rect2D> unpacked = new ArrayList<>();
+
+			for(Rect2D r : new LinkedHashSet<>(regions))
+			{
+				if(packed == null || !packed.regions.containsKey(r))
+					unpacked.add(r);
+			}
+
+			if(packed == null)
+			{
+				Page page = m_pages.isEmpty() ? null : m_pages.get(m_pages.size() - 1);
+				Rect2D[] placements = page == null ? null : page.place(unpacked);
+
+				if(placements == null)
+				{
+					page = new Page();
+					placements = page.place(unpacked);
+
+					if(placements == null)
+						return null;
+
+					m_pages.add(page);
+				}
+
+				packed = new PackedTexture(page);
+				m_textures.put(textureName, packed);
+				copyRegions(texture, packed, unpacked, placements);
+			} else if(!unpacked.isEmpty())
+			{
+				Rect2D[] placements = packed.page.place(unpacked);
+
+				if(placements == null)
+					return null;
+
+				copyRegions(texture, packed, unpacked, placements);
+			}
+
+			return new PackedRegions(packed.page.graphic, packed.regions);
+		}
+	}
+
+	private void copyRegions(IImmutableGraphic texture, PackedTexture packed, List<Rect2D> regions, Rect2D[] placements)
+	{
+		Graphics2D g = packed.page.image.createGraphics();
+		g.setComposite(AlphaComposite.Src);
+
+		for(int i = 0; i < regions.size(); i++)
+		{
+			Rect2D src = regions.get(i);
+			Rect2D dest = placements[i];
+
+			texture.render(g, dest.x, dest.y, dest.width, dest.height, src.x, src.y, src.width, src.height);
+			packed.regions.put(new Rect2D(src), dest);
+		}
+
+		g.dispose();
+	}
+
+	//Regions of a texture packed into a page, by their location in the texture.
+	public static final class PackedRegions
+	{
+		private final IImmutableGraphic m_page;
+		private final Map<Rect2D, Rect2D> m_regions;
+
+		private PackedRegions(IImmutableGraphic page, Map<Rect2D, Rect2D> regions)
+		{
+			m_page = page;
+			m_regions = new HashMap<>(regions);
+		}
+
+		public IImmutableGraphic getPage()
+		{
+			return m_page;
+		}
+
+		public Rect2D getRegion(Rect2D textureRegion)
+		{
+			return new Rect2D(m_regions.get(textureRegion));
+		}
+	}
+
+	private static final class PackedTexture
+	{
+		public final Page page;
+		public final HashMap<Rect2D, Rect2D> regions = new HashMap<>();
+
+		public PackedTexture(Page page)
+		{
+			this.page = page;
+		}
+	}
+
+	private final class Page
+	{
+		public final BufferedImage image = m_graphicsConfiguration.createCompatibleImage(m_pageSize, m_pageSize, Transparency.TRANSLUCENT);
+		public final BufferedGraphic graphic = new BufferedGraphic(image);
+
+		//Each shelf is stored as its y coordinate, height and the width used of it.
+		private final ArrayList<int[]> m_shelves = new ArrayList<>();
+		private int m_usedHeight = 0;
+
+		//Places all of the given regions on this page, or none of them if they do not all fit.
+		@Nullable
+		public Rect2D[] place(final List<Rect2D> regions)
+		{
+			Integer[] order = new Integer[regions.size()];
+
+			for(int i = 0; i < order.length; i++)
+				order[i] = i;
+
+			//Tallest first, so that shelves are opened for the tallest regions and filled with the shorter ones.
+			Arrays.sort(order, new Comparator<Integer>() {
+				@Override
+				public int compare(Integer a, Integer b)
+				{
+					return regions.get(b).height - regions.get(a).height;
+				}
+			});
+
+			ArrayList<int[]> shelves = new ArrayList<>();
+
+			for(int[] shelf : m_shelves)
+				shelves.add(shelf.clone());
+
+			int usedHeight = m_usedHeight;
+			Rect2D[] placements = new Rect2D[regions.size()];
+
+			for(int i : order)
+			{
+				Rect2D region = regions.get(i);
+				int width = region.width + PADDING;
+				int height = region.height + PADDING;
+
+				if(width > m_pageSize)
+					return null;
+
+				int[] target = null;
+
+				for(int[] shelf : shelves)
+				{
+					if(height <= shelf[1] && shelf[2] + width <= m_pageSize)
+					{
+						target = shelf;
+						break;
+					}
+				}
+
+				if(target == null)
+				{
+					if(usedHeight + height > m_pageSize)
+						return null;
+
+					target = new int[] {usedHeight, height, 0};
+					shelves.add(target);
+					usedHeight += height;
+				}
+
+				placements[i] = new Rect2D(target[2], target[0], region.width, region.height);
+				target[2] += width;
+			}
+
+			m_shelves.clear();
+			m_shelves.addAll(shelves);
+			m_usedHeight = usedHeight;
+
+			return placements;
+		}
+	}
+}
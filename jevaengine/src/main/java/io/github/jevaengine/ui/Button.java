@@ -75,6 +75,8 @@ public final class Button extends Control
 		
 		Rect2D textBounds = m_font.getTextBounds(m_text);
 		m_frame = stateStyle.createFrame(textBounds.width, textBounds.height);
+		
+		invalidate();
 	}
 	
 	@Override
@@ -46,6 +46,7 @@ public final class Checkbox extends Control
 	public void setValue(boolean value)
 	{
 		m_value = value;
+		invalidate();
 	}
 	
 	@Override
@@ -69,7 +70,7 @@ public final class Checkbox extends Control
 	public boolean onMouseEvent(InputMouseEvent mouseEvent)
 	{
 		if(mouseEvent.type == MouseEventType.MouseClicked)
-			m_value = !m_value;
+			setValue(!m_value);
 		
 		return true;
 	}
@@ -63,15 +63,33 @@ public abstract class Control implements IImmutableControl, IDisposable
 	final void setFocus()
 	{
 		m_hasFocus = true;
+		invalidate();
 		onFocusChanged();
 	}
 	
 	final void clearFocus()
 	{
 		m_hasFocus = false;
+		invalidate();
 		onFocusChanged();
 	}
 	
+	/*
+	 * Invoked whenever the appearance of this control changes, such that windows retaining their rendered output know to
+	 * render it again. Controls must invalidate themselves on every change to their state that affects how they render.
+	 */
+	protected void invalidate()
+	{
+		if(m_parent != null)
+			m_parent.invalidate();
+	}
+	
+	//Whether this control only renders differently after being invalidated, and may have its rendered output retained.
+	public boolean isRetainable()
+	{
+		return true;
+	}
+	
 	@Override
 	public final String getInstanceName()
 	{
@@ -93,6 +111,9 @@ public abstract class Control implements IImmutableControl, IDisposable
 	public final void setLocation(Vector2D location)
 	{
 		m_location = new Vector2D(location);
+		
+		if(m_parent != null)
+			m_parent.invalidate();
 	}
 
 	public final ComponentStyle getComponentStyle()
@@ -112,6 +133,7 @@ public abstract class Control implements IImmutableControl, IDisposable
 		
 		m_style = style;
 		onStyleChanged();
+		invalidate();
 	}
 
 	public final void setParent(Control parent)
@@ -141,6 +163,9 @@ public abstract class Control implements IImmutableControl, IDisposable
 			m_parent.setVisible(isVisible);
 
 		m_isVisible = isVisible;
+		
+		if(m_parent != null)
+			m_parent.invalidate();
 	}
 
 	protected void onStyleChanged()
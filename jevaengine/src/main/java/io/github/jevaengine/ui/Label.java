@@ -17,6 +17,7 @@
 package io.github.jevaengine.ui;
 
 import io.github.jevaengine.graphics.IFont;
+import io.github.jevaengine.graphics.MeasuredText;
 import io.github.jevaengine.joystick.InputKeyEvent;
 import io.github.jevaengine.joystick.InputMouseEvent;
 import io.github.jevaengine.math.Rect2D;
@@ -27,6 +28,10 @@ public final class Label extends Control
 {
 	public static final String COMPONENT_NAME = "label";
 	private String m_text;
+	
+	//Measured lazily, as the label's font is only known once it has been styled.
+	private MeasuredText m_measuredText;
+	private IFont m_measuredFont;
 
 	public Label(String text)
 	{
@@ -54,13 +59,22 @@ public final class Label extends Control
 	@Override
 	public Rect2D getBounds()
 	{
-		IFont font = getComponentStyle().getStateStyle(ComponentState.Default).getFont();	
-		return font.getTextBounds(m_text);
+		IFont font = getComponentStyle().getStateStyle(ComponentState.Default).getFont();
+		
+		if(m_measuredText == null || m_measuredFont != font)
+		{
+			m_measuredText = font.measureText(m_text);
+			m_measuredFont = font;
+		}
+		
+		return m_measuredText.getBounds();
 	}
 	
 	public void setText(String text)
 	{
 		m_text = text;
+		m_measuredText = null;
+		invalidate();
 	}
 
 	@Override
@@ -104,6 +104,12 @@ public final class MenuStrip extends Control
 	{
 		return m_container.getBounds();
 	}
+	
+	@Override
+	public boolean isRetainable()
+	{
+		return m_container.isRetainable();
+	}
 
 	@Override
 	public void update(int deltaTime)
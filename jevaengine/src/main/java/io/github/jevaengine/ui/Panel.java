@@ -88,6 +88,8 @@ public final class Panel extends Control implements IDisposable
 		
 		if (location != null)
 			control.setLocation(location);
+		
+		invalidate();
 	}
 
 	public void removeControl(Control control)
@@ -105,6 +107,7 @@ public final class Panel extends Control implements IDisposable
 			
 			control.setParent(null);
 			m_controls.remove(control);
+			invalidate();
 		}
 	}
 
@@ -216,17 +219,31 @@ public final class Panel extends Control implements IDisposable
 	{
 		return m_frame.getBounds();
 	}
+	
+	@Override
+	public final boolean isRetainable()
+	{
+		for (Control control : m_controls)
+		{
+			if (control.isVisible() && !control.isRetainable())
+				return false;
+		}
+		
+		return true;
+	}
 
 	protected final void setWidth(int width)
 	{
 		m_desiredWidth = width;
 		m_frame = getComponentStyle().getStateStyle(ComponentState.Default).createFrame(m_desiredWidth, m_desiredHeight);
+		invalidate();
 	}
 
 	protected final void setHeight(int height)
 	{
 		m_desiredHeight = height;
 		m_frame = getComponentStyle().getStateStyle(ComponentState.Default).createFrame(m_desiredWidth, m_desiredHeight);
+		invalidate();
 	}
 
 	@Override
@@ -0,0 +1,148 @@
+package io.github.jevaengine.ui;
+
+import io.github.jevaengine.graphics.IFont;
+import io.github.jevaengine.joystick.InputKeyEvent;
+import io.github.jevaengine.joystick.InputMouseEvent;
+import io.github.jevaengine.math.Rect2D;
+import io.github.jevaengine.math.Vector2D;
+import io.github.jevaengine.ui.style.IUIStyle;
+import io.github.jevaengine.util.ProfileSection;
+import io.github.jevaengine.util.Profiler;
+
+import java.awt.Graphics2D;
+import java.util.List;
+import java.util.Locale;
+
+/*
+ * Window listing the rolling percentiles of every profiled section, in milliseconds. The window is added to a window
+ * manager like any other, and profiling is enabled for as long as it is shown. The listing is refreshed a couple of times
+ * a second rather than every frame, so that the overlay hardly weighs on the timings it presents.
+ */
+public final class ProfilerOverlay
+{
+	private static final int REFRESH_INTERVAL = 500;
+
+	private static final float[] PERCENTILES = {0.5F, 0.95F, 0.99F, 1.0F};
+	private static final String[] HEADINGS = {"section", "p50", "p95", "p99", "max"};
+
+	private final Window m_window;
+
+	public ProfilerOverlay(IUIStyle style, int width, int height)
+	{
+		m_window = new Window(width, height);
+		m_window.setStyle(style);
+		m_window.setFocusable(false);
+		m_window.addControl(new SectionTable(width), new Vector2D());
+		m_window.setVisible(false);
+	}
+
+	public Window getWindow()
+	{
+		return m_window;
+	}
+
+	public boolean isVisible()
+	{
+		return m_window.isVisible();
+	}
+
+	public void setVisible(boolean isVisible)
+	{
+		m_window.setVisible(isVisible);
+		Profiler.setEnabled(isVisible);
+	}
+
+	public void toggle()
+	{
+		setVisible(!isVisible());
+	}
+
+	private static final class SectionTable extends Control
+	{
+		//Rendered using the style of labels.
+		private static final String COMPONENT_NAME = "label";
+
+		private final int m_width;
+
+		private final float[] m_percentiles = new float[PERCENTILES.length];
+
+		private volatile String[][] m_rows = new String[][] {HEADINGS};
+
+		private int m_sinceRefresh = REFRESH_INTERVAL;
+
+		public SectionTable(int width)
+		{
+			super(COMPONENT_NAME);
+			m_width = width;
+		}
+
+		@Override
+		public boolean onMouseEvent(InputMouseEvent mouseEvent) { return false; }
+
+		@Override
+		public boolean onKeyEvent(InputKeyEvent keyEvent) { return false; }
+
+		@Override
+		public Rect2D getBounds()
+		{
+			IFont font = getComponentStyle().getStateStyle(ComponentState.Default).getFont();
+
+			return new Rect2D(m_width, font.getMaxCharacterBounds().height * m_rows.length);
+		}
+
+		@Override
+		public void update(int deltaTime)
+		{
+			m_sinceRefresh += deltaTime;
+
+			if(m_sinceRefresh < REFRESH_INTERVAL || !isVisible())
+				return;
+
+			m_sinceRefresh = 0;
+
+			List<ProfileSection> sections = Profiler.getSections();
+			String[][] rows = new String[sections.size() + 1][];
+			rows[0] = HEADINGS;
+
+			for(int i = 0; i < sections.size(); i++)
+			{
+				ProfileSection section = sections.get(i);
+				section.getPercentiles(PERCENTILES, m_percentiles);
+
+				String[] row = new String[PERCENTILES.length + 1];
+				row[0] = section.getName();
+
+				for(int p = 0; p < PERCENTILES.length; p++)
+					row[p + 1] = String.format(Locale.ROOT, "%.2f", m_percentiles[p]);
+
+				rows[i + 1] = row;
+			}
+
+			m_rows = rows;
+			invalidate();
+		}
+
+		@Override
+		public void render(Graphics2D g, int x, int y, float scale)
+		{
+			IFont font = getComponentStyle().getStateStyle(ComponentState.Default).getFont();
+			Rect2D characterBounds = font.getMaxCharacterBounds();
+
+			//Fonts need not be monospaced, so every column is drawn at a fixed offset.
+			int valueColumnWidth = characterBounds.width * 7;
+			int nameColumnWidth = m_width - valueColumnWidth * PERCENTILES.length;
+
+			String[][] rows = m_rows;
+
+			for(int r = 0; r < rows.length; r++)
+			{
+				int rowY = y + Math.round(r * characterBounds.height * scale);
+
+				font.drawText(g, x, rowY, scale, rows[r][0]);
+
+				for(int c = 1; c < rows[r].length; c++)
+					font.drawText(g, x + Math.round((nameColumnWidth + (c - 1) * valueColumnWidth) * scale), rowY, scale, rows[r][c]);
+			}
+		}
+	}
+}
@@ -17,6 +17,7 @@
 package io.github.jevaengine.ui;
 
 import io.github.jevaengine.graphics.IFont;
+import io.github.jevaengine.graphics.MeasuredText;
 import io.github.jevaengine.graphics.IImmutableGraphic;
 import io.github.jevaengine.graphics.NullFont;
 import io.github.jevaengine.graphics.NullGraphic;
@@ -29,7 +30,6 @@ import io.github.jevaengine.math.Vector2D;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
-import java.awt.Rectangle;
 import java.awt.Shape;
 import java.awt.event.KeyEvent;
 import java.util.ArrayList;
@@ -41,6 +41,7 @@ public class TextArea extends Control
 	public static final String COMPONENT_NAME = "textArea";
 	
 	private static final int PADDING = 3;
+	private static final int CURSOR_BLINK_INTERVAL = 500;
 	
 	private String m_workingText;
 	
@@ -167,6 +168,7 @@ public class TextArea extends Control
 	public void setWordWrapped(boolean isWordWrapped)
 	{
 		m_isWordWrapped = isWordWrapped;
+		invalidate();
 	}
 	
 	public String getText()
@@ -186,6 +188,8 @@ public class TextArea extends Control
 		m_textLayout = new TextLayout(m_workingText, m_font, getEffectiveBounds(), 0);
 		
 		m_cursorLocation = m_workingText.length() == 0 ? 0 : m_workingText.length() - 1;
+		
+		invalidate();
 	}
 
 	public void writeText(String text)
@@ -215,11 +219,19 @@ public class TextArea extends Control
 		m_textLayout = new TextLayout(m_workingText, m_font, getEffectiveBounds(), m_textLayout.getScroll());
 		
 		m_textLayout.makeLineVisible(m_textLayout.getCursorLineIndex(m_cursorLocation));
+		
+		invalidate();
 	}
 
 	public void setEditable(boolean isEditable)
 	{
 		m_allowEdit = isEditable;
+		invalidate();
+	}
+	
+	private boolean isCursorShown()
+	{
+		return m_allowEdit && hasFocus() && m_blinkTimeout / CURSOR_BLINK_INTERVAL % 2 == 0;
 	}
 
 	@Override
@@ -230,16 +242,17 @@ public class TextArea extends Control
 		Shape oldClip = g.getClip();
 		
 		Rect2D myBounds = getEffectiveBounds();
-		Vector2D myLocation = getAbsoluteLocation();
 		
-		g.setClip(new Rectangle(myLocation.x, myLocation.y, myBounds.width, myBounds.height));
-		m_textLayout.render(g, x + PADDING, y + PADDING, scale, m_allowEdit && hasFocus() && m_blinkTimeout / 500 % 2 == 0 ? m_cursorLocation : - 1);
+		//Clipped relative to where the control is rendered, which is not its absolute location when rendered off screen.
+		g.clipRect(x, y, myBounds.width, myBounds.height);
+		m_textLayout.render(g, x + PADDING, y + PADDING, scale, isCursorShown() ? m_cursorLocation : - 1);
 		g.setClip(oldClip);
 	}
 
 	public void scrollToEnd()
 	{
 		m_cursorLocation = m_workingText.length() == 0 ? 0 : m_workingText.length() - 1;
+		invalidate();
 	}
 	
 	@Override
@@ -260,6 +273,7 @@ public class TextArea extends Control
 		{
 			Vector2D relativeLocation = mouseEvent.location.difference(getAbsoluteLocation());
 			m_cursorLocation = m_textLayout.pickLineLayout(relativeLocation.y).pickCursorLocation(relativeLocation.x);
+			invalidate();
 		}
 		
 		return true;
@@ -312,6 +326,8 @@ public class TextArea extends Control
 				
 				m_textLayout.makeLineVisible(m_textLayout.getCursorLineIndex(m_cursorLocation));
 			}
+			
+			invalidate();
 		}
 		
 		return true;
@@ -320,7 +336,12 @@ public class TextArea extends Control
 	@Override
 	public void update(int deltaTime)
 	{
+		boolean wasCursorShown = isCursorShown();
+		
 		m_blinkTimeout += deltaTime;
+		
+		if(isCursorShown() != wasCursorShown)
+			invalidate();
 	}
 	
 	private static class LineLayout
@@ -328,12 +349,14 @@ public class TextArea extends Control
 		private String m_text;
 		private int m_startIndex;
 		private IFont m_font;
+		private MeasuredText m_measuredText;
 		
 		public LineLayout(String text, int startIndex, IFont font)
 		{
 			m_text = text;
 			m_startIndex = startIndex;
 			m_font = font;
+			m_measuredText = font.measureText(text);
 		}
 
 		public String getText()
@@ -348,13 +371,7 @@ public class TextArea extends Control
 
 		public int pickCursorLocation(int x)
 		{
-			int i = 0;
-			int cursorX = x;
-			
-			for(i = 0; cursorX > 0 && i < m_text.length(); i++)
-				cursorX -= m_font.getTextBounds(String.valueOf(m_text.charAt(i))).width;
-			
-			return Math.min(m_text.length(), i) + m_startIndex;
+			return m_measuredText.pickIndex(x) + m_startIndex;
 		}
 		
 		public void render(Graphics2D g, int x, int y, float scale, int cursorLocationX)
@@ -365,9 +382,7 @@ public class TextArea extends Control
 			
 			if(cursorLocation > 0 && cursorLocation <= m_text.length())
 			{
-				int cursorOffsetX = 0;
-				for(int i = 0; cursorLocation > 0; i++, cursorLocation--)
-					cursorOffsetX += m_font.getTextBounds(String.valueOf(m_text.charAt(i))).width;
+				int cursorOffsetX = m_measuredText.getOffset(cursorLocation);
 				
 				g.setColor(Color.gray);
 				g.fillRect(x + cursorOffsetX, y, 1, m_font.getMaxCharacterBounds().height);
@@ -390,27 +405,24 @@ public class TextArea extends Control
 			int lineWidth = 0;
 			int lastStartIndex = 0;
 			
-			StringBuilder buffer = new StringBuilder();
+			MeasuredText measuredText = font.measureText(text);
 			
 			for(int i = 0; i < text.length(); i++)
 			{
-				String character = String.valueOf(text.charAt(i));
-				Rect2D charBounds = font.getTextBounds(character);
+				int charWidth = measuredText.getWidth(i, i + 1);
 				
-				if((lineWidth != 0 && lineWidth + charBounds.width >= bounds.width) || character.equals("\n"))
+				if((lineWidth != 0 && lineWidth + charWidth >= bounds.width) || text.charAt(i) == '\n')
 				{
 					lineWidth = 0;
-					m_lines.add(new LineLayout(buffer.toString(), lastStartIndex, font));
-					buffer = new StringBuilder();
+					m_lines.add(new LineLayout(text.substring(lastStartIndex, i), lastStartIndex, font));
 					lastStartIndex = i;
 				}
 				
-				lineWidth += charBounds.width;
-				buffer.append(character);
+				lineWidth += charWidth;
 			}
 			
-			if(buffer.length() != 0)
-				m_lines.add(new LineLayout(buffer.toString(), lastStartIndex, font));
+			if(lastStartIndex < text.length())
+				m_lines.add(new LineLayout(text.substring(lastStartIndex), lastStartIndex, font));
 			
 			setScroll(scroll);
 		}
@@ -52,7 +52,11 @@ public class ValueGuage extends Control implements IRenderable
 
 	public void setValue(float value)
 	{
+		if(value == m_value)
+			return;
+		
 		m_value = value;
+		invalidate();
 	}
 
 	public float getValue()
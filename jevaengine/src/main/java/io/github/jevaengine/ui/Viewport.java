@@ -62,6 +62,13 @@ public final class Viewport extends Control
 		m_view = view;
 	}
 	
+	//The view may change without notice.
+	@Override
+	public boolean isRetainable()
+	{
+		return false;
+	}
+	
 	@Override
 	public Rect2D getBounds()
 	{
@@ -20,7 +20,11 @@ import io.github.jevaengine.math.Vector2D;
 import io.github.jevaengine.util.Nullable;
 import io.github.jevaengine.util.StaticSet;
 
+import java.awt.AlphaComposite;
+import java.awt.Composite;
 import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
 
 public final class Window extends Control implements IDisposable
 {
@@ -35,6 +39,11 @@ public final class Window extends Control implements IDisposable
 	
 	private final Observers m_observers = new Observers();
 	
+	//Rendered output of the window, retained while it is rendered by a manager in retained mode.
+	private BufferedImage m_retainedImage;
+	private float m_retainedScale;
+	private volatile boolean m_isDirty = true;
+	
 	public Window(int width, int height)
 	{
 		super(COMPONENT_NAME);
@@ -136,10 +145,56 @@ public final class Window extends Control implements IDisposable
 		}
 	}
 
+	@Override
+	protected void invalidate()
+	{
+		m_isDirty = true;
+	}
+	
+	@Override
+	public boolean isRetainable()
+	{
+		return m_rootPanel.isRetainable();
+	}
+
 	@Override
 	public void render(Graphics2D g, int x, int y, float scale)
 	{
-		m_rootPanel.render(g, x, y, scale);
+		if(m_manager == null || !m_manager.isRetainedRendering() || !isRetainable())
+		{
+			m_retainedImage = null;
+			m_rootPanel.render(g, x, y, scale);
+			return;
+		}
+		
+		Rect2D bounds = getBounds();
+		int width = Math.max(1, (int)Math.ceil(bounds.width * scale));
+		int height = Math.max(1, (int)Math.ceil(bounds.height * scale));
+		
+		if(m_retainedImage == null || m_retainedImage.getWidth() != width || m_retainedImage.getHeight() != height || m_retainedScale != scale)
+		{
+			m_retainedImage = g.getDeviceConfiguration().createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+			m_retainedScale = scale;
+			m_isDirty = true;
+		}
+		
+		if(m_isDirty)
+		{
+			//Cleared ahead of rendering, so that changes made while the window is being rendered are not lost.
+			m_isDirty = false;
+			
+			Graphics2D retainedGraphics = m_retainedImage.createGraphics();
+			
+			Composite oldComposite = retainedGraphics.getComposite();
+			retainedGraphics.setComposite(AlphaComposite.Clear);
+			retainedGraphics.fillRect(0, 0, width, height);
+			retainedGraphics.setComposite(oldComposite);
+			
+			m_rootPanel.render(retainedGraphics, 0, 0, scale);
+			retainedGraphics.dispose();
+		}
+		
+		g.drawImage(m_retainedImage, x, y, null);
 	}
 
 	@Override
@@ -16,6 +16,8 @@ import io.github.jevaengine.joystick.InputKeyEvent;
 import io.github.jevaengine.joystick.InputMouseEvent;
 import io.github.jevaengine.joystick.InputMouseEvent.MouseEventType;
 import io.github.jevaengine.math.Vector2D;
+import io.github.jevaengine.util.ProfileSection;
+import io.github.jevaengine.util.Profiler;
 
 import java.awt.Graphics2D;
 import java.util.ArrayList;
@@ -24,16 +26,35 @@ import java.util.Queue;
 
 public final class WindowManager
 {
+	private static final ProfileSection PROFILE_RENDER = Profiler.getSection("WindowManager.render");
+	
 	private final ArrayList<Window> m_windows = new ArrayList<>();
 	private final Queue<Window> m_windowProcessQueue = new LinkedList<>();
 	
 	private final Vector2D m_resolution;
 	
+	private volatile boolean m_isRetainedRendering = false;
+	
 	public WindowManager(Vector2D resolution)
 	{
 		m_resolution = resolution;
 	}
 	
+	/*
+	 * In retained mode, windows keep their rendered output and only render it again after their contents change, such that
+	 * a window which seldom changes costs a single image draw per frame. Windows containing controls that may change without
+	 * notice, such as world views, are always rendered as usual. Content drawn outside of a retained window's bounds is clipped.
+	 */
+	public void setRetainedRendering(boolean isRetainedRendering)
+	{
+		m_isRetainedRendering = isRetainedRendering;
+	}
+	
+	public boolean isRetainedRendering()
+	{
+		return m_isRetainedRendering;
+	}
+	
 	protected Window[] getWindows()
 	{
 		return m_windows.toArray(new Window[m_windows.size()]);
@@ -136,11 +157,15 @@ public final class WindowManager
 
 	public void render(Graphics2D g, int x, int y, float fScale)
 	{
+		long profileStart = PROFILE_RENDER.begin();
+		
 		for (int i = m_windows.size() - 1; i >= 0; i--)
 		{
 			if (m_windows.get(i).isVisible())
 				m_windows.get(i).render(g, x + m_windows.get(i).getLocation().x, y + m_windows.get(i).getLocation().y, fScale);
 		}
+		
+		PROFILE_RENDER.end(profileStart);
 	}
 
 	public void update(int deltaTime)
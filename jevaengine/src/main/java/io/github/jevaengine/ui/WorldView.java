@@ -120,6 +120,12 @@ public final class WorldView extends Control
 	@Override
 	public void update(int deltaTime) { }
 	
+	@Override
+	public boolean isRetainable()
+	{
+		return false;
+	}
+	
 	@Override
 	public void render(Graphics2D g, int x, int y, float scale)
 	{
@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Jeremy.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Public License v3.0
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/gpl.html
+ *
+ * If you'd like to obtain a another license to this code, you may contact Jeremy to discuss alternative redistribution options.
+ *
+ * Contributors:
+ *     Jeremy - initial API and implementation
+ ******************************************************************************/
+package io.github.jevaengine.util;
+
+import java.util.Arrays;
+
+//Open addressing (linear probing) hash map keyed on a primitive long, avoids boxing keys on lookup.
+public final class LongHashMap<V>
+{
+	private static final int DEFAULT_CAPACITY = 64;
+	private static final float LOAD_FACTOR = 0.5F;
+
+	private long[] m_keys;
+	private Object[] m_values;
+	private boolean[] m_used;
+
+	private int m_size = 0;
+	private int m_resizeThreshold;
+
+	public LongHashMap(int expectedSize)
+	{
+		int capacity = DEFAULT_CAPACITY;
+
+		while(capacity * LOAD_FACTOR < expectedSize)
+			capacity <<= 1;
+
+		allocate(capacity);
+	}
+
+	public LongHashMap()
+	{
+		this(0);
+	}
+
+	public static long pack(int high, int low)
+	{
+		return ((long)high << 32) | (low & 0xFFFFFFFFL);
+	}
+
+	private void allocate(int capacity)
+	{
+		m_keys = new long[capacity];
+		m_values = new Object[capacity];
+		m_used = new boolean[capacity];
+		m_resizeThreshold = (int)(capacity * LOAD_FACTOR);
+	}
+
+	private static int hash(long key)
+	{
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int)(h ^ (h >>> 32));
+	}
+
+	private int indexOf(long key)
+	{
+		int mask = m_keys.length - 1;
+
+		for(int i = hash(key) & mask; m_used[i]; i = (i + 1) & mask)
+		{
+			if(m_keys[i] == key)
+				return i;
+		}
+
+		return -1;
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public V get(long key)
+	{
+		int index = indexOf(key);
+
+		return index < 0 ? null : (V)m_values[index];
+	}
+
+	public boolean containsKey(long key)
+	{
+		return indexOf(key) >= 0;
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public V put(long key, V value)
+	{
+		int mask = m_keys.length - 1;
+		int i = hash(key) & mask;
+
+		for(; m_used[i]; i = (i + 1) & mask)
+		{
+			if(m_keys[i] == key)
+			{
+				V old = (V)m_values[i];
+				m_values[i] = value;
+				return old;
+			}
+		}
+
+		m_used[i] = true;
+		m_keys[i] = key;
+		m_values[i] = value;
+
+		if(++m_size > m_resizeThreshold)
+			rehash(m_keys.length << 1);
+
+		return null;
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public V remove(long key)
+	{
+		int index = indexOf(key);
+
+		if(index < 0)
+			return null;
+
+		V old = (V)m_values[index];
+
+		int mask = m_keys.length - 1;
+
+		//Backward shift deletion, keeps probe sequences intact without tombstones.
+		int free = index;
+		for(int i = (free + 1) & mask; m_used[i]; i = (i + 1) & mask)
+		{
+			int home = hash(m_keys[i]) & mask;
+
+			if(((i - home) & mask) >= ((i - free) & mask))
+			{
+				m_keys[free] = m_keys[i];
+				m_values[free] = m_values[i];
+				free = i;
+			}
+		}
+
+		m_used[free] = false;
+		m_values[free] = null;
+		m_size--;
+
+		return old;
+	}
+
+	private void rehash(int capacity)
+	{
+		long[] keys = m_keys;
+		Object[] values = m_values;
+		boolean[] used = m_used;
+
+		allocate(capacity);
+
+		int mask = capacity - 1;
+
+		for(int i = 0; i < keys.length; i++)
+		{
+			if(!used[i])
+				continue;
+
+			int index = hash(keys[i]) & mask;
+
+			while(m_used[index])
+				index = (index + 1) & mask;
+
+			m_used[index] = true;
+			m_keys[index] = keys[i];
+			m_values[index] = values[i];
+		}
+	}
+
+	public int size()
+	{
+		return m_size;
+	}
+
+	public boolean isEmpty()
+	{
+		return m_size == 0;
+	}
+
+	public void clear()
+	{
+		Arrays.fill(m_used, false);
+		Arrays.fill(m_values, null);
+		m_size = 0;
+	}
+}
@@ -0,0 +1,109 @@
+package io.github.jevaengine.util;
+
+import java.util.Arrays;
+
+/*
+ * A named, timed section of code. The durations of the most recent executions of the section are kept in a ring buffer,
+ * which is allocated with the section, such that timing a section does not allocate. Sections are timed as follows:
+ *
+ *   long start = SECTION.begin();
+ *   ...
+ *   SECTION.end(start);
+ *
+ * Nothing is measured while the profiler is disabled.
+ */
+public final class ProfileSection
+{
+	private final String m_name;
+
+	private final long[] m_samples;
+	private final long[] m_sortedSamples;
+
+	private int m_nextSample = 0;
+	private int m_sampleCount = 0;
+
+	private long m_totalCount = 0;
+
+	ProfileSection(String name, int capacity)
+	{
+		m_name = name;
+		m_samples = new long[capacity];
+		m_sortedSamples = new long[capacity];
+	}
+
+	public String getName()
+	{
+		return m_name;
+	}
+
+	//Returns the time the section began at, or 0 if the profiler is disabled.
+	public long begin()
+	{
+		return Profiler.isEnabled() ? System.nanoTime() : 0;
+	}
+
+	public void end(long start)
+	{
+		if(start != 0)
+			record(System.nanoTime() - start);
+	}
+
+	public synchronized void record(long duration)
+	{
+		m_samples[m_nextSample] = duration;
+		m_nextSample = (m_nextSample + 1) % m_samples.length;
+		m_sampleCount = Math.min(m_sampleCount + 1, m_samples.length);
+		m_totalCount++;
+	}
+
+	public synchronized int getSampleCount()
+	{
+		return m_sampleCount;
+	}
+
+	//Number of times the section has been timed since it was last cleared, including samples no longer retained.
+	public synchronized long getTotalCount()
+	{
+		return m_totalCount;
+	}
+
+	//Copies the retained samples, in nanoseconds and oldest first, into the target. Returns the number of samples copied.
+	public synchronized int getSamples(long[] target)
+	{
+		int count = Math.min(target.length, m_sampleCount);
+		int first = (m_nextSample - count + m_samples.length) % m_samples.length;
+
+		for(int i = 0; i < count; i++)
+			target[i] = m_samples[(first + i) % m_samples.length];
+
+		return count;
+	}
+
+	/*
+	 * Stores, for each of the given percentiles (from 0 to 1), the duration in milliseconds under which that portion of
+	 * the retained samples fall. Results are 0 when there are no samples.
+	 */
+	public synchronized void getPercentiles(float[] percentiles, float[] results)
+	{
+		System.arraycopy(m_samples, 0, m_sortedSamples, 0, m_sampleCount);
+		Arrays.sort(m_sortedSamples, 0, m_sampleCount);
+
+		for(int i = 0; i < percentiles.length; i++)
+		{
+			if(m_sampleCount == 0)
+				results[i] = 0;
+			else
+			{
+				int index = Math.min(m_sampleCount - 1, (int)Math.ceil(percentiles[i] * m_sampleCount) - 1);
+				results[i] = m_sortedSamples[Math.max(0, index)] / 1000000.0F;
+			}
+		}
+	}
+
+	public synchronized void clear()
+	{
+		m_nextSample = 0;
+		m_sampleCount = 0;
+		m_totalCount = 0;
+	}
+}
@@ -0,0 +1,86 @@
+package io.github.jevaengine.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+
+/*
+ * Registry of the engine's profiled sections. Sections are registered once, typically into a static field of the class
+ * they time, and are shared by every instance of that class. Profiling is disabled by default.
+ */
+public final class Profiler
+{
+	public static final int DEFAULT_SAMPLE_CAPACITY = 240;
+
+	private static volatile boolean m_isEnabled = false;
+
+	private static final HashMap<String, ProfileSection> m_sectionLookup = new HashMap<>();
+	private static final ArrayList<ProfileSection> m_sections = new ArrayList<>();
+
+	private Profiler() { }
+
+	public static boolean isEnabled()
+	{
+		return m_isEnabled;
+	}
+
+	public static void setEnabled(boolean isEnabled)
+	{
+		m_isEnabled = isEnabled;
+	}
+
+	//Returns the section of the given name, registering it if it does not yet exist.
+	public static ProfileSection getSection(String name)
+	{
+		synchronized(m_sections)
+		{
+			ProfileSection section = m_sectionLookup.get(name);
+
+			if(section == null)
+			{
+				section = new ProfileSection(name, DEFAULT_SAMPLE_CAPACITY);
+				m_sectionLookup.put(name, section);
+				m_sections.add(section);
+			}
+
+			return section;
+		}
+	}
+
+	//Sections in the order they were registered.
+	public static List<ProfileSection> getSections()
+	{
+		synchronized(m_sections)
+		{
+			return Collections.unmodifiableList(new ArrayList<>(m_sections));
+		}
+	}
+
+	public static void clear()
+	{
+		for(ProfileSection s : getSections())
+			s.clear();
+	}
+
+	//Writes every retained sample, oldest first per section, as CSV rows of section name, sample index and milliseconds.
+	public static void dumpCsv(Writer writer) throws IOException
+	{
+		long[] samples = new long[DEFAULT_SAMPLE_CAPACITY];
+
+		writer.write("section,sample,milliseconds\n");
+
+		for(ProfileSection s : getSections())
+		{
+			int count = s.getSamples(samples);
+
+			for(int i = 0; i < count; i++)
+				writer.write(String.format(Locale.ROOT, "%s,%d,%.4f\n", s.getName(), i, samples[i] / 1000000.0F));
+		}
+
+		writer.flush();
+	}
+}
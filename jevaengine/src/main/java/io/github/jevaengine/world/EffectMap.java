@@ -22,37 +22,72 @@ import io.github.jevaengine.math.Vector2F;
 import io.github.jevaengine.world.search.ISearchFilter;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.BitSet;
 
+//Dense, struct-of-arrays tile grid covering a fixed region. Tiles outside of the region carry default effects.
 public final class EffectMap
 {
-	private HashMap<Vector2D, TileEffects> m_tileEffects;
+	private final Rect2D m_bounds;
+	
+	private final BitSet m_untraversable;
+	private final float[] m_sightEffects;
 
-	public EffectMap()
+	public EffectMap(Rect2D bounds)
 	{
-		m_tileEffects = new HashMap<Vector2D, TileEffects>();
+		m_bounds = new Rect2D(bounds);
+		m_untraversable = new BitSet(bounds.width * bounds.height);
+		m_sightEffects = new float[bounds.width * bounds.height];
+		
+		Arrays.fill(m_sightEffects, 1.0F);
 	}
 
 	public EffectMap(EffectMap map)
 	{
-		m_tileEffects = new HashMap<Vector2D, TileEffects>();
-
-		for (Map.Entry<Vector2D, TileEffects> effects : map.m_tileEffects.entrySet())
-			applyOverlayEffects(effects.getKey(), effects.getValue());
+		m_bounds = new Rect2D(map.m_bounds);
+		m_untraversable = (BitSet)map.m_untraversable.clone();
+		m_sightEffects = map.m_sightEffects.clone();
 	}
 
+	public Rect2D getBounds()
+	{
+		return new Rect2D(m_bounds);
+	}
+	
+	private int getIndex(int x, int y)
+	{
+		int localX = x - m_bounds.x;
+		int localY = y - m_bounds.y;
+		
+		if(localX < 0 || localY < 0 || localX >= m_bounds.width || localY >= m_bounds.height)
+			return -1;
+		
+		return localY * m_bounds.width + localX;
+	}
+	
 	public void clear()
 	{
-		m_tileEffects.clear();
+		m_untraversable.clear();
+		Arrays.fill(m_sightEffects, 1.0F);
 	}
 
+	public boolean isTraversable(int x, int y)
+	{
+		int index = getIndex(x, y);
+		
+		return index < 0 || !m_untraversable.get(index);
+	}
+	
+	public float getSightEffect(int x, int y)
+	{
+		int index = getIndex(x, y);
+		
+		return index < 0 ? 1.0F : m_sightEffects[index];
+	}
+	
 	public TileEffects getTileEffects(Vector2D location)
 	{
-		if (!m_tileEffects.containsKey(location))
-			return new TileEffects();
-
-		return m_tileEffects.get(location);
+		return TileEffects.valueOf(isTraversable(location.x, location.y), getSightEffect(location.x, location.y));
 	}
 
 	public final TileEffects[] getTileEffects(ISearchFilter<TileEffects> filter)
@@ -77,42 +112,51 @@ public final class EffectMap
 		return tileEffects.toArray(new TileEffects[tileEffects.size()]);
 	}
 
+	public final void applyOverlayEffects(int x, int y, boolean isTraversable, float sightEffect)
+	{
+		int index = getIndex(x, y);
+		
+		if(index < 0)
+			return;
+		
+		if(!isTraversable)
+			m_untraversable.set(index);
+		
+		if(sightEffect < m_sightEffects[index])
+			m_sightEffects[index] = sightEffect;
+	}
+	
 	public final void applyOverlayEffects(ISearchFilter<TileEffects> filter, TileEffects overlay)
 	{
 		Rect2D searchBounds = filter.getSearchBounds();
 
-		for (int x = searchBounds.x; x <= searchBounds.width; x++)
+		for (int x = searchBounds.x; x <= searchBounds.x + searchBounds.width; x++)
 		{
-			for (int y = searchBounds.y; y <= searchBounds.height; y++)
+			for (int y = searchBounds.y; y <= searchBounds.y + searchBounds.height; y++)
 			{
-				TileEffects effects = getTileEffects(new Vector2D(x, y));
-
-				if (filter.shouldInclude(new Vector2F(x, y)) && effects == null)
-				{
-					m_tileEffects.put(new Vector2D(x, y), overlay);
-					effects = overlay;
-				}
-
-				if (effects != null && filter.shouldInclude(new Vector2F(x, y)) && (effects = filter.filter(effects)) != null)
-				{
-					effects.overlay(overlay);
-				}
+				if (filter.shouldInclude(new Vector2F(x, y)) && filter.filter(getTileEffects(new Vector2D(x, y))) != null)
+					applyOverlayEffects(x, y, overlay.isTraversable(), overlay.getSightEffect());
 			}
 		}
 	}
 
 	public final void applyOverlayEffects(Vector2D location, TileEffects value)
 	{
-		if (!m_tileEffects.containsKey(location))
-			m_tileEffects.put(location, value);
-		else
-			m_tileEffects.put(location, m_tileEffects.get(location).overlay(value));
+		applyOverlayEffects(location.x, location.y, value.isTraversable(), value.getSightEffect());
 	}
 
 	public final void overlay(EffectMap overlay, Vector2D offset)
 	{
-		for (Map.Entry<Vector2D, TileEffects> effects : overlay.m_tileEffects.entrySet())
-			applyOverlayEffects(effects.getKey().add(offset), effects.getValue());
+		Rect2D bounds = overlay.m_bounds;
+		
+		for (int y = 0; y < bounds.height; y++)
+		{
+			for (int x = 0; x < bounds.width; x++)
+			{
+				int index = y * bounds.width + x;
+				applyOverlayEffects(bounds.x + x + offset.x, bounds.y + y + offset.y, !overlay.m_untraversable.get(index), overlay.m_sightEffects[index]);
+			}
+		}
 	}
 
 	public final void overlay(EffectMap overlay)
@@ -120,10 +164,14 @@ public final class EffectMap
 		overlay(overlay, new Vector2D());
 	}
 
+	//Immutable; the common effect combinations are shared instances so grid reads do not allocate.
 	public static class TileEffects
 	{
-		private boolean isTraversable;
-		private float sightEffect;
+		private static final TileEffects TRAVERSABLE = new TileEffects(true);
+		private static final TileEffects UNTRAVERSABLE = new TileEffects(false);
+		
+		private final boolean isTraversable;
+		private final float sightEffect;
 		
 		public TileEffects()
 		{
@@ -148,6 +196,20 @@ public final class EffectMap
 			isTraversable = true;
 			sightEffect = _sightEffect;
 		}
+		
+		public TileEffects(boolean _isTraversable, float _sightEffect)
+		{
+			isTraversable = _isTraversable;
+			sightEffect = _sightEffect;
+		}
+		
+		public static TileEffects valueOf(boolean isTraversable, float sightEffect)
+		{
+			if(sightEffect == 1.0F)
+				return isTraversable ? TRAVERSABLE : UNTRAVERSABLE;
+			
+			return new TileEffects(isTraversable, sightEffect);
+		}
 
 		public boolean isTraversable()
 		{
@@ -161,21 +223,21 @@ public final class EffectMap
 		
 		public static TileEffects merge(TileEffects[] tiles)
 		{
-			TileEffects effect = new TileEffects();
+			boolean isTraversable = true;
+			float sightEffect = 1.0F;
 
 			for (TileEffects tile : tiles)
-				effect = effect.overlay(tile);
+			{
+				isTraversable &= tile.isTraversable;
+				sightEffect = Math.min(sightEffect, tile.sightEffect);
+			}
 
-			return effect;
+			return valueOf(isTraversable, sightEffect);
 		}
 
 		public TileEffects overlay(TileEffects overlay)
 		{
-			TileEffects newEffects = new TileEffects();
-			newEffects.isTraversable = isTraversable && overlay.isTraversable;
-			newEffects.sightEffect = Math.min(sightEffect, overlay.sightEffect);
-
-			return newEffects;
+			return valueOf(isTraversable && overlay.isTraversable, Math.min(sightEffect, overlay.sightEffect));
 		}
 	}
 }
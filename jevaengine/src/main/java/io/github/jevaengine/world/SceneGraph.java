@@ -23,7 +23,10 @@ import io.github.jevaengine.math.Rect3F;
 import io.github.jevaengine.math.Vector2D;
 import io.github.jevaengine.math.Vector2F;
 import io.github.jevaengine.math.Vector3F;
+import io.github.jevaengine.util.LongHashMap;
 import io.github.jevaengine.util.Nullable;
+import io.github.jevaengine.util.ProfileSection;
+import io.github.jevaengine.util.Profiler;
 import io.github.jevaengine.util.StaticSet;
 import io.github.jevaengine.world.EffectMap.TileEffects;
 import io.github.jevaengine.world.entity.DefaultEntity;
@@ -35,27 +38,49 @@ import io.github.jevaengine.world.physics.IPhysicsWorld;
 import io.github.jevaengine.world.physics.PhysicsBodyDescription;
 import io.github.jevaengine.world.physics.PhysicsBodyDescription.PhysicsBodyShape;
 import io.github.jevaengine.world.physics.PhysicsBodyDescription.PhysicsBodyType;
+import io.github.jevaengine.world.scene.ISceneBatch;
 import io.github.jevaengine.world.scene.ISceneBuffer;
+import io.github.jevaengine.world.scene.StaticLayer;
 import io.github.jevaengine.world.search.ISearchFilter;
 
 import java.util.ArrayList;
+import java.util.ArrayDeque;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class SceneGraph implements IDisposable
 {
+	public static final int SECTOR_DIMENSIONS = 10;
+	
+	//Fewest visible sectors for which culling is split across a pool.
+	private static final int PARALLEL_RENDER_SECTORS = 8;
+	
+	private static final ProfileSection PROFILE_UPDATE = Profiler.getSection("SceneGraph.update");
+	
 	private final ArrayList<EntitySector> m_sectors = new ArrayList<>();
-	private final ArrayList<EntityEntry> m_entities = new ArrayList<>();
-	private final ArrayList<EntityEntry> m_dynamicEntities = new ArrayList<>();
+	private final LongHashMap<EntitySector> m_sectorIndex = new LongHashMap<>();
 	
-	private final Queue<EntityEntry> m_entityUpdateQueue = new LinkedList<>();
+	//Dynamic blockers are kept apart from the sectors, such that blocking tiles of a sector which does not exist does not create it.
+	private final ArrayList<DynamicBlockers> m_dynamicBlockers = new ArrayList<>();
+	private final LongHashMap<DynamicBlockers> m_dynamicBlockerIndex = new LongHashMap<>();
+	//Entries are kept in the order their entities were added, which is the order lookups by name, and updates, visit them.
+	private final LinkedHashSet<EntityEntry> m_entities = new LinkedHashSet<>();
+	private final LinkedHashSet<EntityEntry> m_dynamicEntities = new LinkedHashSet<>();
+	private final IdentityHashMap<IEntity, EntityEntry> m_entityEntries = new IdentityHashMap<>();
+	
+	private final Queue<EntityEntry> m_entityUpdateQueue = new ArrayDeque<>();
 	
 	private final Observers m_observers = new Observers();
 	
 	private final IPhysicsWorld m_hostWorld;
 	
+	private int m_staticVersion = 0;
+	
 	public SceneGraph(IPhysicsWorld hostWorld)
 	{
 		m_hostWorld = hostWorld;
@@ -70,7 +95,13 @@ public class SceneGraph implements IDisposable
 			s.dispose();
 		
 		m_sectors.clear();
+		m_sectorIndex.clear();
+		m_dynamicBlockers.clear();
+		m_dynamicBlockerIndex.clear();
 		m_entities.clear();
+		m_dynamicEntities.clear();
+		m_entityEntries.clear();
+		m_entityUpdateQueue.clear();
 	}
 
 	public void addObserver(EntityContainerObserver o)
@@ -83,16 +114,38 @@ public class SceneGraph implements IDisposable
 		m_observers.remove(o);
 	}
 	
-	private EntitySector getSector(Vector2F location)
+	public static int getSectorCoordinate(int tileCoordinate)
+	{
+		//Integer division rounds towards zero, sectors must be floored so negative tiles land in the correct sector.
+		if(tileCoordinate >= 0)
+			return tileCoordinate / SECTOR_DIMENSIONS;
+		else
+			return (tileCoordinate + 1) / SECTOR_DIMENSIONS - 1;
+	}
+	
+	@Nullable
+	private EntitySector findSector(int sectorX, int sectorY)
+	{
+		return m_sectorIndex.get(LongHashMap.pack(sectorX, sectorY));
+	}
+	
+	@Nullable
+	private EntitySector findSector(Vector2D tileLocation)
+	{
+		return findSector(getSectorCoordinate(tileLocation.x), getSectorCoordinate(tileLocation.y));
+	}
+	
+	private EntitySector getSector(int sectorX, int sectorY)
 	{
-		LayerSectorCoordinate sectorCoordinates = new LayerSectorCoordinate(location);
+		long key = LongHashMap.pack(sectorX, sectorY);
+		EntitySector sector = m_sectorIndex.get(key);
 		
-		if (!m_sectors.contains(sectorCoordinates))
-			m_sectors.add(new EntitySector(location));
-
-		int sec = m_sectors.indexOf(sectorCoordinates);
-
-		EntitySector sector = m_sectors.get(sec);
+		if(sector == null)
+		{
+			sector = new EntitySector(new Vector2D(sectorX, sectorY));
+			m_sectors.add(sector);
+			m_sectorIndex.put(key, sector);
+		}
 		
 		return sector;
 	}
@@ -100,13 +153,7 @@ public class SceneGraph implements IDisposable
 	@Nullable
 	private EntityEntry getEntityEntry(IEntity entity)
 	{
-		for(EntityEntry entry : m_entities)
-		{
-			if(entry.getSubject().equals(entity))
-				return entry;
-		}
-		
-		return null;
+		return m_entityEntries.get(entity);
 	}
 	
 	public EntitySet getEntities(@Nullable Rect2D region)
@@ -121,9 +168,13 @@ public class SceneGraph implements IDisposable
 	
 	public void add(IEntity entity)
 	{
+		if(m_entityEntries.containsKey(entity))
+			return;
+		
 		EntityEntry entry = new EntityEntry(entity);
 		
 		m_entities.add(entry);
+		m_entityEntries.put(entity, entry);
 		
 		if(!entity.isStatic())
 		{
@@ -137,37 +188,140 @@ public class SceneGraph implements IDisposable
 	
 	public void remove(IEntity entity)
 	{
-		EntityEntry entry = getEntityEntry(entity);
+		EntityEntry entry = m_entityEntries.remove(entity);
 		
 		if(entry != null)
 		{
 			m_entities.remove(entry);
-			
 			m_dynamicEntities.remove(entry);
 			
 			entry.dispose();
 			m_observers.removedEntity(entity);
 			
-			//If this entity was removed in the middle of an update cycle, it must be removed from the update queue
-			//as to not have it's logic update while it is not associate to our world.
-			m_entityUpdateQueue.remove(entry);
+			//If this entity was removed in the middle of an update cycle, it must not have its logic updated
+			//while it is not associated to our world. Disposed entries are skipped when the update queue is drained.
 		}
 	}
 
 	public TileEffects getTileEffects(Vector2D location)
 	{
-		int index = m_sectors.indexOf(new LayerSectorCoordinate(location));
-
-		if (index < 0)
-			return new TileEffects();
+		EntitySector sector = findSector(location);
 
-		EntitySector sector = m_sectors.get(m_sectors.indexOf(new LayerSectorCoordinate(location)));
+		if (sector == null)
+		{
+			DynamicBlockers blockers = m_dynamicBlockerIndex.get(LongHashMap.pack(getSectorCoordinate(location.x), getSectorCoordinate(location.y)));
+			
+			return TileEffects.valueOf(blockers == null || !blockers.isBlocked(location.x, location.y), 1.0F);
+		}
 
 		return sector.getTileEffects(location);
 	}
+	
+	//Sectors share their snapshots between calls until their effects change, so this costs O(sectors) when idle.
+	public TileEffectsSnapshot createTileEffectsSnapshot()
+	{
+		LongHashMap<EffectMap> sectors = new LongHashMap<>(m_sectors.size());
+		LongHashMap<EffectMap> staticSectors = new LongHashMap<>(m_sectors.size());
+		LongHashMap<Integer> staticVersions = new LongHashMap<>(m_sectors.size());
+		
+		for(EntitySector sector : m_sectors)
+		{
+			long key = LongHashMap.pack(sector.m_location.x, sector.m_location.y);
+			sectors.put(key, sector.getSnapshot());
+			staticSectors.put(key, sector.getStaticSnapshot());
+			staticVersions.put(key, sector.m_staticVersion);
+		}
+		
+		//Blockers outside of any sector are only kept while they block a tile.
+		for(DynamicBlockers blockers : m_dynamicBlockers)
+		{
+			long key = LongHashMap.pack(blockers.m_location.x, blockers.m_location.y);
+			
+			if(!sectors.containsKey(key))
+			{
+				EffectMap effects = new EffectMap(new Rect2D(blockers.m_location.x * SECTOR_DIMENSIONS, blockers.m_location.y * SECTOR_DIMENSIONS, SECTOR_DIMENSIONS, SECTOR_DIMENSIONS));
+				blockers.applyTo(effects);
+				sectors.put(key, effects);
+			}
+		}
+		
+		return new TileEffectsSnapshot(sectors, staticSectors, staticVersions, m_staticVersion);
+	}
 
+	//Adjusts the dynamic blocker reference count of every tile in [minX, maxX) x [minY, maxY) by delta.
+	private void adjustDynamicBlockers(int minX, int minY, int maxX, int maxY, int delta)
+	{
+		int sectorMinX = getSectorCoordinate(minX);
+		int sectorMinY = getSectorCoordinate(minY);
+		int sectorMaxX = getSectorCoordinate(maxX - 1);
+		int sectorMaxY = getSectorCoordinate(maxY - 1);
+		
+		for(int x = sectorMinX; x <= sectorMaxX; x++)
+		{
+			for(int y = sectorMinY; y <= sectorMaxY; y++)
+			{
+				long key = LongHashMap.pack(x, y);
+				DynamicBlockers blockers = delta > 0 ? getDynamicBlockers(x, y) : m_dynamicBlockerIndex.get(key);
+				
+				if(blockers == null || !blockers.adjust(minX, minY, maxX, maxY, delta))
+					continue;
+				
+				EntitySector sector = m_sectorIndex.get(key);
+				
+				if(sector != null)
+					sector.invalidateSnapshot();
+				else if(blockers.isEmpty())
+				{
+					m_dynamicBlockerIndex.remove(key);
+					m_dynamicBlockers.remove(blockers);
+				}
+			}
+		}
+	}
+	
+	private DynamicBlockers getDynamicBlockers(int sectorX, int sectorY)
+	{
+		long key = LongHashMap.pack(sectorX, sectorY);
+		DynamicBlockers blockers = m_dynamicBlockerIndex.get(key);
+		
+		if(blockers == null)
+		{
+			blockers = new DynamicBlockers(new Vector2D(sectorX, sectorY));
+			m_dynamicBlockers.add(blockers);
+			m_dynamicBlockerIndex.put(key, blockers);
+		}
+		
+		return blockers;
+	}
+	
+	public boolean isStaticTraversable(int x, int y)
+	{
+		EntitySector sector = findSector(getSectorCoordinate(x), getSectorCoordinate(y));
+		
+		return sector == null || sector.m_staticEffectMap.isTraversable(x, y);
+	}
+	
+	//Incremented whenever the static effects of any sector are rebuilt.
+	public int getStaticVersion()
+	{
+		return m_staticVersion;
+	}
+	
+	public int getStaticVersion(int sectorX, int sectorY)
+	{
+		EntitySector sector = findSector(sectorX, sectorY);
+		
+		return sector == null ? 0 : sector.m_staticVersion;
+	}
+	
 	public void update(int delta)
 	{
+		long profileStart = PROFILE_UPDATE.begin();
+		
+		//Only bodies whose covered tiles have changed touch the dynamic effect maps.
+		for (EntityEntry e : m_dynamicEntities)
+			e.updateBlocker();
+		
 		for (EntitySector sector : m_sectors)
 			sector.update(delta);
 		
@@ -175,35 +329,121 @@ public class SceneGraph implements IDisposable
 		m_entityUpdateQueue.addAll(m_dynamicEntities);
 		
 		for(EntityEntry e; (e = m_entityUpdateQueue.poll()) != null;)
-			e.getSubject().update(delta);
+		{
+			if(!e.isDisposed())
+				e.getSubject().update(delta);
+		}
+		
+		PROFILE_UPDATE.end(profileStart);
 	}
 
 	void enqueueRender(ISceneBuffer targetScene, Rect2F renderBounds)
 	{
-		HashSet<Integer> renderSectors = new HashSet<Integer>();
-
-		int sectorX = (int)Math.floor((float)renderBounds.x / EntitySector.SECTOR_DIMENSIONS);
-		int sectorY = (int)Math.floor((float)renderBounds.y / EntitySector.SECTOR_DIMENSIONS);
-		int sectorWidth = (int)Math.ceil((float)renderBounds.width / (float)EntitySector.SECTOR_DIMENSIONS);
-		int sectorHeight = (int)Math.ceil((float)renderBounds.height / (float)EntitySector.SECTOR_DIMENSIONS);
-
-		for (int y = sectorY; y <= sectorY + sectorHeight; y++)
+		enqueueRender(targetScene, renderBounds, null);
+	}
+	
+	/*
+	 * When a pool is given and enough sectors are visible, sectors are culled on the pool into batches of the target, which
+	 * are then merged in order on the calling thread.
+	 */
+	void enqueueRender(ISceneBuffer targetScene, Rect2F renderBounds, @Nullable ForkJoinPool pool)
+	{
+		Rect2D sectorBounds = getSectorBounds(renderBounds);
+		ArrayList<EntitySector> sectors = getVisibleSectors(sectorBounds);
+		
+		if(pool == null || sectors.size() < PARALLEL_RENDER_SECTORS)
+		{
+			for(EntitySector sector : sectors)
+				sector.enqueueRender(targetScene, renderBounds, sectorBounds.x, sectorBounds.y);
+			
+			return;
+		}
+		
+		int taskCount = Math.min(sectors.size(), pool.getParallelism() * 2);
+		ArrayList<SectorRenderTask> tasks = new ArrayList<>();
+		
+		for(int i = 0; i < taskCount; i++)
+		{
+			List<EntitySector> range = sectors.subList(i * sectors.size() / taskCount, (i + 1) * sectors.size() / taskCount);
+			tasks.add(new SectorRenderTask(range, targetScene.createBatch(), renderBounds, sectorBounds.x, sectorBounds.y));
+		}
+		
+		pool.invoke(new SectorRenderTasks(tasks));
+		
+		for(SectorRenderTask t : tasks)
+			targetScene.addBatch(t.m_batch);
+	}
+	
+	//The first sector rendered and, as width and height, the number of sectors spanned by the render bounds beyond it.
+	private static Rect2D getSectorBounds(Rect2F renderBounds)
+	{
+		return new Rect2D((int)Math.floor(renderBounds.x / SECTOR_DIMENSIONS),
+							(int)Math.floor(renderBounds.y / SECTOR_DIMENSIONS),
+							(int)Math.ceil(renderBounds.width / SECTOR_DIMENSIONS),
+							(int)Math.ceil(renderBounds.height / SECTOR_DIMENSIONS));
+	}
+	
+	private ArrayList<EntitySector> getVisibleSectors(Rect2D sectorBounds)
+	{
+		ArrayList<EntitySector> sectors = new ArrayList<>();
+		
+		for (int y = sectorBounds.y; y <= sectorBounds.y + sectorBounds.height; y++)
 		{
-			for (int x = sectorX; x <= sectorX + sectorWidth; x++)
+			for (int x = sectorBounds.x; x <= sectorBounds.x + sectorBounds.width; x++)
 			{
-				renderSectors.add(m_sectors.indexOf(new LayerSectorCoordinate(x, y, true)));
+				EntitySector sector = findSector(x, y);
+				
+				if (sector != null)
+					sectors.add(sector);
 			}
 		}
-
-		HashSet<IEntity> renderEntities = new HashSet<IEntity>();
-		for (Integer i : renderSectors)
+		
+		return sectors;
+	}
+	
+	private static final class SectorRenderTasks extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+		
+		private final List<SectorRenderTask> m_tasks;
+		
+		public SectorRenderTasks(List<SectorRenderTask> tasks)
 		{
-			if (i >= 0)
-				m_sectors.get(i).enqueueRender(renderEntities, renderBounds);
+			m_tasks = tasks;
 		}
 		
-		for(IEntity e : renderEntities)
-			targetScene.addModel(e.getModel(), e, e.getBody().getLocation());
+		@Override
+		protected void compute()
+		{
+			invokeAll(m_tasks);
+		}
+	}
+	
+	private static final class SectorRenderTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+		
+		private final List<EntitySector> m_sectors;
+		private final ISceneBatch m_batch;
+		private final Rect2F m_renderBounds;
+		private final int m_sectorX;
+		private final int m_sectorY;
+		
+		public SectorRenderTask(List<EntitySector> sectors, ISceneBatch batch, Rect2F renderBounds, int sectorX, int sectorY)
+		{
+			m_sectors = sectors;
+			m_batch = batch;
+			m_renderBounds = renderBounds;
+			m_sectorX = sectorX;
+			m_sectorY = sectorY;
+		}
+		
+		@Override
+		protected void compute()
+		{
+			for(EntitySector sector : m_sectors)
+				sector.enqueueRender(m_batch, m_renderBounds, m_sectorX, m_sectorY);
+		}
 	}
 	
 	public interface EntityContainerObserver
@@ -232,7 +472,21 @@ public class SceneGraph implements IDisposable
 		private final IEntity m_subject;
 		private final LocationObserver m_observer = new LocationObserver();
 		
-		private final ArrayList<EntitySector> m_containingSectors = new ArrayList<>();
+		//Inclusive range of sector coordinates currently containing the subject.
+		private boolean m_isPlaced = false;
+		private int m_sectorMinX;
+		private int m_sectorMinY;
+		private int m_sectorMaxX;
+		private int m_sectorMaxY;
+		
+		//Tiles, [min, max), this dynamic entry currently blocks in the dynamic effect maps.
+		private boolean m_hasBlocker = false;
+		private int m_blockerMinX;
+		private int m_blockerMinY;
+		private int m_blockerMaxX;
+		private int m_blockerMaxY;
+		
+		private boolean m_isDisposed = false;
 		
 		public EntityEntry(IEntity subject)
 		{
@@ -246,7 +500,14 @@ public class SceneGraph implements IDisposable
 		public void dispose()
 		{
 			remove();
+			releaseBlocker();
 			m_subject.getBody().removeObserver(m_observer);
+			m_isDisposed = true;
+		}
+		
+		private boolean isDisposed()
+		{
+			return m_isDisposed;
 		}
 		
 		private IEntity getSubject()
@@ -254,42 +515,155 @@ public class SceneGraph implements IDisposable
 			return m_subject;
 		}
 		
+		private boolean isPlacedIn(int sectorX, int sectorY)
+		{
+			return m_isPlaced && sectorX >= m_sectorMinX && sectorX <= m_sectorMaxX &&
+									sectorY >= m_sectorMinY && sectorY <= m_sectorMaxY;
+		}
+		
+		//Whether the entity is placed in the given sector alone.
+		private boolean isContainedBy(int sectorX, int sectorY)
+		{
+			return m_isPlaced && sectorX == m_sectorMinX && sectorX == m_sectorMaxX &&
+									sectorY == m_sectorMinY && sectorY == m_sectorMaxY;
+		}
+		
 		private void place()
 		{
 			Rect3F aabb = m_subject.getModel().getAABB().add(m_subject.getBody().getLocation());
 			Vector2D min = aabb.min().getXy().floor();
 			Vector2D max = aabb.max().getXy().ceil();
 			
-			for(int x = min.x; x <= max.x; x++)
+			int minX = getSectorCoordinate(min.x);
+			int minY = getSectorCoordinate(min.y);
+			int maxX = getSectorCoordinate(max.x);
+			int maxY = getSectorCoordinate(max.y);
+			
+			if(m_isPlaced && minX == m_sectorMinX && minY == m_sectorMinY && maxX == m_sectorMaxX && maxY == m_sectorMaxY)
+				return;
+			
+			//Only sectors leaving or entering the covered range are touched.
+			if(m_isPlaced)
+			{
+				for(int x = m_sectorMinX; x <= m_sectorMaxX; x++)
+				{
+					for(int y = m_sectorMinY; y <= m_sectorMaxY; y++)
+					{
+						if(x >= minX && x <= maxX && y >= minY && y <= maxY)
+							continue;
+						
+						EntitySector s = findSector(x, y);
+						
+						if(s != null)
+							s.removeEntity(m_subject);
+					}
+				}
+			}
+			
+			for(int x = minX; x <= maxX; x++)
 			{
-				for(int y = min.y; y <= max.y; y++)
+				for(int y = minY; y <= maxY; y++)
 				{
-					EntitySector s = getSector(new Vector2F(x, y));
-					s.addEntity(m_subject);
-					m_containingSectors.add(s);
+					if(!isPlacedIn(x, y))
+						getSector(x, y).addEntity(m_subject);
 				}
 			}
+			
+			m_isPlaced = true;
+			m_sectorMinX = minX;
+			m_sectorMinY = minY;
+			m_sectorMaxX = maxX;
+			m_sectorMaxY = maxY;
 		}
 		
 		private void remove()
 		{
-			for(EntitySector s : m_containingSectors)
-				s.removeEntity(m_subject);
+			if(!m_isPlaced)
+				return;
 			
-			m_containingSectors.clear();
+			for(int x = m_sectorMinX; x <= m_sectorMaxX; x++)
+			{
+				for(int y = m_sectorMinY; y <= m_sectorMaxY; y++)
+				{
+					EntitySector s = findSector(x, y);
+					
+					if(s != null)
+						s.removeEntity(m_subject);
+				}
+			}
+			
+			m_isPlaced = false;
 		}
 		
 		public void refresh()
 		{
-			remove();
 			place();
 		}
 		
+		private void invalidateStaticEffects()
+		{
+			if(!m_isPlaced)
+				return;
+			
+			for(int x = m_sectorMinX; x <= m_sectorMaxX; x++)
+			{
+				for(int y = m_sectorMinY; y <= m_sectorMaxY; y++)
+				{
+					EntitySector s = findSector(x, y);
+					
+					if(s != null)
+						s.invalidateStaticEffects();
+				}
+			}
+		}
+		
+		private void releaseBlocker()
+		{
+			if(!m_hasBlocker)
+				return;
+			
+			adjustDynamicBlockers(m_blockerMinX, m_blockerMinY, m_blockerMaxX, m_blockerMaxY, -1);
+			m_hasBlocker = false;
+		}
+		
+		public void updateBlocker()
+		{
+			IPhysicsBody body = m_subject.getBody();
+			Rect3F bounds = body.getAABB();
+			
+			if(!body.isCollidable() || !bounds.hasVolume())
+			{
+				releaseBlocker();
+				return;
+			}
+			
+			int minX = (int)Math.floor(bounds.x);
+			int minY = (int)Math.floor(bounds.y);
+			int maxX = (int)Math.ceil(bounds.x + bounds.width);
+			int maxY = (int)Math.ceil(bounds.y + bounds.height);
+			
+			if(m_hasBlocker && minX == m_blockerMinX && minY == m_blockerMinY && maxX == m_blockerMaxX && maxY == m_blockerMaxY)
+				return;
+			
+			releaseBlocker();
+			adjustDynamicBlockers(minX, minY, maxX, maxY, 1);
+			
+			m_hasBlocker = true;
+			m_blockerMinX = minX;
+			m_blockerMinY = minY;
+			m_blockerMaxX = maxX;
+			m_blockerMaxY = maxY;
+		}
+		
 		private class LocationObserver implements IPhysicsBodyObserver
 		{
 			@Override
 			public void locationSet()
 			{
+				//Sectors a static body remains within are not re-entered, so their static effects are rebuilt explicitly.
+				if(m_subject.isStatic())
+					invalidateStaticEffects();
+				
 				refresh();
 			}
 			
@@ -304,79 +678,41 @@ public class SceneGraph implements IDisposable
 		}
 	}
 	
-	private static class LayerSectorCoordinate
-	{
-		int x;
-		int y;
-		boolean isSectorScale;
-
-		public LayerSectorCoordinate(int _x, int _y, boolean _isSectorScale)
-		{
-			x = _x;
-			y = _y;
-			isSectorScale = _isSectorScale;
-		}
-		
-		public LayerSectorCoordinate(Vector2F location)
-		{
-			x = location.round().x;
-			y = location.round().y;
-		}
-
-		public LayerSectorCoordinate(Vector2D location)
-		{
-			x = location.x;
-			y = location.y;
-		}
-
-		@Override
-		public boolean equals(Object o)
-		{
-			if (o == this)
-				return true;
-			else if (o == null)
-				return false;
-			else if (o instanceof LayerSectorCoordinate)
-			{
-				LayerSectorCoordinate coord = (LayerSectorCoordinate) o;
-
-				return coord.x == x && coord.y == y && coord.isSectorScale == isSectorScale;
-			}
-			else if (o instanceof EntitySector)
-			{
-				EntitySector sector = (EntitySector) o;
-				
-				if(isSectorScale)
-					return sector.m_location.equals(new Vector2D(x, y));
-				else
-					return new Rect2D(sector.m_location.x * EntitySector.SECTOR_DIMENSIONS,
-							sector.m_location.y * EntitySector.SECTOR_DIMENSIONS,
-							EntitySector.SECTOR_DIMENSIONS,
-							EntitySector.SECTOR_DIMENSIONS)
-							.contains(new Vector2D(x, y));
-			} else
-				return false;
-		}
-	}
-
 	private final class EntitySector implements IDisposable
 	{
-		protected static final int SECTOR_DIMENSIONS = 10;
-
 		private final ArrayList<IEntity> m_dynamic =  new ArrayList<>();
 		private final ArrayList<IEntity> m_static = new ArrayList<>();
+		
+		//Render bounds and locations of the static entities, retained until one is added, removed or moved.
+		private final ArrayList<StaticRenderEntry> m_staticRenderEntries = new ArrayList<>();
+		
+		//Flat static entities placed in this sector, by plane. Entities spanning several sectors belong to their first.
+		private final ArrayList<StaticLayer> m_staticLayers = new ArrayList<>();
+		private boolean m_isStaticRenderDirty = true;
 
-		private final EffectMap m_staticEffectMap = new EffectMap();
-		private final EffectMap m_dynamicEffectMap = new EffectMap();
+		private final EffectMap m_staticEffectMap;
+		
+		private final DynamicBlockers m_dynamicBlockers;
 
 		private final Vector2D m_location;
 		private boolean m_isDirty = false;
 		
+		@Nullable
+		private EffectMap m_snapshot = null;
+		
+		@Nullable
+		private EffectMap m_staticSnapshot = null;
+		private int m_staticVersion = 0;
+		
 		private final IPhysicsBody m_regionSensorBody;
 
-		public EntitySector(Vector2F containingLocation)
+		public EntitySector(Vector2D location)
 		{
-			m_location = containingLocation.divide(SECTOR_DIMENSIONS).floor();
+			m_location = location;
+			
+			Rect2D bounds = new Rect2D(location.x * SECTOR_DIMENSIONS, location.y * SECTOR_DIMENSIONS, SECTOR_DIMENSIONS, SECTOR_DIMENSIONS);
+			m_staticEffectMap = new EffectMap(bounds);
+			m_dynamicBlockers = getDynamicBlockers(location.x, location.y);
 			m_regionSensorBody = m_hostWorld.createBody(new PhysicsBodyDescription(PhysicsBodyType.Static, PhysicsBodyShape.Box, new Rect3F(SECTOR_DIMENSIONS, SECTOR_DIMENSIONS, SECTOR_DIMENSIONS), 1.0F, true, true, 0.0F));
 			m_regionSensorBody.setLocation(new Vector3F(m_location.multiply(SECTOR_DIMENSIONS).add(new Vector2D(SECTOR_DIMENSIONS / 2, SECTOR_DIMENSIONS / 2)), 0));
 			m_regionSensorBody.addObserver(new RegionSensorObserver());
@@ -397,6 +733,7 @@ public class SceneGraph implements IDisposable
 			{
 				m_static.add(entity);
 				m_isDirty = true;
+				m_isStaticRenderDirty = true;
 			} else
 				m_dynamic.add(entity);
 		}
@@ -409,9 +746,16 @@ public class SceneGraph implements IDisposable
 			{
 				m_static.remove(entity);
 				m_isDirty = true;
+				m_isStaticRenderDirty = true;
 			}
 		}
 
+		public void invalidateStaticEffects()
+		{
+			m_isDirty = true;
+			m_isStaticRenderDirty = true;
+		}
+		
 		public List<IEntity> getEntities()
 		{
 			ArrayList<IEntity> all = new ArrayList<IEntity>(m_dynamic);
@@ -422,7 +766,39 @@ public class SceneGraph implements IDisposable
 		
 		public TileEffects getTileEffects(Vector2D location)
 		{
-			return m_staticEffectMap.getTileEffects(location).overlay(m_dynamicEffectMap.getTileEffects(location));
+			int x = location.x;
+			int y = location.y;
+			
+			return TileEffects.valueOf(m_staticEffectMap.isTraversable(x, y) && !m_dynamicBlockers.isBlocked(x, y),
+										m_staticEffectMap.getSightEffect(x, y));
+		}
+		
+		//Immutable copy of this sector's current effects, shared until they change.
+		public EffectMap getSnapshot()
+		{
+			if(m_snapshot != null)
+				return m_snapshot;
+			
+			EffectMap snapshot = new EffectMap(m_staticEffectMap);
+			m_dynamicBlockers.applyTo(snapshot);
+			
+			m_snapshot = snapshot;
+			
+			return snapshot;
+		}
+		
+		public void invalidateSnapshot()
+		{
+			m_snapshot = null;
+		}
+		
+		//Immutable copy of this sector's current static effects, shared until they are rebuilt.
+		public EffectMap getStaticSnapshot()
+		{
+			if(m_staticSnapshot == null)
+				m_staticSnapshot = new EffectMap(m_staticEffectMap);
+			
+			return m_staticSnapshot;
 		}
 
 		private void blendEffectMap(EffectMap map, IPhysicsBody body)
@@ -431,26 +807,22 @@ public class SceneGraph implements IDisposable
 			
 			if(body.isCollidable() && bounds.hasVolume())
 			{
-				int x = (int)Math.floor(bounds.x);
-				int y = (int)Math.floor(bounds.y);
-				int width = (int)Math.ceil(bounds.width);
-				int height = (int)Math.floor(bounds.height);
+				//Tiles outside of this sector are ignored by the effect map, the neighbouring sectors blend their own portion.
+				int minX = (int)Math.floor(bounds.x);
+				int minY = (int)Math.floor(bounds.y);
+				int maxX = (int)Math.ceil(bounds.x + bounds.width);
+				int maxY = (int)Math.ceil(bounds.y + bounds.height);
 					
-				for(; x < width; x++)
+				for(int x = minX; x < maxX; x++)
 				{
-					for(; y < height; y++)
-						map.applyOverlayEffects(new Vector2D(x, y), new TileEffects(false));
+					for(int y = minY; y < maxY; y++)
+						map.applyOverlayEffects(x, y, false, 1.0F);
 				}
 			}
 		}
 		
 		public void update(int deltaTime)
 		{
-			m_dynamicEffectMap.clear();
-
-			for (IEntity e : m_dynamic)
-				blendEffectMap(m_dynamicEffectMap, e.getBody());
-			
 			if (m_isDirty)
 			{
 				m_staticEffectMap.clear();
@@ -459,43 +831,107 @@ public class SceneGraph implements IDisposable
 					blendEffectMap(m_staticEffectMap, e.getBody());
 				
 				m_isDirty = false;
+				m_snapshot = null;
+				m_staticSnapshot = null;
+				m_staticVersion++;
+				SceneGraph.this.m_staticVersion++;
 			}
 		}
 
-		public void enqueueRender(HashSet<IEntity> renderList, Rect2F renderBounds)
+		private void refreshStaticRenderEntries()
 		{
+			m_staticRenderEntries.clear();
+			
+			ArrayList<StaticLayer> layers = new ArrayList<>();
+			
 			for (IEntity e : m_static)
 			{
-				Vector2F location = e.getBody().getLocation().getXy();
+				EntityEntry entry = getEntityEntry(e);
+				
+				if(entry == null)
+					continue;
 				
-				if (renderBounds.intersects(e.getModel().getAABB().getXy().add(location)))
-					renderList.add(e);
+				Vector3F location = e.getBody().getLocation();
+				Rect3F aabb = e.getModel().getAABB();
+				
+				//Flat models spanning several sectors are not layered, no single sector's layer is rendered whenever they are
+				//visible. They are enqueued individually instead, by the sector isRenderedBy selects.
+				if(aabb.depth > Rect3F.TOLERANCE || !entry.isContainedBy(m_location.x, m_location.y))
+					m_staticRenderEntries.add(new StaticRenderEntry(entry, aabb.getXy().add(location.getXy()), location));
+				else
+					getLayer(layers, location.z).add(e.getModel(), e, location);
 			}
 			
-			for (IEntity e : m_dynamic)
+			//Layers whose content has not changed are kept, so that whatever buffers derived from them remains valid.
+			for(int i = 0; i < layers.size(); i++)
 			{
-				Vector2D location = e.getBody().getLocation().getXy().round();
-
-				if (renderBounds.intersects(e.getModel().getAABB().getXy().add(location)))
-					renderList.add(e);
+				for(StaticLayer previous : m_staticLayers)
+				{
+					if(previous.isEquivalent(layers.get(i)))
+					{
+						layers.set(i, previous);
+						break;
+					}
+				}
 			}
+			
+			m_staticLayers.clear();
+			m_staticLayers.addAll(layers);
+			
+			m_isStaticRenderDirty = false;
 		}
-
-		@Override
-		public boolean equals(Object o)
+		
+		private StaticLayer getLayer(ArrayList<StaticLayer> layers, float planeZ)
 		{
-			if (o == this)
-				return true;
-			else if (o == null)
-				return false;
-			else if (o instanceof Vector2D || o instanceof Vector2F)
+			for(StaticLayer l : layers)
 			{
-				Vector2D src = (o instanceof Vector2F) ? ((Vector2F) o).floor() : ((Vector2D) o);
-				return new Rect2D(m_location.x * SECTOR_DIMENSIONS, m_location.y * SECTOR_DIMENSIONS, SECTOR_DIMENSIONS, SECTOR_DIMENSIONS).contains(src);
-			} else
-				return false;
+				if(l.getOrigin().z == planeZ)
+					return l;
+			}
+			
+			StaticLayer layer = new StaticLayer(new Vector3F(m_location.x * SECTOR_DIMENSIONS, m_location.y * SECTOR_DIMENSIONS, planeZ));
+			layers.add(layer);
+			
+			return layer;
 		}
 		
+		//Entities spanning several sectors are enqueued only by the first of their sectors at or after the first rendered.
+		private boolean isRenderedBy(EntityEntry entry, int firstSectorX, int firstSectorY)
+		{
+			return Math.max(entry.m_sectorMinX, firstSectorX) == m_location.x && Math.max(entry.m_sectorMinY, firstSectorY) == m_location.y;
+		}
+		
+		public void enqueueRender(ISceneBatch targetScene, Rect2F renderBounds, int firstSectorX, int firstSectorY)
+		{
+			if(m_isStaticRenderDirty)
+				refreshStaticRenderEntries();
+			
+			for (StaticLayer l : m_staticLayers)
+			{
+				if(l.intersects(renderBounds))
+					targetScene.addStaticLayer(l, renderBounds);
+			}
+			
+			for (StaticRenderEntry r : m_staticRenderEntries)
+			{
+				if (isRenderedBy(r.entry, firstSectorX, firstSectorY) && renderBounds.intersects(r.bounds))
+					targetScene.addModel(r.entry.getSubject().getModel(), r.entry.getSubject(), r.location);
+			}
+			
+			for (IEntity e : m_dynamic)
+			{
+				EntityEntry entry = getEntityEntry(e);
+				
+				if(entry == null || !isRenderedBy(entry, firstSectorX, firstSectorY))
+					continue;
+				
+				Vector3F location = e.getBody().getLocation();
+
+				if (renderBounds.intersects(e.getModel().getAABB().getXy().add(location.getXy().round())))
+					targetScene.addModel(e.getModel(), e, location);
+			}
+		}
+
 		public class RegionSensorObserver implements IPhysicsBodyObserver
 		{
 
@@ -531,6 +967,92 @@ public class SceneGraph implements IDisposable
 		}
 	}
 	
+	//Number of dynamic bodies covering each tile of a sector, a tile is blocked while its count is non-zero.
+	private static final class DynamicBlockers
+	{
+		private final Vector2D m_location;
+		private final int[] m_counts = new int[SECTOR_DIMENSIONS * SECTOR_DIMENSIONS];
+		private int m_blockedTiles = 0;
+		
+		public DynamicBlockers(Vector2D location)
+		{
+			m_location = location;
+		}
+		
+		public boolean isEmpty()
+		{
+			return m_blockedTiles == 0;
+		}
+		
+		public boolean isBlocked(int x, int y)
+		{
+			return m_counts[(y - m_location.y * SECTOR_DIMENSIONS) * SECTOR_DIMENSIONS + (x - m_location.x * SECTOR_DIMENSIONS)] != 0;
+		}
+		
+		//Adjusts the count of the tiles in [minX, maxX) x [minY, maxY) by delta, returns whether any were in this sector.
+		public boolean adjust(int minX, int minY, int maxX, int maxY, int delta)
+		{
+			int originX = m_location.x * SECTOR_DIMENSIONS;
+			int originY = m_location.y * SECTOR_DIMENSIONS;
+			
+			int startX = Math.max(minX, originX) - originX;
+			int startY = Math.max(minY, originY) - originY;
+			int endX = Math.min(maxX, originX + SECTOR_DIMENSIONS) - originX;
+			int endY = Math.min(maxY, originY + SECTOR_DIMENSIONS) - originY;
+			
+			if(startX >= endX || startY >= endY)
+				return false;
+			
+			for(int y = startY; y < endY; y++)
+			{
+				for(int x = startX; x < endX; x++)
+				{
+					int index = y * SECTOR_DIMENSIONS + x;
+					boolean wasBlocked = m_counts[index] != 0;
+					
+					m_counts[index] += delta;
+					
+					if(wasBlocked != (m_counts[index] != 0))
+						m_blockedTiles += wasBlocked ? -1 : 1;
+				}
+			}
+			
+			return true;
+		}
+		
+		public void applyTo(EffectMap map)
+		{
+			if(m_blockedTiles == 0)
+				return;
+			
+			int originX = m_location.x * SECTOR_DIMENSIONS;
+			int originY = m_location.y * SECTOR_DIMENSIONS;
+			
+			for(int y = 0; y < SECTOR_DIMENSIONS; y++)
+			{
+				for(int x = 0; x < SECTOR_DIMENSIONS; x++)
+				{
+					if(m_counts[y * SECTOR_DIMENSIONS + x] != 0)
+						map.applyOverlayEffects(originX + x, originY + y, false, 1.0F);
+				}
+			}
+		}
+	}
+	
+	private static final class StaticRenderEntry
+	{
+		private final EntityEntry entry;
+		private final Rect2F bounds;
+		private final Vector3F location;
+		
+		public StaticRenderEntry(EntityEntry _entry, Rect2F _bounds, Vector3F _location)
+		{
+			entry = _entry;
+			bounds = _bounds;
+			location = _location;
+		}
+	}
+	
 	public final class EntitySet
 	{
 		@Nullable
@@ -575,12 +1097,20 @@ public class SceneGraph implements IDisposable
 			//Used to prevent entry duplication for Entities that are contained by multiple sectors.
 			HashSet<IEntity> entities = new HashSet<IEntity>();
 			
-			for(int x = region.x; x <= region.x + region.width; x+= EntitySector.SECTOR_DIMENSIONS)
+			int minX = getSectorCoordinate(region.x);
+			int minY = getSectorCoordinate(region.y);
+			int maxX = getSectorCoordinate(region.x + region.width);
+			int maxY = getSectorCoordinate(region.y + region.height);
+			
+			for(int x = minX; x <= maxX; x++)
 			{
-				  for(int y = region.y; y < region.y + region.height; y+=EntitySector.SECTOR_DIMENSIONS)
-				  {
-					  entities.addAll(getSector(new Vector2F(x, y)).getEntities());
-				  }
+				for(int y = minY; y <= maxY; y++)
+				{
+					EntitySector sector = findSector(x, y);
+					
+					if(sector != null)
+						entities.addAll(sector.getEntities());
+				}
 			}
 			
 			return entities.toArray(new IEntity[entities.size()]);
@@ -617,4 +1147,51 @@ public class SceneGraph implements IDisposable
 			return entities.toArray(new IEntity[m_entities.size()]);
 		}
 	}
+	
+	//Read-only view of the tile effects, static traversability and static versions of every sector at the time it was
+	//created, safe to share between threads.
+	public static final class TileEffectsSnapshot
+	{
+		private final LongHashMap<EffectMap> m_sectors;
+		private final LongHashMap<EffectMap> m_staticSectors;
+		private final LongHashMap<Integer> m_staticVersions;
+		private final int m_staticVersion;
+		
+		private TileEffectsSnapshot(LongHashMap<EffectMap> sectors, LongHashMap<EffectMap> staticSectors, LongHashMap<Integer> staticVersions, int staticVersion)
+		{
+			m_sectors = sectors;
+			m_staticSectors = staticSectors;
+			m_staticVersions = staticVersions;
+			m_staticVersion = staticVersion;
+		}
+		
+		public boolean isStaticTraversable(int x, int y)
+		{
+			EffectMap sector = m_staticSectors.get(LongHashMap.pack(getSectorCoordinate(x), getSectorCoordinate(y)));
+			
+			return sector == null || sector.isTraversable(x, y);
+		}
+		
+		public int getStaticVersion()
+		{
+			return m_staticVersion;
+		}
+		
+		public int getStaticVersion(int sectorX, int sectorY)
+		{
+			Integer version = m_staticVersions.get(LongHashMap.pack(sectorX, sectorY));
+			
+			return version == null ? 0 : version;
+		}
+		
+		public TileEffects getTileEffects(Vector2D location)
+		{
+			EffectMap sector = m_sectors.get(LongHashMap.pack(getSectorCoordinate(location.x), getSectorCoordinate(location.y)));
+			
+			if(sector == null)
+				return TileEffects.valueOf(true, 1.0F);
+			
+			return sector.getTileEffects(location);
+		}
+	}
 }
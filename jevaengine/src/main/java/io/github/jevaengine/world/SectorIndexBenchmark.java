@@ -0,0 +1,120 @@
+package io.github.jevaengine.world;
+
+import io.github.jevaengine.math.Rect2D;
+import io.github.jevaengine.math.Vector2D;
+import io.github.jevaengine.util.LongHashMap;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/*
+ * Compares the time taken to find the sector containing a tile with SceneGraph's sector index, against the linear scan
+ * it replaced, which tested every sector's bounds (constructing a Rect2D per test) once to find whether the sector
+ * existed, and again to find its index. Lookups are of random tiles on a map of the given dimensions, in tiles.
+ */
+public final class SectorIndexBenchmark
+{
+	private static final int DEFAULT_MAP_DIMENSIONS = 512;
+	private static final int LOOKUPS = 200000;
+	private static final int WARMUP_ROUNDS = 3;
+
+	private SectorIndexBenchmark() { }
+
+	public static void main(String[] args)
+	{
+		int mapDimensions = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_MAP_DIMENSIONS;
+		int sectorDimensions = (mapDimensions + SceneGraph.SECTOR_DIMENSIONS - 1) / SceneGraph.SECTOR_DIMENSIONS;
+
+		ArrayList<Vector2D> sectorList = new ArrayList<>();
+		LongHashMap<Vector2D> sectorIndex = new LongHashMap<>();
+
+		for (int y = 0; y < sectorDimensions; y++)
+		{
+			for (int x = 0; x < sectorDimensions; x++)
+			{
+				Vector2D sector = new Vector2D(x, y);
+				sectorList.add(sector);
+				sectorIndex.put(LongHashMap.pack(x, y), sector);
+			}
+		}
+
+		Random random = new Random(0);
+		Vector2D[] tiles = new Vector2D[LOOKUPS];
+
+		for (int i = 0; i < tiles.length; i++)
+			tiles[i] = new Vector2D(random.nextInt(mapDimensions), random.nextInt(mapDimensions));
+
+		//Fewer lookups are timed with the linear scan, as it is orders of magnitude slower on large maps.
+		int linearLookups = Math.max(1, LOOKUPS / sectorList.size());
+
+		for (int i = 0; i < WARMUP_ROUNDS; i++)
+		{
+			lookupLinear(sectorList, tiles, linearLookups);
+			lookupIndexed(sectorIndex, tiles, LOOKUPS);
+		}
+
+		double linearTime = lookupLinear(sectorList, tiles, linearLookups);
+		double indexedTime = lookupIndexed(sectorIndex, tiles, LOOKUPS);
+
+		System.out.println(String.format("Map of %dx%d tiles, %d sectors", mapDimensions, mapDimensions, sectorList.size()));
+		System.out.println(String.format("%-12s %14s", "Lookup", "ns/lookup"));
+		System.out.println(String.format("%-12s %14.1f", "Linear", linearTime));
+		System.out.println(String.format("%-12s %14.1f", "Indexed", indexedTime));
+	}
+
+	//Returns the average time, in nanoseconds, taken per lookup.
+	private static double lookupLinear(ArrayList<Vector2D> sectors, Vector2D[] tiles, int count)
+	{
+		int found = 0;
+		long start = System.nanoTime();
+
+		for (int i = 0; i < count; i++)
+		{
+			if (indexOf(sectors, tiles[i]) >= 0)
+				found += sectors.get(indexOf(sectors, tiles[i])).x;
+		}
+
+		long elapsed = System.nanoTime() - start;
+
+		if (found < 0)
+			System.out.println();
+
+		return (double) elapsed / count;
+	}
+
+	private static int indexOf(ArrayList<Vector2D> sectors, Vector2D tile)
+	{
+		for (int i = 0; i < sectors.size(); i++)
+		{
+			Vector2D sector = sectors.get(i);
+
+			if (new Rect2D(sector.x * SceneGraph.SECTOR_DIMENSIONS, sector.y * SceneGraph.SECTOR_DIMENSIONS, SceneGraph.SECTOR_DIMENSIONS, SceneGraph.SECTOR_DIMENSIONS).contains(tile))
+				return i;
+		}
+
+		return -1;
+	}
+
+	private static double lookupIndexed(LongHashMap<Vector2D> sectors, Vector2D[] tiles, int count)
+	{
+		int found = 0;
+		long start = System.nanoTime();
+
+		for (int i = 0; i < count; i++)
+		{
+			Vector2D tile = tiles[i];
+			Vector2D sector = sectors.get(LongHashMap.pack(SceneGraph.getSectorCoordinate(tile.x), SceneGraph.getSectorCoordinate(tile.y)));
+
+			if (sector != null)
+				found += sector.x;
+		}
+
+		long elapsed = System.nanoTime() - start;
+
+		//Consumes the result, such that the lookups are not optimized away.
+		if (found < 0)
+			System.out.println();
+
+		return (double) elapsed / count;
+	}
+}
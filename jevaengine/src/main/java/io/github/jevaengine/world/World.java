@@ -33,12 +33,15 @@ import io.github.jevaengine.script.ScriptExecuteException;
 import io.github.jevaengine.script.ScriptHiddenMember;
 import io.github.jevaengine.script.UnrecognizedFunctionException;
 import io.github.jevaengine.util.Nullable;
+import io.github.jevaengine.util.ProfileSection;
+import io.github.jevaengine.util.Profiler;
 import io.github.jevaengine.util.StaticSet;
 import io.github.jevaengine.util.SynchronousExecutor;
 import io.github.jevaengine.util.SynchronousExecutor.ISynchronousTask;
 import io.github.jevaengine.world.EffectMap.TileEffects;
 import io.github.jevaengine.world.SceneGraph.EntityContainerObserver;
 import io.github.jevaengine.world.SceneGraph.EntitySet;
+import io.github.jevaengine.world.SceneGraph.TileEffectsSnapshot;
 import io.github.jevaengine.world.entity.IEntity;
 import io.github.jevaengine.world.entity.IEntity.IEntityBridge;
 import io.github.jevaengine.world.entity.IEntityFactory.EntityConstructionException;
@@ -48,12 +51,15 @@ import io.github.jevaengine.world.scene.ISceneBuffer;
 import io.github.jevaengine.world.search.ISearchFilter;
 
 import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public final class World implements IDisposable
 {
+	private static final ProfileSection PROFILE_UPDATE = Profiler.getSection("World.update");
+	
 	private final Logger m_logger = LoggerFactory.getLogger(World.class);
 	private final Observers m_observers = new Observers();
 
@@ -63,6 +69,10 @@ public final class World implements IDisposable
 	private WorldBridgeNotifier m_script;
 
 	private SynchronousExecutor m_syncExecuter = new SynchronousExecutor();
+	
+	//Tile effects, static traversability and static versions read by a thread with a snapshot bound are served from it
+	//rather than from the live scene graph.
+	private final ThreadLocal<TileEffectsSnapshot> m_tileEffectsSnapshots = new ThreadLocal<>();
 
 	private final IPhysicsWorld m_physicsWorld;
 	private final IParallelEntityFactory m_entityFactory;
@@ -116,11 +126,65 @@ public final class World implements IDisposable
 	public TileEffects getTileEffects(Vector2D location)
 	{
 		if(location.x >= m_worldBounds.width || location.y >= m_worldBounds.height || location.x < 0 || location.y < 0)
-			return new TileEffects(false);
+			return TileEffects.valueOf(false, 1.0F);
+		
+		TileEffectsSnapshot snapshot = m_tileEffectsSnapshots.get();
+		
+		if(snapshot != null)
+			return snapshot.getTileEffects(location);
 		else
 			return m_entityContainer.getTileEffects(location);
 	}
+	
+	//Must be invoked from the thread that updates the world.
+	public TileEffectsSnapshot createTileEffectsSnapshot()
+	{
+		return m_entityContainer.createTileEffectsSnapshot();
+	}
+	
+	//Binds a snapshot to the calling thread, its traversability queries are served from it until unbound with null.
+	public void setTileEffectsSnapshot(@Nullable TileEffectsSnapshot snapshot)
+	{
+		if(snapshot == null)
+			m_tileEffectsSnapshots.remove();
+		else
+			m_tileEffectsSnapshots.set(snapshot);
+	}
+	
+	//The snapshot bound to the calling thread, or null if it reads the live scene graph.
+	@Nullable
+	public TileEffectsSnapshot getTileEffectsSnapshot()
+	{
+		return m_tileEffectsSnapshots.get();
+	}
 
+	public boolean isStaticTraversable(int x, int y)
+	{
+		if(x >= m_worldBounds.width || y >= m_worldBounds.height || x < 0 || y < 0)
+			return false;
+		
+		TileEffectsSnapshot snapshot = m_tileEffectsSnapshots.get();
+		
+		if(snapshot != null)
+			return snapshot.isStaticTraversable(x, y);
+		else
+			return m_entityContainer.isStaticTraversable(x, y);
+	}
+	
+	public int getStaticTraversabilityVersion()
+	{
+		TileEffectsSnapshot snapshot = m_tileEffectsSnapshots.get();
+		
+		return snapshot != null ? snapshot.getStaticVersion() : m_entityContainer.getStaticVersion();
+	}
+	
+	public int getStaticTraversabilityVersion(int sectorX, int sectorY)
+	{
+		TileEffectsSnapshot snapshot = m_tileEffectsSnapshots.get();
+		
+		return snapshot != null ? snapshot.getStaticVersion(sectorX, sectorY) : m_entityContainer.getStaticVersion(sectorX, sectorY);
+	}
+	
 	public TileEffects[] getTileEffects(ISearchFilter<TileEffects> filter)
 	{
 		ArrayList<TileEffects> tileEffects = new ArrayList<TileEffects>();
@@ -169,12 +233,16 @@ public final class World implements IDisposable
 
 	public void update(int delta)
 	{
+		long profileStart = PROFILE_UPDATE.begin();
+		
 		m_syncExecuter.execute();
 		m_entityContainer.update(delta);
 		
 		//It is important that the physics world be updated after the entities have been updated.
 		//The forces to be applied this cycle may be relative to the delta time elapsed since last cycle.
 		m_physicsWorld.update(delta);
+		
+		PROFILE_UPDATE.end(profileStart);
 	}
 	
 	public void fillScene(ISceneBuffer sceneBuffer, Rect2F region)
@@ -182,6 +250,12 @@ public final class World implements IDisposable
 		m_entityContainer.enqueueRender(sceneBuffer, region);
 	}
 	
+	//Culls large regions across the given pool, the scene buffer is still only filled by the calling thread.
+	public void fillScene(ISceneBuffer sceneBuffer, Rect2F region, ForkJoinPool pool)
+	{
+		m_entityContainer.enqueueRender(sceneBuffer, region, pool);
+	}
+	
 	private class WorldEntityObserver implements EntityContainerObserver
 	{
 		@Override
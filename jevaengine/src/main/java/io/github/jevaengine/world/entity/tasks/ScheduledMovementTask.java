@@ -0,0 +1,118 @@
+package io.github.jevaengine.world.entity.tasks;
+
+import io.github.jevaengine.FutureResult;
+import io.github.jevaengine.math.Vector2F;
+import io.github.jevaengine.util.Nullable;
+import io.github.jevaengine.world.entity.IEntity;
+import io.github.jevaengine.world.pathfinding.IRoutingRules;
+import io.github.jevaengine.world.pathfinding.IncompleteRouteException;
+import io.github.jevaengine.world.pathfinding.Route;
+import io.github.jevaengine.world.pathfinding.RouteRequestScheduler;
+import io.github.jevaengine.world.pathfinding.RouteRequestScheduler.IRouteRequestListener;
+import io.github.jevaengine.world.steering.ISteeringDriverFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+//Movement task whose route is computed by a RouteRequestScheduler, the entity stands still until its route is delivered.
+public final class ScheduledMovementTask implements ITask
+{
+	private final Logger m_logger = LoggerFactory.getLogger(ScheduledMovementTask.class);
+
+	private final TraverseRouteTask m_traverseRouteTask;
+	private final RouteRequestScheduler m_scheduler;
+	private final IRoutingRules m_routingRules;
+
+	private final Vector2F m_destination;
+	private final float m_arrivalTolorance;
+
+	private final RouteListener m_listener = new RouteListener();
+
+	@Nullable
+	private IEntity m_entity;
+
+	private boolean m_isTraversing = false;
+	private boolean m_isCancelled = false;
+
+	public ScheduledMovementTask(ISteeringDriverFactory driverFactory, RouteRequestScheduler scheduler, IRoutingRules routingRules, Vector2F destination, float arrivalTolorance)
+	{
+		m_traverseRouteTask = new TraverseRouteTask(driverFactory);
+		m_scheduler = scheduler;
+		m_routingRules = routingRules;
+		m_destination = new Vector2F(destination);
+		m_arrivalTolorance = arrivalTolorance;
+	}
+
+	@Override
+	public void begin(IEntity entity)
+	{
+		m_entity = entity;
+		m_isTraversing = false;
+		m_isCancelled = false;
+
+		m_scheduler.request(m_routingRules, entity.getWorld(), entity.getBody().getLocation().getXy(), m_destination, m_arrivalTolorance, m_listener);
+	}
+
+	@Override
+	public void end()
+	{
+		if(m_isTraversing)
+			m_traverseRouteTask.end();
+		else
+			m_scheduler.cancel(m_listener);
+
+		m_isTraversing = false;
+		m_entity = null;
+	}
+
+	@Override
+	public void cancel()
+	{
+		if(m_isTraversing)
+			m_traverseRouteTask.cancel();
+		else
+		{
+			m_scheduler.cancel(m_listener);
+			m_isCancelled = true;
+		}
+	}
+
+	@Override
+	public boolean doCycle(int deltaTime)
+	{
+		if(m_isCancelled)
+			return true;
+
+		return m_isTraversing && m_traverseRouteTask.doCycle(deltaTime);
+	}
+
+	@Override
+	public boolean isParallel()
+	{
+		return m_traverseRouteTask.isParallel();
+	}
+
+	private class RouteListener implements IRouteRequestListener
+	{
+		@Override
+		public void completed(FutureResult<Route, IncompleteRouteException> result)
+		{
+			if(m_entity == null || m_isCancelled || m_isTraversing)
+				return;
+
+			Route route = new Route();
+
+			try
+			{
+				route = result.get();
+			} catch (IncompleteRouteException e)
+			{
+				m_logger.error(String.format("Unable to constuct path to %f, %f for entity %s.", m_destination.x, m_destination.y, m_entity.getInstanceName()));
+			}
+
+			m_traverseRouteTask.setRoute(route);
+			m_traverseRouteTask.begin(m_entity);
+			m_isTraversing = true;
+		}
+	}
+}
@@ -0,0 +1,243 @@
+package io.github.jevaengine.world.pathfinding;
+
+import io.github.jevaengine.math.Vector2D;
+import io.github.jevaengine.math.Vector2F;
+import io.github.jevaengine.world.World;
+
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * Memoizes the routes of another route factory by routing rules, world, start tile, end tile and arrival tolerance.
+ * Entries are evicted least recently used first, and are discarded when the static traversability version of their
+ * world has changed since they were created, once they are older than the time to live, or when a step of their route
+ * has since been blocked by a dynamic obstacle. Steps of legs which were not yet refined when the route was cached
+ * cannot be checked, which the time to live bounds the staleness of.
+ *
+ * Incomplete routes depend on the obstacles of the moment and, like wandering routes, are never cached.
+ */
+public final class CachingRouteFactory implements IRouteFactory
+{
+	private static final int DEFAULT_CAPACITY = 256;
+	private static final int DEFAULT_TIME_TO_LIVE = 2000;
+
+	private final IRouteFactory m_routeFactory;
+	private final long m_timeToLive;
+
+	private final LinkedHashMap<RouteKey, CachedRoute> m_routes;
+
+	private long m_hitCount = 0;
+	private long m_missCount = 0;
+	private long m_invalidationCount = 0;
+
+	//Time to live is in milliseconds.
+	public CachingRouteFactory(IRouteFactory routeFactory, final int capacity, int timeToLive)
+	{
+		m_routeFactory = routeFactory;
+		m_timeToLive = timeToLive * 1000000L;
+		m_routes = new LinkedHashMap<RouteKey, CachedRoute>(16, 0.75F, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<RouteKey, CachedRoute> eldest)
+			{
+				return size() > capacity;
+			}
+		};
+	}
+
+	public CachingRouteFactory(IRouteFactory routeFactory, int capacity)
+	{
+		this(routeFactory, capacity, DEFAULT_TIME_TO_LIVE);
+	}
+
+	public CachingRouteFactory(IRouteFactory routeFactory)
+	{
+		this(routeFactory, DEFAULT_CAPACITY);
+	}
+
+	@Override
+	public Route create(IRoutingRules routingRules, World world, Vector2F startPoint, Vector2F endPoint, float arrivalTolorance) throws IncompleteRouteException
+	{
+		RouteKey key = new RouteKey(routingRules, world, startPoint.round(), endPoint.round(), arrivalTolorance);
+		int version = world.getStaticTraversabilityVersion();
+		long now = System.nanoTime();
+
+		synchronized(m_routes)
+		{
+			CachedRoute cached = m_routes.get(key);
+
+			if(cached != null && (cached.version != version || now - cached.creationTime > m_timeToLive || !isTraversable(world, cached.route)))
+			{
+				m_routes.remove(key);
+				m_invalidationCount++;
+				cached = null;
+			}
+
+			if(cached != null)
+			{
+				m_hitCount++;
+
+				//Routes are stateful, callers are always handed their own copy.
+				return new Route(cached.route);
+			}
+
+			m_missCount++;
+		}
+
+		//Searches are not performed under the lock, concurrent misses on the same key are tolerable.
+		Route route = m_routeFactory.create(routingRules, world, startPoint, endPoint, arrivalTolorance);
+
+		synchronized(m_routes)
+		{
+			m_routes.put(key, new CachedRoute(version, now, new Route(route)));
+		}
+
+		return route;
+	}
+
+	private static boolean isTraversable(World world, Route route)
+	{
+		for(Vector2F step : route.getRefinedSteps())
+		{
+			if(!world.getTileEffects(step.round()).isTraversable())
+				return false;
+		}
+
+		return true;
+	}
+
+	@Override
+	public Route create(IRoutingRules routingRules, World world, Vector2F startPoint, int length)
+	{
+		return m_routeFactory.create(routingRules, world, startPoint, length);
+	}
+
+	public void clear()
+	{
+		synchronized(m_routes)
+		{
+			m_routes.clear();
+		}
+	}
+
+	public int getSize()
+	{
+		synchronized(m_routes)
+		{
+			return m_routes.size();
+		}
+	}
+
+	public long getHitCount()
+	{
+		synchronized(m_routes)
+		{
+			return m_hitCount;
+		}
+	}
+
+	public long getMissCount()
+	{
+		synchronized(m_routes)
+		{
+			return m_missCount;
+		}
+	}
+
+	//Entries discarded because they expired, or because the traversability of their world changed.
+	public long getInvalidationCount()
+	{
+		synchronized(m_routes)
+		{
+			return m_invalidationCount;
+		}
+	}
+
+	public float getHitRatio()
+	{
+		synchronized(m_routes)
+		{
+			long total = m_hitCount + m_missCount;
+
+			return total == 0 ? 0 : m_hitCount / (float)total;
+		}
+	}
+
+	public void resetStatistics()
+	{
+		synchronized(m_routes)
+		{
+			m_hitCount = 0;
+			m_missCount = 0;
+			m_invalidationCount = 0;
+		}
+	}
+
+	private static final class CachedRoute
+	{
+		final int version;
+		final long creationTime;
+		final Route route;
+
+		CachedRoute(int _version, long _creationTime, Route _route)
+		{
+			version = _version;
+			creationTime = _creationTime;
+			route = _route;
+		}
+	}
+
+	private static final class RouteKey
+	{
+		final IRoutingRules routingRules;
+
+		//Keys must not keep a world alive, entries of a collected world are eventually evicted.
+		final WeakReference<World> world;
+		final int worldHash;
+
+		final Vector2D start;
+		final Vector2D end;
+		final float arrivalTolorance;
+
+		RouteKey(IRoutingRules _routingRules, World _world, Vector2D _start, Vector2D _end, float _arrivalTolorance)
+		{
+			routingRules = _routingRules;
+			world = new WeakReference<>(_world);
+			worldHash = System.identityHashCode(_world);
+			start = _start;
+			end = _end;
+			arrivalTolorance = _arrivalTolorance;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + routingRules.hashCode();
+			result = prime * result + worldHash;
+			result = prime * result + start.hashCode();
+			result = prime * result + end.hashCode();
+			result = prime * result + Float.floatToIntBits(arrivalTolorance);
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			else if (!(obj instanceof RouteKey))
+				return false;
+
+			RouteKey other = (RouteKey) obj;
+			World world = this.world.get();
+
+			return world != null && world == other.world.get() && routingRules.equals(other.routingRules) &&
+					start.equals(other.start) && end.equals(other.end) &&
+					Float.floatToIntBits(arrivalTolorance) == Float.floatToIntBits(other.arrivalTolorance);
+		}
+	}
+}
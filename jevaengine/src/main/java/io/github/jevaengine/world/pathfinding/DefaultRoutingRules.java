@@ -19,6 +19,7 @@ import io.github.jevaengine.world.Direction;
 import io.github.jevaengine.world.World;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 public class DefaultRoutingRules implements IRoutingRules
 {
@@ -51,4 +52,20 @@ public class DefaultRoutingRules implements IRoutingRules
 		return m_directions.toArray(new Direction[m_directions.size()]);
 	}
 
+	@Override
+	public int hashCode()
+	{
+		return Arrays.hashCode(m_allowedMovements);
+	}
+
+	@Override
+	public boolean equals(Object obj)
+	{
+		if (this == obj)
+			return true;
+		else if (obj == null || obj.getClass() != getClass())
+			return false;
+
+		return Arrays.equals(m_allowedMovements, ((DefaultRoutingRules) obj).m_allowedMovements);
+	}
 }
@@ -0,0 +1,82 @@
+package io.github.jevaengine.world.pathfinding;
+
+import io.github.jevaengine.math.Rect2D;
+import io.github.jevaengine.math.Vector2D;
+import io.github.jevaengine.math.Vector2F;
+import io.github.jevaengine.util.Nullable;
+import io.github.jevaengine.world.Direction;
+
+/*
+ * Integration field (cost to reach the goal from every tile of a region) and the direction field derived from it.
+ * Flow fields are immutable once constructed, and may be shared between any number of agents heading to the same goal.
+ */
+public final class FlowField
+{
+	private static final Direction[] DIRECTIONS = Direction.values();
+
+	public static final int UNREACHABLE = -1;
+
+	private final Rect2D m_region;
+	private final Vector2D m_goal;
+
+	private final int[] m_costs;
+
+	//Direction ordinal to step towards from each tile, -1 where there is none.
+	private final byte[] m_directions;
+
+	FlowField(Rect2D region, Vector2D goal, int[] costs, byte[] directions)
+	{
+		m_region = region;
+		m_goal = goal;
+		m_costs = costs;
+		m_directions = directions;
+	}
+
+	public Rect2D getRegion()
+	{
+		return new Rect2D(m_region);
+	}
+
+	public Vector2D getGoal()
+	{
+		return new Vector2D(m_goal);
+	}
+
+	private int getIndex(int x, int y)
+	{
+		int localX = x - m_region.x;
+		int localY = y - m_region.y;
+
+		if(localX < 0 || localY < 0 || localX >= m_region.width || localY >= m_region.height)
+			return -1;
+
+		return localY * m_region.width + localX;
+	}
+
+	public int getCost(int x, int y)
+	{
+		int index = getIndex(x, y);
+
+		return index < 0 ? UNREACHABLE : m_costs[index];
+	}
+
+	//Direction to step in from the given tile, Zero at the goal and null where the goal cannot be reached.
+	@Nullable
+	public Direction getDirection(int x, int y)
+	{
+		int index = getIndex(x, y);
+
+		if(index < 0 || m_directions[index] < 0)
+			return null;
+
+		return DIRECTIONS[m_directions[index]];
+	}
+
+	@Nullable
+	public Direction getDirection(Vector2F location)
+	{
+		Vector2D tile = location.round();
+
+		return getDirection(tile.x, tile.y);
+	}
+}
@@ -0,0 +1,283 @@
+package io.github.jevaengine.world.pathfinding;
+
+import io.github.jevaengine.math.Rect2D;
+import io.github.jevaengine.math.Vector2D;
+import io.github.jevaengine.math.Vector2F;
+import io.github.jevaengine.world.Direction;
+import io.github.jevaengine.world.World;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/*
+ * Builds flow fields over static traversability, so that any number of agents heading to a common goal share a single
+ * O(tiles) integration rather than each running its own search. Dynamic obstacles are left to steering avoidance.
+ *
+ * Fields are cached per world by goal tile and region, and the whole cache of a world is dropped whenever its static
+ * traversability version changes.
+ */
+public final class FlowFieldFactory
+{
+	private static final int DEFAULT_CACHE_SIZE = 16;
+
+	private static final int DIAGONAL_COST = 7;
+	private static final int HORIZONTAL_VERTICAL_COST = 5;
+
+	private final int m_cacheSize;
+
+	private final Map<World, WorldCache> m_caches = new WeakHashMap<>();
+
+	public FlowFieldFactory(int cacheSize)
+	{
+		m_cacheSize = cacheSize;
+	}
+
+	public FlowFieldFactory()
+	{
+		this(DEFAULT_CACHE_SIZE);
+	}
+
+	public FlowField create(World world, Vector2F goal)
+	{
+		return create(world, goal, world.getBounds());
+	}
+
+	public FlowField create(World world, Vector2F goal, Rect2D region)
+	{
+		Rect2D bounds = world.getBounds();
+
+		int minX = Math.max(bounds.x, region.x);
+		int minY = Math.max(bounds.y, region.y);
+		int maxX = Math.min(bounds.x + bounds.width, region.x + region.width);
+		int maxY = Math.min(bounds.y + bounds.height, region.y + region.height);
+
+		Rect2D clippedRegion = new Rect2D(minX, minY, Math.max(0, maxX - minX), Math.max(0, maxY - minY));
+		Vector2D goalTile = goal.round();
+
+		FieldKey key = new FieldKey(goalTile, clippedRegion);
+		WorldCache cache;
+
+		synchronized(m_caches)
+		{
+			cache = m_caches.get(world);
+
+			if(cache == null)
+			{
+				cache = new WorldCache(m_cacheSize);
+				m_caches.put(world, cache);
+			}
+		}
+
+		synchronized(cache)
+		{
+			int version = world.getStaticTraversabilityVersion();
+
+			if(cache.version != version)
+			{
+				cache.fields.clear();
+				cache.version = version;
+			}
+
+			FlowField field = cache.fields.get(key);
+
+			if(field == null)
+			{
+				field = build(world, goalTile, clippedRegion);
+				cache.fields.put(key, field);
+			}
+
+			return field;
+		}
+	}
+
+	private static FlowField build(World world, Vector2D goal, Rect2D region)
+	{
+		int width = region.width;
+		int height = region.height;
+		int tileCount = width * height;
+
+		boolean[] open = new boolean[tileCount];
+
+		for(int i = 0; i < tileCount; i++)
+			open[i] = world.isStaticTraversable(region.x + i % width, region.y + i / width);
+
+		int[] costs = new int[tileCount];
+		byte[] directions = new byte[tileCount];
+
+		Arrays.fill(costs, FlowField.UNREACHABLE);
+		Arrays.fill(directions, (byte)-1);
+
+		int goalX = goal.x - region.x;
+		int goalY = goal.y - region.y;
+
+		if(goalX < 0 || goalY < 0 || goalX >= width || goalY >= height || !open[goalY * width + goalX])
+			return new FlowField(region, goal, costs, directions);
+
+		integrate(open, costs, width, height, goalY * width + goalX);
+
+		for(int i = 0; i < tileCount; i++)
+		{
+			if(costs[i] == FlowField.UNREACHABLE)
+				continue;
+			else if(costs[i] == 0)
+			{
+				directions[i] = (byte)Direction.Zero.ordinal();
+				continue;
+			}
+
+			int x = i % width;
+			int y = i / width;
+			int bestCost = costs[i];
+
+			//Step towards the neighbour closest to the goal, which is always reachable by the same movement in reverse.
+			for(Direction dir : Direction.ALL_DIRECTIONS)
+			{
+				Vector2D step = dir.getDirectionVector();
+				int next = getStep(open, width, height, x, y, step.x, step.y);
+
+				if(next >= 0 && costs[next] != FlowField.UNREACHABLE && costs[next] < bestCost)
+				{
+					bestCost = costs[next];
+					directions[i] = (byte)dir.ordinal();
+				}
+			}
+		}
+
+		return new FlowField(region, goal, costs, directions);
+	}
+
+	//Index of the tile reached by stepping from (x, y), -1 if the step is not permitted. Diagonals may not cut corners.
+	private static int getStep(boolean[] open, int width, int height, int x, int y, int dx, int dy)
+	{
+		int nx = x + dx;
+		int ny = y + dy;
+
+		if(nx < 0 || ny < 0 || nx >= width || ny >= height || !open[ny * width + nx])
+			return -1;
+
+		if(dx != 0 && dy != 0 && !(open[y * width + nx] && open[ny * width + x]))
+			return -1;
+
+		return ny * width + nx;
+	}
+
+	/*
+	 * Dijkstra from the goal using a circular bucket queue. Step costs are bounded, so only DIAGONAL_COST + 1 buckets are
+	 * live at any time and every tile is settled in constant time.
+	 */
+	private static void integrate(boolean[] open, int[] costs, int width, int height, int goal)
+	{
+		int bucketCount = DIAGONAL_COST + 1;
+		int[][] buckets = new int[bucketCount][16];
+		int[] bucketSizes = new int[bucketCount];
+
+		costs[goal] = 0;
+		buckets[0][bucketSizes[0]++] = goal;
+
+		int pending = 1;
+
+		for(int cost = 0; pending > 0; cost++)
+		{
+			int bucket = cost % bucketCount;
+
+			for(int i = 0; i < bucketSizes[bucket]; i++)
+			{
+				int tile = buckets[bucket][i];
+				pending--;
+
+				//Superseded by a cheaper entry queued later.
+				if(costs[tile] != cost)
+					continue;
+
+				int x = tile % width;
+				int y = tile / width;
+
+				for(Direction dir : Direction.ALL_DIRECTIONS)
+				{
+					Vector2D step = dir.getDirectionVector();
+					int next = getStep(open, width, height, x, y, step.x, step.y);
+
+					if(next < 0)
+						continue;
+
+					int nextCost = cost + (dir.isDiagonal() ? DIAGONAL_COST : HORIZONTAL_VERTICAL_COST);
+
+					if(costs[next] != FlowField.UNREACHABLE && costs[next] <= nextCost)
+						continue;
+
+					costs[next] = nextCost;
+
+					int nextBucket = nextCost % bucketCount;
+
+					if(bucketSizes[nextBucket] == buckets[nextBucket].length)
+						buckets[nextBucket] = Arrays.copyOf(buckets[nextBucket], buckets[nextBucket].length * 2);
+
+					buckets[nextBucket][bucketSizes[nextBucket]++] = next;
+					pending++;
+				}
+			}
+
+			bucketSizes[bucket] = 0;
+		}
+	}
+
+	private static final class WorldCache
+	{
+		final LinkedHashMap<FieldKey, FlowField> fields;
+		int version = -1;
+
+		WorldCache(final int capacity)
+		{
+			fields = new LinkedHashMap<FieldKey, FlowField>(16, 0.75F, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<FieldKey, FlowField> eldest)
+				{
+					return size() > capacity;
+				}
+			};
+		}
+	}
+
+	private static final class FieldKey
+	{
+		final Vector2D goal;
+		final Rect2D region;
+
+		FieldKey(Vector2D _goal, Rect2D _region)
+		{
+			goal = _goal;
+			region = _region;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + goal.hashCode();
+			result = prime * result + region.x;
+			result = prime * result + region.y;
+			result = prime * result + region.width;
+			result = prime * result + region.height;
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			else if (!(obj instanceof FieldKey))
+				return false;
+
+			FieldKey other = (FieldKey) obj;
+
+			return goal.equals(other.goal) && region.x == other.region.x && region.y == other.region.y &&
+					region.width == other.region.width && region.height == other.region.height;
+		}
+	}
+}
@@ -0,0 +1,282 @@
+package io.github.jevaengine.world.pathfinding;
+
+import io.github.jevaengine.math.Vector2D;
+import io.github.jevaengine.math.Vector2F;
+import io.github.jevaengine.util.Nullable;
+import io.github.jevaengine.world.SceneGraph.TileEffectsSnapshot;
+import io.github.jevaengine.world.World;
+import io.github.jevaengine.world.pathfinding.Route.IRouteLegFactory;
+import io.github.jevaengine.world.pathfinding.SectorGraph.Cluster;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.WeakHashMap;
+
+/*
+ * Hierarchical (HPA*) route factory. Routes are planned over the entrances between SceneGraph sectors, built from
+ * static traversability, and each leg between consecutive entrances is only refined into steps, by the local route
+ * factory and against the world's full tile effects, once the route's consumer reaches it. Routes planned with a tile
+ * effects snapshot bound, as by RouteRequestScheduler, have their legs refined against that same snapshot.
+ *
+ * Short routes, and routes the abstract graph cannot resolve, are delegated to the local route factory entirely.
+ */
+public final class HierarchicalRouteFactory implements IRouteFactory
+{
+	//Routes whose end points are within this many sectors of one another are not worth planning abstractly.
+	private static final int DIRECT_ROUTE_SECTOR_DISTANCE = 2;
+
+	private final IRouteFactory m_localRouteFactory;
+
+	private final Map<World, SectorGraph> m_graphs = new WeakHashMap<>();
+
+	public HierarchicalRouteFactory(IRouteFactory localRouteFactory)
+	{
+		m_localRouteFactory = localRouteFactory;
+	}
+
+	public HierarchicalRouteFactory()
+	{
+		this(new IndexedAStarRouteFactory());
+	}
+
+	private SectorGraph getGraph(World world)
+	{
+		synchronized(m_graphs)
+		{
+			SectorGraph graph = m_graphs.get(world);
+
+			if(graph == null)
+			{
+				graph = new SectorGraph();
+				m_graphs.put(world, graph);
+			}
+
+			return graph;
+		}
+	}
+
+	private static int estimateCost(long from, long to)
+	{
+		int dx = Math.abs(SectorGraph.unpackX(to) - SectorGraph.unpackX(from));
+		int dy = Math.abs(SectorGraph.unpackY(to) - SectorGraph.unpackY(from));
+
+		return SectorGraph.HORIZONTAL_VERTICAL_COST * Math.max(dx, dy) + (SectorGraph.DIAGONAL_COST - SectorGraph.HORIZONTAL_VERTICAL_COST) * Math.min(dx, dy);
+	}
+
+	@Override
+	public Route create(IRoutingRules routingRules, World world, Vector2F startPoint, Vector2F endPoint, float arrivalTolorance) throws IncompleteRouteException
+	{
+		Vector2D start = startPoint.round();
+		Vector2D end = endPoint.round();
+
+		int sectorDistance = Math.max(Math.abs(start.x - end.x), Math.abs(start.y - end.y)) / SectorGraph.DIMENSIONS;
+
+		if(sectorDistance <= DIRECT_ROUTE_SECTOR_DISTANCE || !world.isStaticTraversable(end.x, end.y) || !world.isStaticTraversable(start.x, start.y))
+			return m_localRouteFactory.create(routingRules, world, startPoint, endPoint, arrivalTolorance);
+
+		SectorGraph graph = getGraph(world);
+		ArrayList<Vector2F> abstractRoute;
+
+		synchronized(graph)
+		{
+			abstractRoute = findAbstractRoute(graph, world, SectorGraph.pack(start.x, start.y), SectorGraph.pack(end.x, end.y));
+		}
+
+		if(abstractRoute == null)
+			return m_localRouteFactory.create(routingRules, world, startPoint, endPoint, arrivalTolorance);
+
+		//The final leg ends at the requested end point, and is the only one refined with the arrival tolerance.
+		Vector2F finalLegEnd = new Vector2F(endPoint);
+		abstractRoute.set(abstractRoute.size() - 1, finalLegEnd);
+
+		return new Route(new LocalLegFactory(routingRules, world, finalLegEnd, arrivalTolorance), new Vector2F(start), abstractRoute.toArray(new Vector2F[abstractRoute.size()]));
+	}
+
+	@Override
+	public Route create(IRoutingRules routingRules, World world, Vector2F startPoint, int length)
+	{
+		return m_localRouteFactory.create(routingRules, world, startPoint, length);
+	}
+
+	private static ArrayList<Vector2F> findAbstractRoute(SectorGraph graph, World world, long start, long goal)
+	{
+		Cluster startCluster = graph.getCluster(world, SectorGraph.unpackX(start), SectorGraph.unpackY(start));
+		Cluster goalCluster = graph.getCluster(world, SectorGraph.unpackX(goal), SectorGraph.unpackY(goal));
+
+		int[] startDistances = startCluster.findDistances(world, SectorGraph.unpackX(start), SectorGraph.unpackY(start));
+		int[] goalDistances = goalCluster.findDistances(world, SectorGraph.unpackX(goal), SectorGraph.unpackY(goal));
+
+		HashMap<Long, AbstractNode> nodes = new HashMap<>();
+		PriorityQueue<OpenEntry> open = new PriorityQueue<>(64, new Comparator<OpenEntry>() {
+			@Override
+			public int compare(OpenEntry a, OpenEntry b)
+			{
+				return Integer.compare(a.f, b.f);
+			}
+		});
+
+		for(int i = 0; i < startCluster.getNodeCount(); i++)
+		{
+			long entrance = startCluster.getNode(i);
+			int cost = startDistances[startCluster.getLocalIndex(SectorGraph.unpackX(entrance), SectorGraph.unpackY(entrance))];
+
+			if(cost >= 0)
+				relax(nodes, open, null, entrance, cost, goal);
+		}
+
+		for(OpenEntry entry; (entry = open.poll()) != null;)
+		{
+			AbstractNode current = entry.node;
+			
+			//Entries superseded by a cheaper one for the same node are skipped.
+			if(current.isClosed || entry.g != current.g)
+				continue;
+
+			if(current.tile == goal)
+			{
+				ArrayList<Vector2F> route = new ArrayList<>();
+
+				for(AbstractNode n = current; n != null; n = n.parent)
+					route.add(new Vector2F(SectorGraph.unpackX(n.tile), SectorGraph.unpackY(n.tile)));
+
+				Collections.reverse(route);
+
+				return route;
+			}
+
+			current.isClosed = true;
+
+			int x = SectorGraph.unpackX(current.tile);
+			int y = SectorGraph.unpackY(current.tile);
+
+			Cluster cluster = graph.getCluster(world, x, y);
+			int index = cluster.indexOfNode(current.tile);
+
+			//A border partner is not guaranteed to be an entrance of its own cluster, routes continue only through entrances.
+			if(index < 0)
+				continue;
+
+			for(int i = 0; i < cluster.getNodeCount(); i++)
+			{
+				int cost = cluster.getCost(index, i);
+
+				if(i != index && cost >= 0)
+					relax(nodes, open, current, cluster.getNode(i), current.g + cost, goal);
+			}
+
+			for(int i = 0; i < cluster.getBorderCount(); i++)
+			{
+				if(cluster.getBorderTile(i) == current.tile)
+					relax(nodes, open, current, cluster.getBorderPartner(i), current.g + SectorGraph.HORIZONTAL_VERTICAL_COST, goal);
+			}
+
+			if(cluster == goalCluster)
+			{
+				int cost = goalDistances[cluster.getLocalIndex(x, y)];
+
+				if(cost >= 0)
+					relax(nodes, open, current, goal, current.g + cost, goal);
+			}
+		}
+
+		return null;
+	}
+
+	private static void relax(HashMap<Long, AbstractNode> nodes, PriorityQueue<OpenEntry> open, AbstractNode parent, long tile, int g, long goal)
+	{
+		AbstractNode node = nodes.get(tile);
+
+		if(node == null)
+		{
+			node = new AbstractNode(tile);
+			nodes.put(tile, node);
+		} else if(node.isClosed || node.g <= g)
+			return;
+
+		node.parent = parent;
+		node.g = g;
+		open.add(new OpenEntry(node, g, g + estimateCost(tile, goal)));
+	}
+
+	private static final class AbstractNode
+	{
+		final long tile;
+
+		AbstractNode parent;
+		int g = Integer.MAX_VALUE;
+		boolean isClosed = false;
+
+		AbstractNode(long _tile)
+		{
+			tile = _tile;
+		}
+	}
+
+	private static final class OpenEntry
+	{
+		final AbstractNode node;
+		final int g;
+		final int f;
+
+		OpenEntry(AbstractNode _node, int _g, int _f)
+		{
+			node = _node;
+			g = _g;
+			f = _f;
+		}
+	}
+
+	private final class LocalLegFactory implements IRouteLegFactory
+	{
+		private final IRoutingRules m_routingRules;
+		private final World m_world;
+
+		//Legs are refined against the snapshot the abstract route was found with, if any, rather than the live world.
+		@Nullable
+		private final TileEffectsSnapshot m_snapshot;
+
+		private final Vector2F m_finalLegEnd;
+		private final float m_arrivalTolorance;
+
+		public LocalLegFactory(IRoutingRules routingRules, World world, Vector2F finalLegEnd, float arrivalTolorance)
+		{
+			m_routingRules = routingRules;
+			m_world = world;
+			m_snapshot = world.getTileEffectsSnapshot();
+			m_finalLegEnd = finalLegEnd;
+			m_arrivalTolorance = arrivalTolorance;
+		}
+
+		@Override
+		public Vector2F[] create(Vector2F start, Vector2F end)
+		{
+			Route leg;
+			TileEffectsSnapshot boundSnapshot = m_world.getTileEffectsSnapshot();
+
+			if(m_snapshot != null)
+				m_world.setTileEffectsSnapshot(m_snapshot);
+
+			try
+			{
+				leg = m_localRouteFactory.create(m_routingRules, m_world, start, end, end == m_finalLegEnd ? m_arrivalTolorance : 0);
+			} catch (IncompleteRouteException e)
+			{
+				leg = e.getIncompleteRoute();
+			} finally
+			{
+				m_world.setTileEffectsSnapshot(boundSnapshot);
+			}
+
+			ArrayList<Vector2F> steps = new ArrayList<>();
+
+			for(Vector2F step = leg.getCurrentTarget(); step != null; step = leg.nextTarget() ? leg.getCurrentTarget() : null)
+				steps.add(step);
+
+			return steps.toArray(new Vector2F[steps.size()]);
+		}
+	}
+}
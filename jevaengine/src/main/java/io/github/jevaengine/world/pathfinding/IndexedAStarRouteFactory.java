@@ -0,0 +1,325 @@
+package io.github.jevaengine.world.pathfinding;
+
+import io.github.jevaengine.math.Vector2D;
+import io.github.jevaengine.math.Vector2F;
+import io.github.jevaengine.world.Direction;
+import io.github.jevaengine.world.World;
+
+import java.util.Arrays;
+
+/*
+ * A* over an indexed binary heap keyed on cached f = g + h. Nodes live in a per-thread arena of primitive arrays
+ * that is reused between searches, and visited tiles are found through an open addressing table stamped with a
+ * search generation, so neither structure needs to be cleared or reallocated between queries.
+ */
+public final class IndexedAStarRouteFactory implements IRouteFactory
+{
+	private static final int DEFAULT_MAX_EXPANSIONS = 20000;
+
+	private static final int DIAGONAL_COST = 7;
+	private static final int HORIZONTAL_VERTICAL_COST = 5;
+
+	private static final ThreadLocal<SearchArena> SEARCH_ARENAS = new ThreadLocal<SearchArena>() {
+		@Override
+		protected SearchArena initialValue()
+		{
+			return new SearchArena();
+		}
+	};
+
+	private final AStarRouteFactory m_wonderRouteFactory = new AStarRouteFactory();
+
+	private final int m_maxExpansions;
+
+	public IndexedAStarRouteFactory(int maxExpansions)
+	{
+		m_maxExpansions = maxExpansions;
+	}
+
+	public IndexedAStarRouteFactory()
+	{
+		this(DEFAULT_MAX_EXPANSIONS);
+	}
+
+	//Octile distance, admissible for the horizontal\vertical and diagonal step costs used by SearchNode.
+	private static int estimateCost(int x, int y, Vector2D target)
+	{
+		int dx = Math.abs(target.x - x);
+		int dy = Math.abs(target.y - y);
+
+		return HORIZONTAL_VERTICAL_COST * Math.max(dx, dy) + (DIAGONAL_COST - HORIZONTAL_VERTICAL_COST) * Math.min(dx, dy);
+	}
+
+	private static Route buildRoute(SearchArena arena, int node)
+	{
+		int length = 0;
+
+		for(int n = node; arena.parent[n] >= 0; n = arena.parent[n])
+			length++;
+
+		//Start point is excluded since this is a path from start to end. Assuming we are already at the start.
+		Vector2F[] waypoints = new Vector2F[length];
+
+		for(int n = node, i = length - 1; i >= 0; n = arena.parent[n], i--)
+			waypoints[i] = new Vector2F(arena.x[n], arena.y[n]);
+
+		return new Route(waypoints);
+	}
+
+	@Override
+	public Route create(IRoutingRules routingRules, World world, Vector2F startPoint, Vector2F endPoint, float arrivalTolorance) throws IncompleteRouteException
+	{
+		Vector2D start = startPoint.round();
+		Vector2D end = endPoint.round();
+
+		if(!world.getTileEffects(end).isTraversable() && arrivalTolorance <= 0)
+			throw new IncompleteRouteException(new Route());
+
+		SearchArena arena = SEARCH_ARENAS.get();
+		arena.reset();
+
+		int startNode = arena.addNode(start.x, start.y, -1, 0, estimateCost(start.x, start.y, end));
+		arena.push(startNode);
+
+		int closest = startNode;
+		float toleranceSquared = arrivalTolorance * arrivalTolorance;
+
+		for(int expansions = 0; expansions < m_maxExpansions && arena.heapSize > 0; expansions++)
+		{
+			int best = arena.pop();
+
+			int dx = end.x - arena.x[best];
+			int dy = end.y - arena.y[best];
+
+			if(dx * dx + dy * dy <= toleranceSquared)
+				return buildRoute(arena, best);
+
+			if(arena.f[best] - arena.g[best] < arena.f[closest] - arena.g[closest])
+				closest = best;
+
+			arena.closed[best] = true;
+
+			SearchNode current = new SearchNode(world, null, Direction.Zero, new Vector2D(arena.x[best], arena.y[best]));
+
+			for(Direction dir : routingRules.getMovements(world, current, end))
+			{
+				Vector2D step = dir.getDirectionVector();
+				int x = arena.x[best] + step.x;
+				int y = arena.y[best] + step.y;
+				int g = arena.g[best] + (dir.isDiagonal() ? DIAGONAL_COST : HORIZONTAL_VERTICAL_COST);
+
+				int node = arena.findNode(x, y);
+
+				if(node < 0)
+				{
+					node = arena.addNode(x, y, best, g, g + estimateCost(x, y, end));
+					arena.push(node);
+				} else if(!arena.closed[node] && g < arena.g[node])
+				{
+					arena.f[node] = g + (arena.f[node] - arena.g[node]);
+					arena.g[node] = g;
+					arena.parent[node] = best;
+					arena.siftUp(arena.heapIndex[node]);
+				}
+			}
+		}
+
+		throw new IncompleteRouteException(buildRoute(arena, closest));
+	}
+
+	@Override
+	public Route create(IRoutingRules routingRules, World world, Vector2F startPoint, int length)
+	{
+		return m_wonderRouteFactory.create(routingRules, world, startPoint, length);
+	}
+
+	private static final class SearchArena
+	{
+		private static final int INITIAL_CAPACITY = 1024;
+
+		int[] x = new int[INITIAL_CAPACITY];
+		int[] y = new int[INITIAL_CAPACITY];
+		int[] g = new int[INITIAL_CAPACITY];
+		int[] f = new int[INITIAL_CAPACITY];
+		int[] parent = new int[INITIAL_CAPACITY];
+		int[] heapIndex = new int[INITIAL_CAPACITY];
+		boolean[] closed = new boolean[INITIAL_CAPACITY];
+		int nodeCount = 0;
+
+		int[] heap = new int[INITIAL_CAPACITY];
+		int heapSize = 0;
+
+		//Location -> node table. A slot is only occupied when its stamp matches the current generation.
+		long[] tableKeys = new long[INITIAL_CAPACITY * 2];
+		int[] tableNodes = new int[INITIAL_CAPACITY * 2];
+		int[] tableStamps = new int[INITIAL_CAPACITY * 2];
+		int generation = 0;
+
+		void reset()
+		{
+			nodeCount = 0;
+			heapSize = 0;
+
+			if(++generation == 0)
+			{
+				Arrays.fill(tableStamps, 0);
+				generation = 1;
+			}
+		}
+
+		private static int hash(long key)
+		{
+			long h = key * 0x9E3779B97F4A7C15L;
+			return (int)(h ^ (h >>> 32));
+		}
+
+		private static long pack(int x, int y)
+		{
+			return ((long)x << 32) | (y & 0xFFFFFFFFL);
+		}
+
+		int findNode(int nodeX, int nodeY)
+		{
+			long key = pack(nodeX, nodeY);
+			int mask = tableKeys.length - 1;
+
+			for(int i = hash(key) & mask; tableStamps[i] == generation; i = (i + 1) & mask)
+			{
+				if(tableKeys[i] == key)
+					return tableNodes[i];
+			}
+
+			return -1;
+		}
+
+		private void insert(long key, int node)
+		{
+			int mask = tableKeys.length - 1;
+			int i = hash(key) & mask;
+
+			while(tableStamps[i] == generation)
+				i = (i + 1) & mask;
+
+			tableStamps[i] = generation;
+			tableKeys[i] = key;
+			tableNodes[i] = node;
+		}
+
+		private void grow()
+		{
+			int capacity = x.length * 2;
+
+			x = Arrays.copyOf(x, capacity);
+			y = Arrays.copyOf(y, capacity);
+			g = Arrays.copyOf(g, capacity);
+			f = Arrays.copyOf(f, capacity);
+			parent = Arrays.copyOf(parent, capacity);
+			heapIndex = Arrays.copyOf(heapIndex, capacity);
+			closed = Arrays.copyOf(closed, capacity);
+			heap = Arrays.copyOf(heap, capacity);
+
+			tableKeys = new long[capacity * 2];
+			tableNodes = new int[capacity * 2];
+			tableStamps = new int[capacity * 2];
+			generation = 1;
+
+			for(int n = 0; n < nodeCount; n++)
+				insert(pack(x[n], y[n]), n);
+		}
+
+		int addNode(int nodeX, int nodeY, int nodeParent, int nodeG, int nodeF)
+		{
+			if(nodeCount == x.length)
+				grow();
+
+			int node = nodeCount++;
+
+			x[node] = nodeX;
+			y[node] = nodeY;
+			g[node] = nodeG;
+			f[node] = nodeF;
+			parent[node] = nodeParent;
+			heapIndex[node] = -1;
+			closed[node] = false;
+
+			insert(pack(nodeX, nodeY), node);
+
+			return node;
+		}
+
+		//Ties on f are broken towards the node closer to the goal.
+		private boolean isBetter(int a, int b)
+		{
+			return f[a] < f[b] || (f[a] == f[b] && g[a] > g[b]);
+		}
+
+		void push(int node)
+		{
+			heap[heapSize] = node;
+			heapIndex[node] = heapSize;
+			siftUp(heapSize++);
+		}
+
+		int pop()
+		{
+			int top = heap[0];
+			heapIndex[top] = -1;
+
+			if(--heapSize > 0)
+			{
+				heap[0] = heap[heapSize];
+				heapIndex[heap[0]] = 0;
+				siftDown(0);
+			}
+
+			return top;
+		}
+
+		void siftUp(int index)
+		{
+			int node = heap[index];
+
+			while(index > 0)
+			{
+				int parentIndex = (index - 1) >>> 1;
+				int parentNode = heap[parentIndex];
+
+				if(!isBetter(node, parentNode))
+					break;
+
+				heap[index] = parentNode;
+				heapIndex[parentNode] = index;
+				index = parentIndex;
+			}
+
+			heap[index] = node;
+			heapIndex[node] = index;
+		}
+
+		private void siftDown(int index)
+		{
+			int node = heap[index];
+
+			while(true)
+			{
+				int child = index * 2 + 1;
+
+				if(child >= heapSize)
+					break;
+
+				if(child + 1 < heapSize && isBetter(heap[child + 1], heap[child]))
+					child++;
+
+				if(!isBetter(heap[child], node))
+					break;
+
+				heap[index] = heap[child];
+				heapIndex[heap[index]] = index;
+				index = child;
+			}
+
+			heap[index] = node;
+			heapIndex[node] = index;
+		}
+	}
+}
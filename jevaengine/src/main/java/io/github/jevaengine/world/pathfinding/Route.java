@@ -21,39 +21,100 @@ import io.github.jevaengine.util.Nullable;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 public final class Route
 {
 	private ArrayList<Vector2F> m_path = new ArrayList<>();
+	
+	//Waypoints that have not yet been refined into steps, each is expanded by m_legFactory when the path preceding it is exhausted.
+	private ArrayList<Vector2F> m_legEnds = new ArrayList<>();
+	
+	@Nullable
+	private IRouteLegFactory m_legFactory;
+	private Vector2F m_legStart;
+	
+	//Steps refining the remaining legs may add before the route is cut short, or -1 if the route has not been truncated.
+	private int m_refinableSteps = -1;
 
 	public Route(Vector2F ... path)
 	{
 		m_path.addAll(Arrays.asList(path));
 	}
 	
+	public Route(IRouteLegFactory legFactory, Vector2F start, Vector2F ... legEnds)
+	{
+		m_legFactory = legFactory;
+		m_legStart = new Vector2F(start);
+		m_legEnds.addAll(Arrays.asList(legEnds));
+	}
+	
 	public Route() { }
 	
 	public Route(Route src)
 	{
 		m_path.addAll(src.m_path);
+		m_legEnds.addAll(src.m_legEnds);
+		m_legFactory = src.m_legFactory;
+		m_legStart = src.m_legStart;
+		m_refinableSteps = src.m_refinableSteps;
 	}
 	
+	private void refine(int minimumSteps)
+	{
+		while(m_path.size() < minimumSteps && !m_legEnds.isEmpty())
+		{
+			Vector2F legEnd = m_legEnds.remove(0);
+			Vector2F[] leg = m_legFactory.create(m_legStart, legEnd);
+			int steps = m_refinableSteps < 0 ? leg.length : Math.min(leg.length, m_refinableSteps);
+			
+			m_path.addAll(Arrays.asList(leg).subList(0, steps));
+			
+			if(steps > 0)
+				m_legStart = leg[steps - 1];
+			
+			if(m_refinableSteps >= 0)
+			{
+				m_refinableSteps -= steps;
+				
+				if(m_refinableSteps == 0)
+					m_legEnds.clear();
+			}
+		}
+	}
+	
+	//Legs which have not been refined are kept unrefined, and are cut short as they are refined.
 	public void truncate(int maxSteps)
 	{
-		if (m_path.size() <= maxSteps)
-			return;
+		if (m_path.size() >= maxSteps)
+		{
+			m_legEnds.clear();
+			m_path = new ArrayList<Vector2F>(m_path.subList(0, maxSteps));
+		} else if (!m_legEnds.isEmpty())
+		{
+			int refinableSteps = maxSteps - m_path.size();
+			m_refinableSteps = m_refinableSteps < 0 ? refinableSteps : Math.min(m_refinableSteps, refinableSteps);
+		}
+	}
 
-		m_path = new ArrayList<Vector2F>(m_path.subList(0, maxSteps));
+	//Steps that have been refined so far, unrefined legs are excluded.
+	List<Vector2F> getRefinedSteps()
+	{
+		return Collections.unmodifiableList(m_path);
 	}
 
+	//Unrefined legs are counted as a single step each.
 	public int length()
 	{
-		return m_path.size();
+		return m_path.size() + m_legEnds.size();
 	}
 
 	@Nullable
 	public Vector2F getCurrentTarget()
 	{
+		refine(1);
+		
 		if (m_path.isEmpty())
 			return null;
 
@@ -62,25 +123,36 @@ public final class Route
 
 	public boolean nextTarget()
 	{
+		refine(1);
+		
 		if (!m_path.isEmpty())
 			m_path.remove(0);
 
+		refine(1);
+		
 		return !m_path.isEmpty();
 	}
 
 	public boolean hasNext()
 	{
+		refine(2);
+		
 		return m_path.size() > 1;
 	}
 	
 	public Vector2F peek(int ahead)
 	{
+		refine(ahead + 1);
+		
 		return m_path.get(ahead);
 	}
 
 	public void addWaypoint(Vector2F node)
 	{
-		m_path.add(node);
+		if(m_legEnds.isEmpty())
+			m_path.add(node);
+		else
+			m_legEnds.add(node);
 	}
 	
 	public void addWaypoints(Vector2F ... nodes)
@@ -88,4 +160,9 @@ public final class Route
 		for(Vector2F node : nodes)
 			addWaypoint(node);
 	}
+	
+	public interface IRouteLegFactory
+	{
+		Vector2F[] create(Vector2F start, Vector2F end);
+	}
 }
@@ -0,0 +1,316 @@
+package io.github.jevaengine.world.pathfinding;
+
+import io.github.jevaengine.FutureResult;
+import io.github.jevaengine.IEngineThreadPool;
+import io.github.jevaengine.IEngineThreadPool.Purpose;
+import io.github.jevaengine.math.Vector2D;
+import io.github.jevaengine.math.Vector2F;
+import io.github.jevaengine.util.SynchronousExecutor;
+import io.github.jevaengine.util.SynchronousExecutor.ISynchronousTask;
+import io.github.jevaengine.world.SceneGraph.TileEffectsSnapshot;
+import io.github.jevaengine.world.World;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+
+/*
+ * Computes routes on the engine's pathfinding threads rather than inside of the game logic tick. Requests are queued
+ * and, every tick, up to the dispatch budget of them are handed to the thread pool along with a snapshot of their
+ * world's tile effects, shared by every request dispatched that tick. Identical requests that are still pending share
+ * a single search, and completed routes are delivered to their listeners from update, on the tick after they complete.
+ *
+ * Everything but the search itself happens on the thread that invokes request and update, which should be the thread
+ * that updates the worlds being routed through. The route factory, and the routing rules, must only query the world
+ * through getBounds, getTileEffects, isStaticTraversable and getStaticTraversabilityVersion, which are served from the
+ * snapshot while a search runs; the factories of this package do.
+ */
+public final class RouteRequestScheduler
+{
+	private static final int DEFAULT_DISPATCH_BUDGET = 16;
+
+	private final IEngineThreadPool m_threadPool;
+	private final IRouteFactory m_routeFactory;
+	private final int m_dispatchBudget;
+
+	private final SynchronousExecutor m_completedRequests = new SynchronousExecutor();
+
+	private final ArrayDeque<PendingRequest> m_queue = new ArrayDeque<>();
+	private final HashMap<RequestKey, PendingRequest> m_pending = new HashMap<>();
+
+	private int m_inFlightCount = 0;
+
+	private long m_requestCount = 0;
+	private long m_deduplicatedCount = 0;
+	private long m_deliveredCount = 0;
+	private long m_totalLatency = 0;
+	private long m_peakLatency = 0;
+
+	public RouteRequestScheduler(IEngineThreadPool threadPool, IRouteFactory routeFactory, int dispatchBudget)
+	{
+		m_threadPool = threadPool;
+		m_routeFactory = routeFactory;
+		m_dispatchBudget = dispatchBudget;
+	}
+
+	public RouteRequestScheduler(IEngineThreadPool threadPool)
+	{
+		this(threadPool, new IndexedAStarRouteFactory(), DEFAULT_DISPATCH_BUDGET);
+	}
+
+	public void request(IRoutingRules routingRules, World world, Vector2F startPoint, Vector2F endPoint, float arrivalTolorance, IRouteRequestListener listener)
+	{
+		m_requestCount++;
+
+		RequestKey key = new RequestKey(routingRules, world, startPoint.round(), endPoint.round(), arrivalTolorance);
+		PendingRequest pending = m_pending.get(key);
+
+		if(pending != null)
+			m_deduplicatedCount++;
+		else
+		{
+			pending = new PendingRequest(key, new Vector2F(startPoint), new Vector2F(endPoint));
+			m_pending.put(key, pending);
+			m_queue.add(pending);
+		}
+
+		pending.listeners.add(new ListenerEntry(listener, System.nanoTime()));
+	}
+
+	//Removes the listener from every pending request. Requests left without listeners are dropped if not yet dispatched.
+	public void cancel(IRouteRequestListener listener)
+	{
+		for(Iterator<PendingRequest> it = m_pending.values().iterator(); it.hasNext();)
+		{
+			PendingRequest pending = it.next();
+
+			for(Iterator<ListenerEntry> listeners = pending.listeners.iterator(); listeners.hasNext();)
+			{
+				if(listeners.next().listener == listener)
+					listeners.remove();
+			}
+
+			if(pending.listeners.isEmpty() && !pending.isDispatched)
+			{
+				m_queue.remove(pending);
+				it.remove();
+			}
+		}
+	}
+
+	public void update()
+	{
+		m_completedRequests.execute();
+
+		IdentityHashMap<World, TileEffectsSnapshot> snapshots = new IdentityHashMap<>();
+
+		for(int i = 0; i < m_dispatchBudget && !m_queue.isEmpty(); i++)
+		{
+			PendingRequest pending = m_queue.poll();
+			TileEffectsSnapshot snapshot = snapshots.get(pending.key.world);
+
+			if(snapshot == null)
+			{
+				snapshot = pending.key.world.createTileEffectsSnapshot();
+				snapshots.put(pending.key.world, snapshot);
+			}
+
+			dispatch(pending, snapshot);
+		}
+	}
+
+	private void dispatch(final PendingRequest pending, final TileEffectsSnapshot snapshot)
+	{
+		final RequestKey key = pending.key;
+
+		pending.isDispatched = true;
+		m_inFlightCount++;
+
+		m_threadPool.execute(Purpose.Pathfinding, new Runnable() {
+			@Override
+			public void run()
+			{
+				FutureResult<Route, IncompleteRouteException> result;
+
+				key.world.setTileEffectsSnapshot(snapshot);
+
+				try
+				{
+					result = new FutureResult<Route, IncompleteRouteException>(m_routeFactory.create(key.routingRules, key.world, pending.startPoint, pending.endPoint, key.arrivalTolorance));
+				} catch (IncompleteRouteException e)
+				{
+					result = new FutureResult<Route, IncompleteRouteException>(e);
+				} finally
+				{
+					key.world.setTileEffectsSnapshot(null);
+				}
+
+				final FutureResult<Route, IncompleteRouteException> completedResult = result;
+
+				m_completedRequests.enqueue(new ISynchronousTask() {
+					@Override
+					public boolean run()
+					{
+						deliver(pending, completedResult);
+						return true;
+					}
+				});
+			}
+		});
+	}
+
+	private void deliver(PendingRequest pending, FutureResult<Route, IncompleteRouteException> result)
+	{
+		m_inFlightCount--;
+		m_pending.remove(pending.key);
+
+		long now = System.nanoTime();
+
+		for(ListenerEntry entry : pending.listeners)
+		{
+			long latency = now - entry.requestTime;
+
+			m_deliveredCount++;
+			m_totalLatency += latency;
+			m_peakLatency = Math.max(m_peakLatency, latency);
+
+			//Routes are stateful, every listener receives its own copy.
+			try
+			{
+				entry.listener.completed(new FutureResult<Route, IncompleteRouteException>(new Route(result.get())));
+			} catch (IncompleteRouteException e)
+			{
+				entry.listener.completed(new FutureResult<Route, IncompleteRouteException>(new IncompleteRouteException(new Route(e.getIncompleteRoute()))));
+			}
+		}
+	}
+
+	//Requests waiting to be dispatched.
+	public int getQueueDepth()
+	{
+		return m_queue.size();
+	}
+
+	public int getInFlightCount()
+	{
+		return m_inFlightCount;
+	}
+
+	public long getRequestCount()
+	{
+		return m_requestCount;
+	}
+
+	//Requests that were served by a search already pending for an identical request.
+	public long getDeduplicatedCount()
+	{
+		return m_deduplicatedCount;
+	}
+
+	public long getDeliveredCount()
+	{
+		return m_deliveredCount;
+	}
+
+	//Average time, in milliseconds, between a request and the delivery of its route.
+	public float getAverageLatency()
+	{
+		return m_deliveredCount == 0 ? 0 : (m_totalLatency / (float)m_deliveredCount) / 1000000.0F;
+	}
+
+	public float getPeakLatency()
+	{
+		return m_peakLatency / 1000000.0F;
+	}
+
+	public void resetMetrics()
+	{
+		m_requestCount = 0;
+		m_deduplicatedCount = 0;
+		m_deliveredCount = 0;
+		m_totalLatency = 0;
+		m_peakLatency = 0;
+	}
+
+	public interface IRouteRequestListener
+	{
+		void completed(FutureResult<Route, IncompleteRouteException> route);
+	}
+
+	private static final class ListenerEntry
+	{
+		final IRouteRequestListener listener;
+		final long requestTime;
+
+		ListenerEntry(IRouteRequestListener _listener, long _requestTime)
+		{
+			listener = _listener;
+			requestTime = _requestTime;
+		}
+	}
+
+	private static final class PendingRequest
+	{
+		final RequestKey key;
+		final Vector2F startPoint;
+		final Vector2F endPoint;
+
+		final ArrayList<ListenerEntry> listeners = new ArrayList<>();
+		boolean isDispatched = false;
+
+		PendingRequest(RequestKey _key, Vector2F _startPoint, Vector2F _endPoint)
+		{
+			key = _key;
+			startPoint = _startPoint;
+			endPoint = _endPoint;
+		}
+	}
+
+	private static final class RequestKey
+	{
+		final IRoutingRules routingRules;
+		final World world;
+		final Vector2D start;
+		final Vector2D end;
+		final float arrivalTolorance;
+
+		RequestKey(IRoutingRules _routingRules, World _world, Vector2D _start, Vector2D _end, float _arrivalTolorance)
+		{
+			routingRules = _routingRules;
+			world = _world;
+			start = _start;
+			end = _end;
+			arrivalTolorance = _arrivalTolorance;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + routingRules.hashCode();
+			result = prime * result + System.identityHashCode(world);
+			result = prime * result + start.hashCode();
+			result = prime * result + end.hashCode();
+			result = prime * result + Float.floatToIntBits(arrivalTolorance);
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			else if (!(obj instanceof RequestKey))
+				return false;
+
+			RequestKey other = (RequestKey) obj;
+
+			return routingRules.equals(other.routingRules) && world == other.world &&
+					start.equals(other.start) && end.equals(other.end) &&
+					Float.floatToIntBits(arrivalTolorance) == Float.floatToIntBits(other.arrivalTolorance);
+		}
+	}
+}
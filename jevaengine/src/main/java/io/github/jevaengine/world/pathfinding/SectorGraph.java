@@ -0,0 +1,313 @@
+package io.github.jevaengine.world.pathfinding;
+
+import io.github.jevaengine.util.LongHashMap;
+import io.github.jevaengine.world.SceneGraph;
+import io.github.jevaengine.world.World;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/*
+ * Abstract graph of the entrances between adjacent SceneGraph sectors, built from static traversability. Clusters are
+ * built lazily when a search first touches them, and are rebuilt when the static version of the sector or any of its
+ * four neighbours has changed, since those neighbours share the borders that place the cluster's entrances.
+ *
+ * The graph does not reference the world it describes, the world is passed to every query.
+ */
+final class SectorGraph
+{
+	static final int DIMENSIONS = SceneGraph.SECTOR_DIMENSIONS;
+
+	static final int DIAGONAL_COST = 7;
+	static final int HORIZONTAL_VERTICAL_COST = 5;
+
+	//Runs of open border tiles at least this long receive an entrance at each end rather than one in the middle.
+	private static final int LONG_ENTRANCE_LENGTH = 6;
+
+	private static final int[] NEIGHBOUR_X = {1, 0, -1, 0};
+	private static final int[] NEIGHBOUR_Y = {0, 1, 0, -1};
+
+	private final LongHashMap<Cluster> m_clusters = new LongHashMap<>();
+
+	static long pack(int x, int y)
+	{
+		return LongHashMap.pack(x, y);
+	}
+
+	static int unpackX(long key)
+	{
+		return (int)(key >> 32);
+	}
+
+	static int unpackY(long key)
+	{
+		return (int)key;
+	}
+
+	Cluster getCluster(World world, int tileX, int tileY)
+	{
+		int sectorX = SceneGraph.getSectorCoordinate(tileX);
+		int sectorY = SceneGraph.getSectorCoordinate(tileY);
+
+		long key = pack(sectorX, sectorY);
+		Cluster cluster = m_clusters.get(key);
+
+		if(cluster == null)
+		{
+			cluster = new Cluster(sectorX, sectorY);
+			m_clusters.put(key, cluster);
+		}
+
+		cluster.validate(world);
+
+		return cluster;
+	}
+
+	static final class Cluster
+	{
+		final int sectorX;
+		final int sectorY;
+
+		final int originX;
+		final int originY;
+
+		//Versions of this sector followed by its neighbours, in NEIGHBOUR_X/NEIGHBOUR_Y order.
+		private final int[] m_versions = new int[5];
+		private boolean m_isBuilt = false;
+
+		//Unique entrance tiles and the cost between each pair, -1 where they are not connected inside of the cluster.
+		private long[] m_nodes = new long[0];
+		private int[][] m_costs = new int[0][];
+
+		//Entrance tiles and the tile across the border they lead to. A corner tile may appear more than once.
+		private long[] m_borderTiles = new long[0];
+		private long[] m_borderPartners = new long[0];
+
+		private Cluster(int _sectorX, int _sectorY)
+		{
+			sectorX = _sectorX;
+			sectorY = _sectorY;
+			originX = sectorX * DIMENSIONS;
+			originY = sectorY * DIMENSIONS;
+		}
+
+		private void validate(World world)
+		{
+			boolean isCurrent = m_isBuilt && m_versions[0] == world.getStaticTraversabilityVersion(sectorX, sectorY);
+
+			for(int i = 0; isCurrent && i < NEIGHBOUR_X.length; i++)
+				isCurrent = m_versions[i + 1] == world.getStaticTraversabilityVersion(sectorX + NEIGHBOUR_X[i], sectorY + NEIGHBOUR_Y[i]);
+
+			if(isCurrent)
+				return;
+
+			m_versions[0] = world.getStaticTraversabilityVersion(sectorX, sectorY);
+
+			for(int i = 0; i < NEIGHBOUR_X.length; i++)
+				m_versions[i + 1] = world.getStaticTraversabilityVersion(sectorX + NEIGHBOUR_X[i], sectorY + NEIGHBOUR_Y[i]);
+
+			build(world);
+			m_isBuilt = true;
+		}
+
+		private void build(World world)
+		{
+			ArrayList<Long> borderTiles = new ArrayList<>();
+			ArrayList<Long> borderPartners = new ArrayList<>();
+
+			for(int i = 0; i < NEIGHBOUR_X.length; i++)
+			{
+				int dx = NEIGHBOUR_X[i];
+				int dy = NEIGHBOUR_Y[i];
+
+				//First tile on the border inside of this cluster, and the step taken to walk along the border.
+				int startX = dx > 0 ? originX + DIMENSIONS - 1 : originX;
+				int startY = dy > 0 ? originY + DIMENSIONS - 1 : originY;
+				int stepX = dx == 0 ? 1 : 0;
+				int stepY = dy == 0 ? 1 : 0;
+
+				int runStart = -1;
+
+				for(int n = 0; n <= DIMENSIONS; n++)
+				{
+					int x = startX + stepX * n;
+					int y = startY + stepY * n;
+
+					boolean isOpen = n < DIMENSIONS && world.isStaticTraversable(x, y) && world.isStaticTraversable(x + dx, y + dy);
+
+					if(isOpen && runStart < 0)
+						runStart = n;
+					else if(!isOpen && runStart >= 0)
+					{
+						int runEnd = n - 1;
+
+						if(runEnd - runStart + 1 >= LONG_ENTRANCE_LENGTH)
+						{
+							addEntrance(borderTiles, borderPartners, startX + stepX * runStart, startY + stepY * runStart, dx, dy);
+							addEntrance(borderTiles, borderPartners, startX + stepX * runEnd, startY + stepY * runEnd, dx, dy);
+						} else
+						{
+							int middle = (runStart + runEnd) / 2;
+							addEntrance(borderTiles, borderPartners, startX + stepX * middle, startY + stepY * middle, dx, dy);
+						}
+
+						runStart = -1;
+					}
+				}
+			}
+
+			m_borderTiles = new long[borderTiles.size()];
+			m_borderPartners = new long[borderPartners.size()];
+
+			ArrayList<Long> nodes = new ArrayList<>();
+
+			for(int i = 0; i < m_borderTiles.length; i++)
+			{
+				m_borderTiles[i] = borderTiles.get(i);
+				m_borderPartners[i] = borderPartners.get(i);
+
+				if(!nodes.contains(borderTiles.get(i)))
+					nodes.add(borderTiles.get(i));
+			}
+
+			m_nodes = new long[nodes.size()];
+			m_costs = new int[nodes.size()][];
+
+			for(int i = 0; i < m_nodes.length; i++)
+				m_nodes[i] = nodes.get(i);
+
+			for(int i = 0; i < m_nodes.length; i++)
+			{
+				int[] distances = findDistances(world, unpackX(m_nodes[i]), unpackY(m_nodes[i]));
+				m_costs[i] = new int[m_nodes.length];
+
+				for(int j = 0; j < m_nodes.length; j++)
+					m_costs[i][j] = distances[getLocalIndex(unpackX(m_nodes[j]), unpackY(m_nodes[j]))];
+			}
+		}
+
+		private static void addEntrance(ArrayList<Long> borderTiles, ArrayList<Long> borderPartners, int x, int y, int dx, int dy)
+		{
+			borderTiles.add(pack(x, y));
+			borderPartners.add(pack(x + dx, y + dy));
+		}
+
+		boolean contains(int x, int y)
+		{
+			return x >= originX && y >= originY && x < originX + DIMENSIONS && y < originY + DIMENSIONS;
+		}
+
+		int getLocalIndex(int x, int y)
+		{
+			return (y - originY) * DIMENSIONS + (x - originX);
+		}
+
+		int getNodeCount()
+		{
+			return m_nodes.length;
+		}
+
+		long getNode(int index)
+		{
+			return m_nodes[index];
+		}
+
+		int indexOfNode(long tile)
+		{
+			for(int i = 0; i < m_nodes.length; i++)
+			{
+				if(m_nodes[i] == tile)
+					return i;
+			}
+
+			return -1;
+		}
+
+		int getCost(int from, int to)
+		{
+			return m_costs[from][to];
+		}
+
+		int getBorderCount()
+		{
+			return m_borderTiles.length;
+		}
+
+		long getBorderTile(int index)
+		{
+			return m_borderTiles[index];
+		}
+
+		long getBorderPartner(int index)
+		{
+			return m_borderPartners[index];
+		}
+
+		/*
+		 * Dijkstra restricted to the tiles of this cluster over static traversability, using the same step costs and
+		 * corner cutting rules as DefaultRoutingRules. Returns the cost to every tile by local index, -1 if unreachable.
+		 */
+		int[] findDistances(World world, int fromX, int fromY)
+		{
+			int tileCount = DIMENSIONS * DIMENSIONS;
+
+			boolean[] open = new boolean[tileCount];
+			for(int i = 0; i < tileCount; i++)
+				open[i] = world.isStaticTraversable(originX + i % DIMENSIONS, originY + i / DIMENSIONS);
+
+			int[] distances = new int[tileCount];
+			boolean[] settled = new boolean[tileCount];
+			Arrays.fill(distances, -1);
+
+			distances[getLocalIndex(fromX, fromY)] = 0;
+
+			while(true)
+			{
+				int current = -1;
+
+				for(int i = 0; i < tileCount; i++)
+				{
+					if(!settled[i] && distances[i] >= 0 && (current < 0 || distances[i] < distances[current]))
+						current = i;
+				}
+
+				if(current < 0)
+					break;
+
+				settled[current] = true;
+
+				int cx = current % DIMENSIONS;
+				int cy = current / DIMENSIONS;
+
+				for(int dx = -1; dx <= 1; dx++)
+				{
+					for(int dy = -1; dy <= 1; dy++)
+					{
+						int nx = cx + dx;
+						int ny = cy + dy;
+
+						if((dx == 0 && dy == 0) || nx < 0 || ny < 0 || nx >= DIMENSIONS || ny >= DIMENSIONS)
+							continue;
+
+						int next = ny * DIMENSIONS + nx;
+
+						if(!open[next] || settled[next])
+							continue;
+
+						boolean isDiagonal = dx != 0 && dy != 0;
+
+						if(isDiagonal && !(open[cy * DIMENSIONS + nx] && open[ny * DIMENSIONS + cx]))
+							continue;
+
+						int cost = distances[current] + (isDiagonal ? DIAGONAL_COST : HORIZONTAL_VERTICAL_COST);
+
+						if(distances[next] < 0 || cost < distances[next])
+							distances[next] = cost;
+					}
+				}
+			}
+
+			return distances;
+		}
+	}
+}
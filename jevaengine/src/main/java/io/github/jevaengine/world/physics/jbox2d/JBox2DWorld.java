@@ -3,6 +3,8 @@ package io.github.jevaengine.world.physics.jbox2d;
 import io.github.jevaengine.math.Rect3F;
 import io.github.jevaengine.math.Vector2F;
 import io.github.jevaengine.util.Nullable;
+import io.github.jevaengine.util.ProfileSection;
+import io.github.jevaengine.util.Profiler;
 import io.github.jevaengine.world.entity.IEntity;
 import io.github.jevaengine.world.physics.IPhysicsBody;
 import io.github.jevaengine.world.physics.IPhysicsWorld;
@@ -35,6 +37,8 @@ public final class JBox2DWorld implements IPhysicsWorld
 
 	private static final float WORLD_STEP_INTERVAL = 1000.0F / 30.0F; //1/30th of a second
 	
+	private static final ProfileSection PROFILE_UPDATE = Profiler.getSection("JBox2DWorld.update");
+	
 	private final float m_maxSurfaceFrictionForceNewtonMeters;
 	
 	private final Body m_surfaceBody;
@@ -94,6 +98,8 @@ public final class JBox2DWorld implements IPhysicsWorld
 	@Override
 	public void update(int deltaTime)
 	{
+		long profileStart = PROFILE_UPDATE.begin();
+		
 		m_timeSinceStep += deltaTime;
 		
 		for(; m_timeSinceStep >= WORLD_STEP_INTERVAL; m_timeSinceStep -= WORLD_STEP_INTERVAL)
@@ -102,6 +108,8 @@ public final class JBox2DWorld implements IPhysicsWorld
 		}
 		
 		m_contactListener.relay();
+		
+		PROFILE_UPDATE.end(profileStart);
 	}
 	
 	@Override
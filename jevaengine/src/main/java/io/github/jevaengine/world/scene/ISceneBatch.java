@@ -0,0 +1,14 @@
+package io.github.jevaengine.world.scene;
+
+import io.github.jevaengine.math.Rect2F;
+import io.github.jevaengine.math.Vector3F;
+import io.github.jevaengine.util.Nullable;
+import io.github.jevaengine.world.entity.IEntity;
+import io.github.jevaengine.world.scene.model.IImmutableSceneModel;
+
+public interface ISceneBatch
+{
+	void addModel(IImmutableSceneModel model, @Nullable IEntity dispatcher, Vector3F location);
+	void addModel(IImmutableSceneModel model, Vector3F location);
+	void addStaticLayer(StaticLayer layer, Rect2F renderBounds);
+}
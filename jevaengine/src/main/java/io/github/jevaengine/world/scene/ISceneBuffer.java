@@ -1,16 +1,17 @@
 package io.github.jevaengine.world.scene;
 
 import io.github.jevaengine.math.Vector2D;
-import io.github.jevaengine.math.Vector3F;
-import io.github.jevaengine.util.Nullable;
 import io.github.jevaengine.world.IImmutableSceneBuffer;
-import io.github.jevaengine.world.entity.IEntity;
-import io.github.jevaengine.world.scene.model.IImmutableSceneModel;
 
-public interface ISceneBuffer extends IImmutableSceneBuffer
+public interface ISceneBuffer extends IImmutableSceneBuffer, ISceneBatch
 {		
-	void addModel(IImmutableSceneModel model, @Nullable IEntity dispatcher, Vector3F location);
-	void addModel(IImmutableSceneModel model, Vector3F location);
+	/*
+	 * Batches may be filled concurrently, each by a single thread at a time, while nothing else is added to this buffer.
+	 * Their content is added to this buffer by addBatch, and batches are not valid beyond the next reset.
+	 */
+	ISceneBatch createBatch();
+	void addBatch(ISceneBatch batch);
+	
 	void reset();
 	
 	void translate(Vector2D translation);
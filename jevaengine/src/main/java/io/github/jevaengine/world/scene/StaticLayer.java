@@ -0,0 +1,133 @@
+package io.github.jevaengine.world.scene;
+
+import io.github.jevaengine.math.Rect2F;
+import io.github.jevaengine.math.Vector3F;
+import io.github.jevaengine.util.Nullable;
+import io.github.jevaengine.world.entity.IEntity;
+import io.github.jevaengine.world.scene.model.IImmutableSceneModel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * Flat static models lying on a single plane of a region of the world, such as the tiles of a world's artifact planes.
+ * A layer is not modified once it has been handed to a scene buffer, it is replaced instead when any of its models are
+ * added, removed or moved. Scene buffers may therefore identify a layer by reference and retain whatever they derive
+ * from it (i.e, a pre-rendered image) for as long as the same layer keeps being added.
+ */
+public final class StaticLayer
+{
+	private final Vector3F m_origin;
+	private final ArrayList<Entry> m_entries = new ArrayList<>();
+
+	@Nullable
+	private Rect2F m_bounds = null;
+
+	public StaticLayer(Vector3F origin)
+	{
+		m_origin = new Vector3F(origin);
+	}
+
+	public void add(IImmutableSceneModel model, @Nullable IEntity dispatcher, Vector3F location)
+	{
+		Entry e = new Entry(model, dispatcher, location);
+		m_entries.add(e);
+
+		if(m_bounds == null)
+			m_bounds = new Rect2F(e.bounds.x, e.bounds.y, e.bounds.width, e.bounds.height);
+		else
+		{
+			float maxX = Math.max(m_bounds.x + m_bounds.width, e.bounds.x + e.bounds.width);
+			float maxY = Math.max(m_bounds.y + m_bounds.height, e.bounds.y + e.bounds.height);
+
+			m_bounds.x = Math.min(m_bounds.x, e.bounds.x);
+			m_bounds.y = Math.min(m_bounds.y, e.bounds.y);
+			m_bounds.width = maxX - m_bounds.x;
+			m_bounds.height = maxY - m_bounds.y;
+		}
+	}
+
+	public Vector3F getOrigin()
+	{
+		return new Vector3F(m_origin);
+	}
+
+	public List<Entry> getEntries()
+	{
+		return Collections.unmodifiableList(m_entries);
+	}
+
+	public boolean isEmpty()
+	{
+		return m_entries.isEmpty();
+	}
+
+	public boolean intersects(Rect2F renderBounds)
+	{
+		return m_bounds != null && renderBounds.intersects(m_bounds);
+	}
+
+	//Whether both layers hold the same models, for the same dispatchers at the same locations, in the same order.
+	public boolean isEquivalent(StaticLayer other)
+	{
+		if(m_entries.size() != other.m_entries.size() || !m_origin.equals(other.m_origin))
+			return false;
+
+		for(int i = 0; i < m_entries.size(); i++)
+		{
+			Entry a = m_entries.get(i);
+			Entry b = other.m_entries.get(i);
+
+			if(a.model != b.model || a.dispatcher != b.dispatcher || !a.location.equals(b.location))
+				return false;
+		}
+
+		return true;
+	}
+
+	//Adds the visible models of this layer to the target individually, for buffers that do not retain layers.
+	public void enqueue(ISceneBatch target, Rect2F renderBounds)
+	{
+		for(Entry e : m_entries)
+		{
+			if(renderBounds.intersects(e.bounds))
+				target.addModel(e.model, e.dispatcher, e.location);
+		}
+	}
+
+	public static final class Entry
+	{
+		private final IImmutableSceneModel model;
+
+		@Nullable
+		private final IEntity dispatcher;
+
+		private final Vector3F location;
+		private final Rect2F bounds;
+
+		private Entry(IImmutableSceneModel _model, @Nullable IEntity _dispatcher, Vector3F _location)
+		{
+			model = _model;
+			dispatcher = _dispatcher;
+			location = new Vector3F(_location);
+			bounds = _model.getAABB().getXy().add(_location.getXy());
+		}
+
+		public IImmutableSceneModel getModel()
+		{
+			return model;
+		}
+
+		@Nullable
+		public IEntity getDispatcher()
+		{
+			return dispatcher;
+		}
+
+		public Vector3F getLocation()
+		{
+			return new Vector3F(location);
+		}
+	}
+}
@@ -1,13 +1,16 @@
 package io.github.jevaengine.world.scene.isometric;
 
 import io.github.jevaengine.math.Matrix3X3;
+import io.github.jevaengine.math.Rect2F;
 import io.github.jevaengine.math.Vector2D;
 import io.github.jevaengine.math.Vector2F;
 import io.github.jevaengine.math.Vector3D;
 import io.github.jevaengine.math.Vector3F;
 import io.github.jevaengine.util.Nullable;
 import io.github.jevaengine.world.entity.IEntity;
+import io.github.jevaengine.world.scene.ISceneBatch;
 import io.github.jevaengine.world.scene.ISceneBuffer;
+import io.github.jevaengine.world.scene.StaticLayer;
 import io.github.jevaengine.world.scene.model.IImmutableSceneModel;
 import io.github.jevaengine.world.scene.model.IImmutableSceneModel.ISceneModelComponent;
 
@@ -96,6 +99,25 @@ public final class PaintersIsometricSceneBuffer implements ISceneBuffer
 		addModel(model, null, location);
 	}
 
+	@Override
+	public void addStaticLayer(StaticLayer layer, Rect2F renderBounds)
+	{
+		layer.enqueue(this, renderBounds);
+	}
+	
+	@Override
+	public ISceneBatch createBatch()
+	{
+		return new SceneBatch();
+	}
+	
+	@Override
+	public void addBatch(ISceneBatch batch)
+	{
+		for(SceneBatchEntry e : ((SceneBatch)batch).m_entries)
+			addModel(e.model, e.dispatcher, e.location);
+	}
+
 	public void reset()
 	{
 		m_translation = new Vector2D();
@@ -138,6 +160,47 @@ public final class PaintersIsometricSceneBuffer implements ISceneBuffer
 		return null;
 	}
 	
+	//Batches only record their models, the render queue is not safe to fill concurrently.
+	private static final class SceneBatch implements ISceneBatch
+	{
+		private final ArrayList<SceneBatchEntry> m_entries = new ArrayList<>();
+		
+		@Override
+		public void addModel(IImmutableSceneModel model, @Nullable IEntity dispatcher, Vector3F location)
+		{
+			m_entries.add(new SceneBatchEntry(model, dispatcher, location));
+		}
+		
+		@Override
+		public void addModel(IImmutableSceneModel model, Vector3F location)
+		{
+			addModel(model, null, location);
+		}
+		
+		@Override
+		public void addStaticLayer(StaticLayer layer, Rect2F renderBounds)
+		{
+			layer.enqueue(this, renderBounds);
+		}
+	}
+	
+	private static final class SceneBatchEntry
+	{
+		private final IImmutableSceneModel model;
+		
+		@Nullable
+		private final IEntity dispatcher;
+		
+		private final Vector3F location;
+		
+		public SceneBatchEntry(IImmutableSceneModel _model, @Nullable IEntity _dispatcher, Vector3F _location)
+		{
+			model = _model;
+			dispatcher = _dispatcher;
+			location = _location;
+		}
+	}
+	
 	private final class SceneGraphicEntry
 	{
 		private ISceneModelComponent graphic;
@@ -0,0 +1,398 @@
+package io.github.jevaengine.world.scene.isometric;
+
+import io.github.jevaengine.math.Matrix3X3;
+import io.github.jevaengine.math.Rect2D;
+import io.github.jevaengine.math.Rect3F;
+import io.github.jevaengine.math.Vector3F;
+import io.github.jevaengine.world.scene.model.IImmutableSceneModel;
+import io.github.jevaengine.world.scene.model.IImmutableSceneModel.ISceneModelComponent;
+import io.github.jevaengine.world.scene.model.ISceneModel;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/*
+ * Compares the time taken per frame to sort and render a scene with TopologicalIsometricSceneBuffer, against the sort it
+ * replaced, which tested every component against every other on a pool of threads and ordered them recursively. Scenes
+ * are a floor of tiles, with static pillars over 15% and moving agents over 5% of their components. Every frame the
+ * agents move, and the buffer is reset, filled with the whole scene and rendered. Components draw nothing, such that
+ * only sorting and iteration are timed.
+ */
+public final class SceneSortBenchmark
+{
+	private static final int[] SCENE_SIZES = {1000, 5000, 20000};
+
+	private static final int TILE_WIDTH = 64;
+	private static final int TILE_HEIGHT = 32;
+
+	private static final int WARMUP_FRAMES = 2;
+	private static final int FRAMES = 20;
+
+	//The replaced sort takes seconds per frame on the largest scenes, so fewer of its frames are timed beyond this size.
+	private static final int LARGE_SCENE_SIZE = 20000;
+	private static final int LARGE_SCENE_LEGACY_FRAMES = 3;
+
+	private SceneSortBenchmark() { }
+
+	public static void main(String[] args)
+	{
+		Graphics2D g = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+
+		System.out.println(String.format("%-12s %16s %16s", "Components", "Legacy ms/frame", "Current ms/frame"));
+
+		for(int size : SCENE_SIZES)
+		{
+			Scene legacyScene = new Scene(size);
+			Scene currentScene = new Scene(size);
+
+			int legacyFrames = size >= LARGE_SCENE_SIZE ? LARGE_SCENE_LEGACY_FRAMES : FRAMES;
+
+			double legacyTime = timeLegacy(legacyScene, legacyFrames, g);
+			double currentTime = timeCurrent(currentScene, FRAMES, g);
+
+			System.out.println(String.format("%-12d %16.2f %16.2f", size, legacyTime, currentTime));
+		}
+
+		g.dispose();
+	}
+
+	//Returns the average time, in milliseconds, taken per frame.
+	private static double timeLegacy(Scene scene, int frames, Graphics2D g)
+	{
+		LegacySceneSort sort = new LegacySceneSort(TILE_WIDTH, TILE_HEIGHT);
+		long elapsed = 0;
+
+		try
+		{
+			for(int i = 0; i < WARMUP_FRAMES + frames; i++)
+			{
+				scene.step();
+				long start = System.nanoTime();
+
+				sort.reset();
+
+				for(int c = 0; c < scene.size(); c++)
+					sort.add(scene.getModel(c), scene.getLocation(c));
+
+				sort.render(g);
+
+				if(i >= WARMUP_FRAMES)
+					elapsed += System.nanoTime() - start;
+			}
+		} finally
+		{
+			sort.dispose();
+		}
+
+		return elapsed / 1000000.0 / frames;
+	}
+
+	private static double timeCurrent(Scene scene, int frames, Graphics2D g)
+	{
+		TopologicalIsometricSceneBuffer buffer = new TopologicalIsometricSceneBuffer(TILE_WIDTH, TILE_HEIGHT);
+		long elapsed = 0;
+
+		for(int i = 0; i < WARMUP_FRAMES + frames; i++)
+		{
+			scene.step();
+			long start = System.nanoTime();
+
+			buffer.reset();
+
+			for(int c = 0; c < scene.size(); c++)
+				buffer.addModel(scene.getModel(c), scene.getLocation(c));
+
+			buffer.render(g, 0, 0, 1.0F);
+
+			if(i >= WARMUP_FRAMES)
+				elapsed += System.nanoTime() - start;
+		}
+
+		return elapsed / 1000000.0 / frames;
+	}
+
+	private static final class Scene
+	{
+		private static final float PILLAR_SHARE = 0.15F;
+		private static final float AGENT_SHARE = 0.05F;
+
+		private final ArrayList<IImmutableSceneModel> m_models = new ArrayList<>();
+		private final ArrayList<Vector3F> m_locations = new ArrayList<>();
+		private final int m_firstAgent;
+
+		public Scene(int size)
+		{
+			Random random = new Random(0);
+			int side = (int)Math.sqrt(size * (1.0F - PILLAR_SHARE - AGENT_SHARE));
+
+			//Every tile shares a model, as the tiles of a world's artifact planes do.
+			IImmutableSceneModel tile = new BenchmarkModel(new Rect3F(0, 0, 0, 1, 1, 0.1F));
+
+			for(int x = 0; x < side; x++)
+			{
+				for(int y = 0; y < side; y++)
+					add(tile, new Vector3F(x, y, 0));
+			}
+
+			while(m_models.size() < size * (1.0F - AGENT_SHARE))
+				add(new BenchmarkModel(new Rect3F(0, 0, 0, 1, 1, 2)), new Vector3F(random.nextInt(side), random.nextInt(side), 0.1F));
+
+			m_firstAgent = m_models.size();
+
+			while(m_models.size() < size)
+				add(new BenchmarkModel(new Rect3F(0, 0, 0, 0.5F, 0.5F, 1.5F)), new Vector3F(random.nextFloat() * side, random.nextFloat() * side, 0.1F));
+		}
+
+		private void add(IImmutableSceneModel model, Vector3F location)
+		{
+			m_models.add(model);
+			m_locations.add(location);
+		}
+
+		public void step()
+		{
+			for(int i = m_firstAgent; i < m_locations.size(); i++)
+				m_locations.set(i, m_locations.get(i).add(new Vector3F(0.05F, 0.03F, 0)));
+		}
+
+		public int size()
+		{
+			return m_models.size();
+		}
+
+		public IImmutableSceneModel getModel(int index)
+		{
+			return m_models.get(index);
+		}
+
+		public Vector3F getLocation(int index)
+		{
+			return m_locations.get(index);
+		}
+	}
+
+	private static final class BenchmarkModel implements IImmutableSceneModel
+	{
+		private final List<ISceneModelComponent> m_components;
+		private final Rect3F m_bounds;
+
+		public BenchmarkModel(Rect3F bounds)
+		{
+			m_bounds = bounds;
+			m_components = Arrays.<ISceneModelComponent>asList(new BenchmarkComponent(bounds));
+		}
+
+		@Override
+		public ISceneModel clone()
+		{
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public List<ISceneModelComponent> getComponents()
+		{
+			return m_components;
+		}
+
+		@Override
+		public Rect3F getAABB()
+		{
+			return new Rect3F(m_bounds);
+		}
+
+		@Override
+		public void addObserver(ISceneModelObserver o) { }
+
+		@Override
+		public void removeObserver(ISceneModelObserver o) { }
+
+		@Override
+		public void update(int delta) { }
+	}
+
+	private static final class BenchmarkComponent implements ISceneModelComponent
+	{
+		private final Rect3F m_bounds;
+
+		public BenchmarkComponent(Rect3F bounds)
+		{
+			m_bounds = bounds;
+		}
+
+		@Override
+		public void render(Graphics2D g, int x, int y, float scale) { }
+
+		@Override
+		public boolean testPick(int x, int y, float scale)
+		{
+			return false;
+		}
+
+		@Override
+		public Rect3F getBounds()
+		{
+			return new Rect3F(m_bounds);
+		}
+	}
+
+	//The sort TopologicalIsometricSceneBuffer performed before it found overlapping pairs through a screen space grid.
+	private static final class LegacySceneSort
+	{
+		private static final int NUM_CONCURRENT_SORTS = Runtime.getRuntime().availableProcessors();
+
+		private final ExecutorService m_exector = Executors.newFixedThreadPool(NUM_CONCURRENT_SORTS, new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r);
+				t.setDaemon(true);
+				return t;
+			}
+		});
+
+		private final Matrix3X3 m_worldToScreenMatrix;
+
+		private final LinkedList<Vertex> m_unsortedVertices = new LinkedList<>();
+		private final LinkedList<Vertex> m_sortedVertices = new LinkedList<>();
+
+		private final ConcurrentLinkedQueue<Vertex> m_dependencyMappingWorkQueue = new ConcurrentLinkedQueue<>();
+		private final List<DependencyConstructRoutine> m_dependenyConstructRoutines = new ArrayList<>();
+
+		public LegacySceneSort(int tileWidth, int tileHeight)
+		{
+			m_worldToScreenMatrix = new Matrix3X3(tileWidth / 2.0F, -tileWidth / 2.0F, 0,
+												  tileHeight / 2.0F, tileHeight / 2.0F, -tileHeight,
+												  0, 0, 1);
+
+			for(int i = 0; i < NUM_CONCURRENT_SORTS; i++)
+				m_dependenyConstructRoutines.add(new DependencyConstructRoutine(m_dependencyMappingWorkQueue, m_unsortedVertices));
+		}
+
+		public void dispose()
+		{
+			m_exector.shutdown();
+		}
+
+		public void reset()
+		{
+			m_unsortedVertices.clear();
+			m_sortedVertices.clear();
+		}
+
+		public void add(IImmutableSceneModel model, Vector3F location)
+		{
+			for(ISceneModelComponent c : model.getComponents())
+				m_unsortedVertices.add(new Vertex(c, location, m_worldToScreenMatrix));
+		}
+
+		private void visit(Vertex v)
+		{
+			if(v.m_wasVisited)
+				return;
+
+			v.m_wasVisited = true;
+
+			while(!v.m_ins.isEmpty())
+				visit(v.m_ins.remove(0));
+
+			m_sortedVertices.add(v);
+		}
+
+		public void render(Graphics2D g)
+		{
+			m_dependencyMappingWorkQueue.addAll(m_unsortedVertices);
+
+			try
+			{
+				m_exector.invokeAll(m_dependenyConstructRoutines);
+			} catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				return;
+			}
+
+			for(Vertex v : m_unsortedVertices)
+			{
+				visit(v);
+				v.m_ins.clear();
+			}
+
+			m_unsortedVertices.clear();
+
+			for(Vertex v : m_sortedVertices)
+				v.m_graphic.render(g, 0, 0, 1.0F);
+		}
+
+		private static final class DependencyConstructRoutine implements Callable<Void>
+		{
+			private final Queue<Vertex> m_subjectQueue;
+			private final List<Vertex> m_otherSet;
+
+			public DependencyConstructRoutine(Queue<Vertex> subjectQueue, List<Vertex> otherSet)
+			{
+				m_subjectQueue = subjectQueue;
+				m_otherSet = otherSet;
+			}
+
+			private static boolean isBehind(Rect3F a, Rect3F b)
+			{
+				Vector3F bMax = b.max();
+				Vector3F aMin = a.min();
+
+				return (aMin.x - bMax.x < 0 && aMin.y - bMax.y < 0 && aMin.z - bMax.z < 0);
+			}
+
+			@Override
+			public Void call() throws Exception
+			{
+				for(Vertex subject; (subject = m_subjectQueue.poll()) != null;)
+				{
+					subject.m_wasVisited = false;
+
+					for(Vertex other : m_otherSet)
+					{
+						if(!subject.m_projectedAABB.intersects(other.m_projectedAABB) || subject == other)
+							continue;
+
+						if(isBehind(other.m_bounds, subject.m_bounds))
+							subject.m_ins.add(other);
+					}
+				}
+
+				return null;
+			}
+		}
+
+		private static final class Vertex
+		{
+			private final ISceneModelComponent m_graphic;
+			private final Rect3F m_bounds;
+			private final Rect2D m_projectedAABB;
+
+			private boolean m_wasVisited = false;
+			private final ArrayList<Vertex> m_ins = new ArrayList<>();
+
+			public Vertex(ISceneModelComponent graphic, Vector3F location, Matrix3X3 projectionMatrix)
+			{
+				m_graphic = graphic;
+				m_bounds = new Rect3F(graphic.getBounds()).add(location);
+
+				m_projectedAABB = new Rect2D();
+				m_projectedAABB.x = (int)projectionMatrix.dot(m_bounds.getPoint(0, 1.0F, 0)).x;
+				m_projectedAABB.y = (int)projectionMatrix.dot(m_bounds.getPoint(0, 0, 1)).y;
+				m_projectedAABB.width = (int)projectionMatrix.dot(m_bounds.getPoint(1, 0, 1)).x - m_projectedAABB.x;
+				m_projectedAABB.height = (int)projectionMatrix.dot(m_bounds.getPoint(1, 1, 0)).y - m_projectedAABB.y;
+			}
+		}
+	}
+}
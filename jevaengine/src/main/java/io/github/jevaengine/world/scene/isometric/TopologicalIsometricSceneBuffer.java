@@ -2,66 +2,97 @@ package io.github.jevaengine.world.scene.isometric;
 
 import io.github.jevaengine.math.Matrix3X3;
 import io.github.jevaengine.math.Rect2D;
+import io.github.jevaengine.math.Rect2F;
 import io.github.jevaengine.math.Rect3F;
 import io.github.jevaengine.math.Vector2D;
 import io.github.jevaengine.math.Vector2F;
 import io.github.jevaengine.math.Vector3D;
 import io.github.jevaengine.math.Vector3F;
+import io.github.jevaengine.util.LongHashMap;
 import io.github.jevaengine.util.Nullable;
+import io.github.jevaengine.util.ProfileSection;
+import io.github.jevaengine.util.Profiler;
 import io.github.jevaengine.world.entity.IEntity;
+import io.github.jevaengine.world.scene.ISceneBatch;
 import io.github.jevaengine.world.scene.ISceneBuffer;
+import io.github.jevaengine.world.scene.StaticLayer;
 import io.github.jevaengine.world.scene.model.IImmutableSceneModel;
 import io.github.jevaengine.world.scene.model.IImmutableSceneModel.ISceneModelComponent;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
-import java.util.Queue;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
 
+/*
+ * Orders scene components by the dependencies between those whose projections overlap. Overlapping pairs are found
+ * through a screen space grid rather than by testing every pair of components, and the vertices of components that
+ * are added again unchanged (same component, dispatcher and bounds) since the last sort are retained along with their
+ * dependencies. Only pairs involving a new or moved component are tested each frame, and a frame of unchanged
+ * components is ordered without allocating.
+ *
+ * Optionally, static layers are baked into one image per layer, drawn with a single call and rebuilt only when the
+ * layer is replaced or the scale it is drawn at changes. Baked layers are drawn behind everything resting on or above
+ * their plane. The models of a baked layer are captured when it is baked, so baking suits layers of unanimated tiles.
+ */
 public final class TopologicalIsometricSceneBuffer implements ISceneBuffer
 {
-	private static final int NUM_CONCURRENT_SORTS = Runtime.getRuntime().availableProcessors();
+	//Frames a baked layer is kept for after it was last added.
+	private static final int BAKED_LAYER_RETENTION = 120;
 	
-	private final ExecutorService m_exector = Executors.newFixedThreadPool(NUM_CONCURRENT_SORTS, new ThreadFactory() {
-		@Override
-		public Thread newThread(Runnable r) {
-			Thread t = new Thread(r);
-			t.setDaemon(true);
-			return t;
-		}
-	});
+	private static final ProfileSection PROFILE_SORT = Profiler.getSection("TopologicalIsometricSceneBuffer.sort");
+	private static final ProfileSection PROFILE_RENDER = Profiler.getSection("TopologicalIsometricSceneBuffer.render");
 	
 	private final boolean m_debugDraw;
+	private final boolean m_bakeStaticLayers;
+	
+	private final int m_tileWidth;
+	private final int m_tileHeight;
 	
 	private boolean m_isTopologicalSortDirty = false;
 	private final Matrix3X3 m_worldToScreenMatrix;
 	
 	private Vector2D m_translation = new Vector2D();
 
-	private final LinkedList<Vertex> m_unsortedVertices = new LinkedList<>();
-	private final LinkedList<Vertex> m_sortedVertices = new LinkedList<>();
+	private final ArrayList<Vertex> m_vertices = new ArrayList<>();
+	private final ArrayList<Vertex> m_sortedVertices = new ArrayList<>();
+	private final ArrayList<Vertex> m_visitStack = new ArrayList<>();
 	
-	private final ConcurrentLinkedQueue<Vertex> m_dependencyMappingWorkQueue = new ConcurrentLinkedQueue<>();
+	//Vertices of the last sorted frame, by component and location, which may be retained by the frame being built.
+	private final HashMap<VertexKey, Vertex> m_retainedVertices = new HashMap<>();
+	private final VertexKey m_probeKey = new VertexKey();
 	
-	private final List<DependencyConstructRoutine> m_dependenyConstructRoutines = new ArrayList<>();
+	private final HashMap<StaticLayer, BakedLayer> m_bakedLayers = new HashMap<>();
 	
-	public TopologicalIsometricSceneBuffer(int tileWidth, int tileHeight, boolean debugDraw)
+	//Batches handed out since the last reset are the first m_batchCount, the rest are kept for reuse.
+	private final ArrayList<ProjectedBatch> m_batches = new ArrayList<>();
+	private int m_batchCount = 0;
+	
+	private final ScreenGrid m_grid;
+	
+	private int m_frame = 1;
+	private int m_stamp = 0;
+	
+	public TopologicalIsometricSceneBuffer(int tileWidth, int tileHeight, boolean debugDraw, boolean bakeStaticLayers)
 	{
 		m_debugDraw = debugDraw;
+		m_bakeStaticLayers = bakeStaticLayers;
+		m_tileWidth = tileWidth;
+		m_tileHeight = tileHeight;
 		m_worldToScreenMatrix = new Matrix3X3(tileWidth / 2.0F, -tileWidth / 2.0F, 0,
 											  tileHeight / 2.0F, tileHeight / 2.0F, -tileHeight,
 											  0, 0, 1);
 		
-		for(int i = 0; i < NUM_CONCURRENT_SORTS; i++)
-			m_dependenyConstructRoutines.add(new DependencyConstructRoutine(m_dependencyMappingWorkQueue, m_unsortedVertices));
+		m_grid = new ScreenGrid(tileWidth * 2, tileHeight * 2);
+	}
+	
+	public TopologicalIsometricSceneBuffer(int tileWidth, int tileHeight, boolean debugDraw)
+	{
+		this(tileWidth, tileHeight, debugDraw, false);
 	}
 	
 	public TopologicalIsometricSceneBuffer(int tileWidth, int tileHeight)
@@ -75,59 +106,199 @@ public final class TopologicalIsometricSceneBuffer implements ISceneBuffer
 		m_translation = m_translation.add(translation);
 	}
 	
-	private void visit(Vertex v)
+	//Rounds as Vector3F.round does, without allocating.
+	private static int round(float f)
 	{
-		if(v.wasVisited())
-			return;
+		return (int) (Math.round(Math.abs(f)) * Math.signum(f));
+	}
+	
+	private static boolean isBehind(Rect3F a, Rect3F b)
+	{
+		Vector3F bMax = b.max();
+		Vector3F aMin = a.min();
 		
-		v.markVisited();
+		return (aMin.x - bMax.x < 0 && aMin.y - bMax.y < 0 && aMin.z - bMax.z < 0);
+	}
+	
+	//Baked layers are flat, they are behind whatever rests on or above their plane and in front of what lies below it.
+	private static boolean isBehind(SceneGraphicEntry a, SceneGraphicEntry b)
+	{
+		boolean isLayerA = a.graphic instanceof BakedLayer;
+		boolean isLayerB = b.graphic instanceof BakedLayer;
+		
+		if(isLayerA && isLayerB)
+			return a.bounds.z < b.bounds.z;
+		else if(isLayerA)
+			return a.bounds.z <= b.bounds.z;
+		else if(isLayerB)
+			return a.bounds.z < b.bounds.z;
+		else
+			return isBehind(a.bounds, b.bounds);
+	}
+	
+	private static void connect(Vertex a, Vertex b)
+	{
+		if(!a.m_entry.projectedAABB.intersects(b.m_entry.projectedAABB))
+			return;
 		
-		while(v.hasIns())
-			visit(v.removeIn());
+		//If other is behind me, that I be be reached to from it.
+		if(isBehind(a.m_entry, b.m_entry))
+			b.m_behind.add(a);
 		
-		m_sortedVertices.add(v);
+		if(isBehind(b.m_entry, a.m_entry))
+			a.m_behind.add(b);
 	}
 	
-	private void sort()
+	private void constructDependencies()
 	{
-		if(!m_isTopologicalSortDirty)
-			return;
+		boolean hasChanged = false;
 		
-		//Move all sorted entries back into unsorted queue since they must be resorted with the new entries.
-		m_unsortedVertices.addAll(m_sortedVertices);
-		m_sortedVertices.clear();
+		for(int i = 0; i < m_vertices.size(); i++)
+		{
+			Vertex v = m_vertices.get(i);
+			v.m_index = i;
+			
+			if(!v.m_isRetained)
+			{
+				hasChanged = true;
+				continue;
+			}
+			
+			//Dependencies on vertices that were not retained by this frame are dropped, the rest are unchanged.
+			ArrayList<Vertex> behind = v.m_behind;
+			int retainedCount = 0;
+			
+			for(int j = 0; j < behind.size(); j++)
+			{
+				Vertex b = behind.get(j);
+				
+				if(b.m_frame == m_frame)
+					behind.set(retainedCount++, b);
+			}
+			
+			while(behind.size() > retainedCount)
+				behind.remove(behind.size() - 1);
+		}
 		
-		m_dependencyMappingWorkQueue.clear();
-		m_dependencyMappingWorkQueue.addAll(m_unsortedVertices);
+		if(hasChanged)
+		{
+			m_grid.clear();
+			
+			for(Vertex v : m_vertices)
+				m_grid.add(v);
+			
+			//Every pair with at least one new or moved vertex is tested once, from the side of its changed vertex.
+			for(Vertex v : m_vertices)
+			{
+				if(v.m_isRetained)
+					continue;
+				
+				int stamp = ++m_stamp;
+				
+				for(Vertex other : m_grid.query(v.m_entry.projectedAABB, stamp))
+				{
+					if(other != v && (other.m_isRetained || other.m_index > v.m_index))
+						connect(v, other);
+				}
+			}
+			
+			for(Vertex v : m_vertices)
+			{
+				if(!v.m_isRetained)
+					m_retainedVertices.put(v.m_key, v);
+			}
+		}
 		
-		try
+		//Vertices of earlier frames that this frame did not retain are forgotten.
+		if(hasChanged || m_retainedVertices.size() != m_vertices.size())
 		{
-			m_exector.invokeAll(m_dependenyConstructRoutines);
-		} catch (InterruptedException e) {
-			//We've been interrupted. Cancel the sort and return early. This would result in
-			//the scene being empty for the present operation that required the scene be sorted.
-			//Not a big deal considering how frequently frames are generated.
-			Thread.currentThread().interrupt();
-			return;
+			for(Iterator<Vertex> it = m_retainedVertices.values().iterator(); it.hasNext();)
+			{
+				if(it.next().m_frame != m_frame)
+					it.remove();
+			}
 		}
 		
-		for(Vertex v; (v = m_unsortedVertices.poll()) != null;)
+		//Vertices are retainable only by the frame after the one they were last sorted in.
+		for(Vertex v : m_vertices)
+			v.m_isRetained = true;
+	}
+	
+	//Iterative depth first traversal, emitting every vertex after those behind it.
+	private void visit(Vertex root, ArrayList<Vertex> stack, int stamp)
+	{
+		if(root.m_visitStamp == stamp)
+			return;
+		
+		root.m_visitStamp = stamp;
+		root.m_nextBehind = 0;
+		stack.add(root);
+		
+		while(!stack.isEmpty())
 		{
-			visit(v);
-			v.clearIns();
+			Vertex v = stack.get(stack.size() - 1);
+			
+			if(v.m_nextBehind < v.m_behind.size())
+			{
+				Vertex behind = v.m_behind.get(v.m_nextBehind++);
+				
+				if(behind.m_visitStamp != stamp)
+				{
+					behind.m_visitStamp = stamp;
+					behind.m_nextBehind = 0;
+					stack.add(behind);
+				}
+			} else
+			{
+				stack.remove(stack.size() - 1);
+				m_sortedVertices.add(v);
+			}
 		}
+	}
+	
+	private void sort()
+	{
+		if(!m_isTopologicalSortDirty)
+			return;
+		
+		long profileStart = PROFILE_SORT.begin();
+		
+		constructDependencies();
+		
+		m_sortedVertices.clear();
+		
+		int stamp = ++m_stamp;
+		
+		for(Vertex v : m_vertices)
+			visit(v, m_visitStack, stamp);
 		
-		m_unsortedVertices.clear();
 		m_isTopologicalSortDirty = false;
+		
+		PROFILE_SORT.end(profileStart);
 	}
 	
 	@Override
 	public void addModel(IImmutableSceneModel model, @Nullable IEntity dispatcher, Vector3F location)
+	{
+		for(ISceneModelComponent c : model.getComponents())
+			addComponent(c, dispatcher, c.getBounds(), location);
+	}
+	
+	private void addComponent(ISceneModelComponent c, @Nullable IEntity dispatcher, Rect3F bounds, Vector3F location)
 	{
 		m_isTopologicalSortDirty = true;
 		
-		for(ISceneModelComponent c : model.getComponents())
-			m_unsortedVertices.add(new Vertex(new SceneGraphicEntry(dispatcher, c, location, m_worldToScreenMatrix)));
+		Vertex v = m_retainedVertices.get(m_probeKey.set(c, location));
+		
+		if(v != null && v.m_frame != m_frame && v.m_entry.isEquivalent(dispatcher, bounds, location))
+			v.m_frame = m_frame;
+		else
+		{
+			v = new Vertex(new SceneGraphicEntry(dispatcher, c, bounds, location, m_worldToScreenMatrix));
+			v.m_frame = m_frame;
+		}
+		
+		m_vertices.add(v);
 	}
 
 	@Override
@@ -136,11 +307,82 @@ public final class TopologicalIsometricSceneBuffer implements ISceneBuffer
 		addModel(model, null, location);
 	}
 
+	@Override
+	public ISceneBatch createBatch()
+	{
+		if(m_batchCount == m_batches.size())
+			m_batches.add(new ProjectedBatch());
+		
+		ProjectedBatch batch = m_batches.get(m_batchCount++);
+		batch.clear();
+		
+		return batch;
+	}
+	
+	@Override
+	public void addBatch(ISceneBatch batch)
+	{
+		ProjectedBatch projectedBatch = (ProjectedBatch)batch;
+		
+		for(Vertex v : projectedBatch.m_vertices)
+		{
+			m_isTopologicalSortDirty = true;
+			
+			//Batches may only claim retained vertices here, a vertex added twice is retained by its first addition.
+			if(v.m_isRetained && v.m_frame == m_frame)
+			{
+				SceneGraphicEntry e = v.m_entry;
+				v = new Vertex(new SceneGraphicEntry(e.dispatcher, e.graphic, e.localBounds, e.location, m_worldToScreenMatrix));
+			}
+			
+			v.m_frame = m_frame;
+			m_vertices.add(v);
+		}
+		
+		for(StaticLayer layer : projectedBatch.m_layers)
+			addBakedLayer(layer);
+	}
+	
+	@Override
+	public void addStaticLayer(StaticLayer layer, Rect2F renderBounds)
+	{
+		if(m_bakeStaticLayers)
+			addBakedLayer(layer);
+		else
+			layer.enqueue(this, renderBounds);
+	}
+	
+	private void addBakedLayer(StaticLayer layer)
+	{
+		BakedLayer baked = m_bakedLayers.get(layer);
+		
+		if(baked == null)
+		{
+			baked = new BakedLayer(layer);
+			m_bakedLayers.put(layer, baked);
+		}
+		
+		baked.m_lastFrame = m_frame;
+		addComponent(baked, null, baked.m_localBounds, baked.m_origin);
+	}
+
 	@Override
 	public void reset()
 	{
+		if(!m_bakedLayers.isEmpty())
+		{
+			for(Iterator<BakedLayer> it = m_bakedLayers.values().iterator(); it.hasNext();)
+			{
+				if(m_frame - it.next().m_lastFrame > BAKED_LAYER_RETENTION)
+					it.remove();
+			}
+		}
+		
+		//Vertices added by a frame that was never sorted are not retained, the last sorted frame's vertices are kept instead.
+		m_frame++;
+		m_batchCount = 0;
 		m_isTopologicalSortDirty = false;
-		m_unsortedVertices.clear();
+		m_vertices.clear();
 		m_sortedVertices.clear();
 		m_translation = new Vector2D();
 	}
@@ -220,13 +462,21 @@ public final class TopologicalIsometricSceneBuffer implements ISceneBuffer
 	public void render(Graphics2D g, int offsetX, int offsetY, float scale)
 	{
 		sort();
+		
+		long profileStart = PROFILE_RENDER.begin();
+		
 		for (Vertex v : m_sortedVertices)
 		{	
-			Vector2D renderLocation = translateWorldToScreen(v.m_entry.location);
+			Vector3F screenLocation = v.m_entry.screenLocation;
+			int x = round(screenLocation.x + m_translation.x);
+			int y = round(screenLocation.y + m_translation.y);
+			
 			debugDrawBack(g, offsetX, offsetY, scale, v.m_entry.bounds);
-			v.m_entry.graphic.render(g, renderLocation.x + offsetX, renderLocation.y + offsetY, scale);
+			v.m_entry.graphic.render(g, x + offsetX, y + offsetY, scale);
 			debugDrawFront(g, offsetX, offsetY, scale, v.m_entry.bounds);
 		}
+		
+		PROFILE_RENDER.end(profileStart);
 	}
 	
 	@SuppressWarnings("unchecked")
@@ -244,6 +494,16 @@ public final class TopologicalIsometricSceneBuffer implements ISceneBuffer
 		{
 			SceneGraphicEntry entry = it.previous().m_entry;
 			
+			if(entry.graphic instanceof BakedLayer)
+			{
+				T picked = ((BakedLayer)entry.graphic).pick(clazz, x, y, scale);
+				
+				if(picked != null)
+					return picked;
+				
+				continue;
+			}
+			
 			Vector2D renderLocation = translateWorldToScreen(entry.location, scale);
 			Vector2D relativePick = new Vector2D(x - renderLocation.x, y - renderLocation.y);
 			
@@ -258,47 +518,6 @@ public final class TopologicalIsometricSceneBuffer implements ISceneBuffer
 		return null;
 	}
 	
-	private static final class DependencyConstructRoutine implements Callable<Void>
-	{
-		private final Queue<Vertex> m_subjectQueue;
-		private final List<Vertex> m_otherSet;
-		
-		public DependencyConstructRoutine(Queue<Vertex> subjectQueue, List<Vertex> otherSet)
-		{
-			m_subjectQueue = subjectQueue;
-			m_otherSet = otherSet;
-		}
-		
-		private static boolean isBehind(Rect3F a, Rect3F b)
-		{
-			Vector3F bMax = b.max().add(new Vector3F());
-			Vector3F aMin = a.min();
-			
-			return (aMin.x - bMax.x < 0 && aMin.y - bMax.y < 0 && aMin.z - bMax.z < 0);
-		}
-		
-		@Override
-		public Void call() throws Exception
-		{
-			for(Vertex subject; (subject = m_subjectQueue.poll()) != null;)
-			{
-				subject.clearVisit();
-				
-				for(Vertex other : m_otherSet)
-				{
-					if(!subject.m_entry.projectedAABB.intersects(other.m_entry.projectedAABB) || subject == other)
-						continue;
-				
-					//If other is behind me, that I be be reached to from it.
-					if(isBehind(other.m_entry.bounds, subject.m_entry.bounds))
-						subject.inFrom(other);
-				}
-			}
-			
-			return null;
-		}
-	}
-	
 	private static final class SceneGraphicEntry
 	{
 		private ISceneModelComponent graphic;
@@ -311,14 +530,23 @@ public final class TopologicalIsometricSceneBuffer implements ISceneBuffer
 		
 		private Vector3F location;
 		
-		public SceneGraphicEntry(IEntity _dispatcher, ISceneModelComponent _graphic, Vector3F _location, Matrix3X3 projectionMatrix)
+		//Location projected to screen space, before translation.
+		private Vector3F screenLocation;
+		
+		//Bounds of the graphic relative to its location.
+		private Rect3F localBounds;
+		
+		public SceneGraphicEntry(IEntity _dispatcher, ISceneModelComponent _graphic, Rect3F _localBounds, Vector3F _location, Matrix3X3 projectionMatrix)
 		{
 			graphic = _graphic;
 			dispatcher = _dispatcher;
-			bounds = new Rect3F(_graphic.getBounds()).add(_location);
+			localBounds = new Rect3F(_localBounds);
+			bounds = new Rect3F(_localBounds).add(_location);
 			projectedAABB = getProjectedAABB(bounds, projectionMatrix);
 			
 			location = new Vector3F(_location);
+			
+			screenLocation = projectionMatrix.dot(_location);
 		}
 		
 		private static Rect2D getProjectedAABB(Rect3F a, Matrix3X3 projectionMatrix)
@@ -332,59 +560,407 @@ public final class TopologicalIsometricSceneBuffer implements ISceneBuffer
 			
 			return aAABB;
 		}
+		
+		public boolean isEquivalent(@Nullable IEntity _dispatcher, Rect3F _localBounds, Vector3F _location)
+		{
+			return dispatcher == _dispatcher &&
+					location.x == _location.x && location.y == _location.y && location.z == _location.z &&
+					localBounds.x == _localBounds.x && localBounds.y == _localBounds.y && localBounds.z == _localBounds.z &&
+					localBounds.width == _localBounds.width && localBounds.height == _localBounds.height && localBounds.depth == _localBounds.depth;
+		}
+	}
+	
+	private static final class VertexKey
+	{
+		private ISceneModelComponent m_graphic;
+		private float m_x;
+		private float m_y;
+		private float m_z;
+		
+		public VertexKey() { }
+		
+		public VertexKey(ISceneModelComponent graphic, Vector3F location)
+		{
+			set(graphic, location);
+		}
+		
+		//Keys are only mutated to probe the map, never while stored in it.
+		public VertexKey set(ISceneModelComponent graphic, Vector3F location)
+		{
+			m_graphic = graphic;
+			m_x = location.x;
+			m_y = location.y;
+			m_z = location.z;
+			
+			return this;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			final int prime = 31;
+			int result = System.identityHashCode(m_graphic);
+			result = prime * result + Float.floatToIntBits(m_x);
+			result = prime * result + Float.floatToIntBits(m_y);
+			result = prime * result + Float.floatToIntBits(m_z);
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			else if (!(obj instanceof VertexKey))
+				return false;
+			
+			VertexKey other = (VertexKey) obj;
+			
+			return m_graphic == other.m_graphic && m_x == other.m_x && m_y == other.m_y && m_z == other.m_z;
+		}
 	}
 	
 	private static final class Vertex
 	{
-		private SceneGraphicEntry m_entry;
-		private boolean m_wasVisited = false;
-		private final ArrayList<Vertex> m_ins = new ArrayList<>();
+		private final SceneGraphicEntry m_entry;
+		private final VertexKey m_key;
+		
+		//Vertices that must be rendered before this one.
+		private final ArrayList<Vertex> m_behind = new ArrayList<>();
+		
+		private int m_index;
+		
+		//Whether this vertex was sorted in an earlier frame, and so its dependencies constructed.
+		private boolean m_isRetained = false;
+		
+		//Last frame this vertex was added to.
+		private int m_frame = 0;
+		
+		private int m_visitStamp = 0;
+		private int m_nextBehind = 0;
+		private int m_queryStamp = 0;
 		
 		public Vertex(SceneGraphicEntry e)
 		{
 			m_entry = e;
+			m_key = new VertexKey(e.graphic, e.location);
 		}
+	}
+	
+	/*
+	 * Looks up the retained vertices of its components, or projects new ones, on the thread filling it. The retained
+	 * vertices are only read while batches are filled, they are claimed and their dependencies updated by the buffer.
+	 */
+	private final class ProjectedBatch implements ISceneBatch
+	{
+		private final ArrayList<Vertex> m_vertices = new ArrayList<>();
+		private final ArrayList<StaticLayer> m_layers = new ArrayList<>();
+		
+		private final VertexKey m_probeKey = new VertexKey();
 		
-		public void inFrom(Vertex src)
+		private void clear()
 		{
-			m_ins.add(src);
+			m_vertices.clear();
+			m_layers.clear();
 		}
-	
-		public void clearIns()
+		
+		@Override
+		public void addModel(IImmutableSceneModel model, @Nullable IEntity dispatcher, Vector3F location)
 		{
-			m_ins.clear();
+			for(ISceneModelComponent c : model.getComponents())
+			{
+				Rect3F bounds = c.getBounds();
+				Vertex v = m_retainedVertices.get(m_probeKey.set(c, location));
+				
+				if(v == null || !v.m_entry.isEquivalent(dispatcher, bounds, location))
+					v = new Vertex(new SceneGraphicEntry(dispatcher, c, bounds, location, m_worldToScreenMatrix));
+				
+				m_vertices.add(v);
+			}
 		}
 		
-		public void clearVisit()
+		@Override
+		public void addModel(IImmutableSceneModel model, Vector3F location)
 		{
-			m_wasVisited = false;
+			addModel(model, null, location);
 		}
 		
-		public void markVisited()
+		@Override
+		public void addStaticLayer(StaticLayer layer, Rect2F renderBounds)
 		{
-			m_wasVisited = true;
+			if(m_bakeStaticLayers)
+				m_layers.add(layer);
+			else
+				layer.enqueue(this, renderBounds);
+		}
+	}
+	
+	//Static layer drawn from a single image, baked when first drawn and again whenever it is drawn at another scale.
+	private final class BakedLayer implements ISceneModelComponent
+	{
+		private final StaticLayer m_layer;
+		
+		private final Vector3F m_origin;
+		private final Rect3F m_localBounds;
+		
+		@Nullable
+		private BufferedImage m_image;
+		private float m_bakedScale;
+		
+		//Location of the image relative to the projected origin of the layer.
+		private int m_imageX;
+		private int m_imageY;
+		
+		private int m_lastFrame;
+		
+		public BakedLayer(StaticLayer layer)
+		{
+			m_layer = layer;
+			m_origin = layer.getOrigin();
+			
+			float minX = Float.MAX_VALUE;
+			float minY = Float.MAX_VALUE;
+			float maxX = -Float.MAX_VALUE;
+			float maxY = -Float.MAX_VALUE;
+			
+			for(StaticLayer.Entry e : layer.getEntries())
+			{
+				Vector3F location = e.getLocation();
+				
+				for(ISceneModelComponent c : e.getModel().getComponents())
+				{
+					Rect3F bounds = c.getBounds().add(location);
+					minX = Math.min(minX, bounds.x);
+					minY = Math.min(minY, bounds.y);
+					maxX = Math.max(maxX, bounds.x + bounds.width);
+					maxY = Math.max(maxY, bounds.y + bounds.height);
+				}
+			}
+			
+			m_localBounds = minX > maxX ? new Rect3F() : new Rect3F(minX - m_origin.x, minY - m_origin.y, 0, maxX - minX, maxY - minY, 0);
+		}
+		
+		private void bake(float scale)
+		{
+			m_image = null;
+			m_bakedScale = scale;
+			
+			Vector3F projectedOrigin = m_worldToScreenMatrix.dot(m_origin);
+			int originX = round(projectedOrigin.x);
+			int originY = round(projectedOrigin.y);
+			
+			//Graphics are not bounded by their components' bounds, so the image is padded and then trimmed to what was drawn.
+			Rect2D extent = SceneGraphicEntry.getProjectedAABB(new Rect3F(m_localBounds).add(m_origin), m_worldToScreenMatrix);
+			int padX = (int)Math.ceil(m_tileWidth * Math.max(1.0F, scale) * 2);
+			int padY = (int)Math.ceil(m_tileHeight * Math.max(1.0F, scale) * 4);
+			
+			int left = extent.x - originX - padX;
+			int top = extent.y - originY - padY;
+			int width = extent.width + padX * 2;
+			int height = extent.height + padY * 2;
+			
+			if(width <= 0 || height <= 0)
+				return;
+			
+			BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+			Graphics2D g = image.createGraphics();
+			
+			for(StaticLayer.Entry e : m_layer.getEntries())
+			{
+				Vector3F projected = m_worldToScreenMatrix.dot(e.getLocation());
+				int x = round(projected.x) - originX - left;
+				int y = round(projected.y) - originY - top;
+				
+				for(ISceneModelComponent c : e.getModel().getComponents())
+					c.render(g, x, y, scale);
+			}
+			
+			g.dispose();
+			
+			Rect2D drawn = getDrawnBounds(image);
+			
+			if(drawn == null)
+				return;
+			
+			BufferedImage trimmed = new BufferedImage(drawn.width, drawn.height, BufferedImage.TYPE_INT_ARGB);
+			Graphics2D trimmedGraphics = trimmed.createGraphics();
+			trimmedGraphics.drawImage(image, -drawn.x, -drawn.y, null);
+			trimmedGraphics.dispose();
+			
+			m_image = trimmed;
+			m_imageX = left + drawn.x;
+			m_imageY = top + drawn.y;
 		}
 		
-		public boolean wasVisited()
+		@Nullable
+		private Rect2D getDrawnBounds(BufferedImage image)
 		{
-			return m_wasVisited;
+			int width = image.getWidth();
+			int height = image.getHeight();
+			int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+			
+			int minX = width;
+			int minY = height;
+			int maxX = -1;
+			int maxY = -1;
+			
+			for(int y = 0; y < height; y++)
+			{
+				for(int x = 0; x < width; x++)
+				{
+					if((pixels[y * width + x] >>> 24) != 0)
+					{
+						minX = Math.min(minX, x);
+						minY = Math.min(minY, y);
+						maxX = Math.max(maxX, x);
+						maxY = Math.max(maxY, y);
+					}
+				}
+			}
+			
+			return maxX < 0 ? null : new Rect2D(minX, minY, maxX - minX + 1, maxY - minY + 1);
 		}
 		
-		public boolean hasIns()
+		@Override
+		public void render(Graphics2D g, int x, int y, float scale)
 		{
-			return !m_ins.isEmpty();
+			if(m_image == null || scale != m_bakedScale)
+				bake(scale);
+			
+			if(m_image != null)
+				g.drawImage(m_image, x + m_imageX, y + m_imageY, null);
 		}
 		
+		@SuppressWarnings("unchecked")
 		@Nullable
-		public Vertex removeIn()
+		public <T extends IEntity> T pick(Class<T> clazz, int x, int y, float scale)
+		{
+			List<StaticLayer.Entry> entries = m_layer.getEntries();
+			
+			for(int i = entries.size() - 1; i >= 0; i--)
+			{
+				StaticLayer.Entry e = entries.get(i);
+				IEntity dispatcher = e.getDispatcher();
+				
+				if(dispatcher == null || !clazz.isAssignableFrom(dispatcher.getClass()))
+					continue;
+				
+				Vector2D renderLocation = translateWorldToScreen(e.getLocation(), scale);
+				
+				for(ISceneModelComponent c : e.getModel().getComponents())
+				{
+					if(c.testPick(x - renderLocation.x, y - renderLocation.y, scale))
+						return (T)dispatcher;
+				}
+			}
+			
+			return null;
+		}
+		
+		@Override
+		public boolean testPick(int x, int y, float scale)
 		{
-			if(m_ins.isEmpty())
-				return null;
+			return false;
+		}
+		
+		@Override
+		public Rect3F getBounds()
+		{
+			return new Rect3F(m_localBounds);
+		}
+	}
+	
+	//Screen space grid of vertices by their projected bounds, cells are kept between frames to avoid reallocating them.
+	private static final class ScreenGrid
+	{
+		private final int m_cellWidth;
+		private final int m_cellHeight;
+		
+		private final LongHashMap<ArrayList<Vertex>> m_cells = new LongHashMap<>();
+		private final ArrayList<ArrayList<Vertex>> m_occupiedCells = new ArrayList<>();
+		
+		private final ArrayList<Vertex> m_queryResult = new ArrayList<>();
+		
+		public ScreenGrid(int cellWidth, int cellHeight)
+		{
+			m_cellWidth = Math.max(1, cellWidth);
+			m_cellHeight = Math.max(1, cellHeight);
+		}
+		
+		private static int floorDiv(int a, int b)
+		{
+			return a >= 0 ? a / b : -((-a + b - 1) / b);
+		}
+		
+		public void clear()
+		{
+			for(ArrayList<Vertex> cell : m_occupiedCells)
+				cell.clear();
 			
-			Vertex v = m_ins.get(0);
-			m_ins.remove(0);
+			m_occupiedCells.clear();
+		}
+		
+		public void add(Vertex v)
+		{
+			Rect2D bounds = v.m_entry.projectedAABB;
+			
+			int minX = floorDiv(bounds.x, m_cellWidth);
+			int minY = floorDiv(bounds.y, m_cellHeight);
+			int maxX = floorDiv(bounds.x + bounds.width, m_cellWidth);
+			int maxY = floorDiv(bounds.y + bounds.height, m_cellHeight);
+			
+			for(int x = minX; x <= maxX; x++)
+			{
+				for(int y = minY; y <= maxY; y++)
+				{
+					long key = LongHashMap.pack(x, y);
+					ArrayList<Vertex> cell = m_cells.get(key);
+					
+					if(cell == null)
+					{
+						cell = new ArrayList<>();
+						m_cells.put(key, cell);
+					}
+					
+					if(cell.isEmpty())
+						m_occupiedCells.add(cell);
+					
+					cell.add(v);
+				}
+			}
+		}
+		
+		//Vertices sharing a cell with the given bounds, each reported once. The result is reused by the next query.
+		public List<Vertex> query(Rect2D bounds, int stamp)
+		{
+			m_queryResult.clear();
+			
+			int minX = floorDiv(bounds.x, m_cellWidth);
+			int minY = floorDiv(bounds.y, m_cellHeight);
+			int maxX = floorDiv(bounds.x + bounds.width, m_cellWidth);
+			int maxY = floorDiv(bounds.y + bounds.height, m_cellHeight);
+			
+			for(int x = minX; x <= maxX; x++)
+			{
+				for(int y = minY; y <= maxY; y++)
+				{
+					ArrayList<Vertex> cell = m_cells.get(LongHashMap.pack(x, y));
+					
+					if(cell == null)
+						continue;
+					
+					for(Vertex v : cell)
+					{
+						if(v.m_queryStamp != stamp)
+						{
+							v.m_queryStamp = stamp;
+							m_queryResult.add(v);
+						}
+					}
+				}
+			}
 			
-			return v;
+			return m_queryResult;
 		}
 	}
 }
@@ -9,12 +9,19 @@ public final class TopologicalIsometricSceneBufferFactory implements ISceneBuffe
 	private final int m_tileHeight;
 	
 	private final boolean m_debugDraw;
+	private final boolean m_bakeStaticLayers;
 	
-	public TopologicalIsometricSceneBufferFactory(int tileWidth, int tileHeight, boolean debugDraw)
+	public TopologicalIsometricSceneBufferFactory(int tileWidth, int tileHeight, boolean debugDraw, boolean bakeStaticLayers)
 	{
 		m_tileWidth = tileWidth;
 		m_tileHeight = tileHeight;
 		m_debugDraw = debugDraw;
+		m_bakeStaticLayers = bakeStaticLayers;
+	}
+	
+	public TopologicalIsometricSceneBufferFactory(int tileWidth, int tileHeight, boolean debugDraw)
+	{
+		this(tileWidth, tileHeight, debugDraw, false);
 	}
 	
 	public TopologicalIsometricSceneBufferFactory(int tileWidth, int tileHeight)
@@ -25,6 +32,6 @@ public final class TopologicalIsometricSceneBufferFactory implements ISceneBuffe
 	@Override
 	public ISceneBuffer create()
 	{
-		return new TopologicalIsometricSceneBuffer(m_tileWidth, m_tileHeight, m_debugDraw);
+		return new TopologicalIsometricSceneBuffer(m_tileWidth, m_tileHeight, m_debugDraw, m_bakeStaticLayers);
 	}
 }
@@ -0,0 +1,45 @@
+package io.github.jevaengine.world.steering;
+
+import io.github.jevaengine.math.Vector2F;
+import io.github.jevaengine.world.Direction;
+import io.github.jevaengine.world.pathfinding.FlowField;
+import io.github.jevaengine.world.physics.IImmutablePhysicsBody;
+
+public final class FlowFieldBehavior implements ISteeringBehavior
+{
+	private final SeekBehavior m_seekBehavior;
+	private final PointSubject m_seekTarget = new PointSubject(new Vector2F());
+	private final FlowField m_field;
+	private final float m_arrivalTolorance;
+	
+	public FlowFieldBehavior(float influence, FlowField field, float arrivalTolorance)
+	{
+		m_seekBehavior = new SeekBehavior(influence, m_seekTarget);
+		m_field = field;
+		m_arrivalTolorance = arrivalTolorance;
+	}
+	
+	@Override
+	public Vector2F direct(IImmutablePhysicsBody subject, Vector2F currentDirection)
+	{
+		Vector2F location = subject.getLocation().getXy();
+		Vector2F goal = new Vector2F(m_field.getGoal());
+		
+		if(goal.difference(location).getLength() < m_arrivalTolorance)
+			return currentDirection;
+		
+		Direction direction = m_field.getDirection(location);
+		
+		//Subjects that have strayed off of the field cannot be guided.
+		if(direction == null)
+			return currentDirection;
+		
+		//Seek the centre of the next tile rather than following the direction outright, so corners are not clipped.
+		if(direction == Direction.Zero)
+			m_seekTarget.setLocation(goal);
+		else
+			m_seekTarget.setLocation(new Vector2F(location.round().add(direction.getDirectionVector())));
+		
+		return m_seekBehavior.direct(subject, currentDirection);
+	}
+}
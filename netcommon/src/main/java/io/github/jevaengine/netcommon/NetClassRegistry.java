@@ -0,0 +1,76 @@
+package io.github.jevaengine.netcommon;
+
+import io.github.jevaengine.communication.ClassRegistry;
+import io.github.jevaengine.math.Vector2D;
+import io.github.jevaengine.math.Vector2F;
+import io.github.jevaengine.math.Vector3F;
+import io.github.jevaengine.netcommon.certificate.entity.HostWorldAssignment;
+import io.github.jevaengine.netcommon.entity.FlagCleared;
+import io.github.jevaengine.netcommon.entity.FlagSet;
+import io.github.jevaengine.netcommon.entity.InitializeEntity;
+import io.github.jevaengine.netcommon.entity.InitializeFlags;
+import io.github.jevaengine.netcommon.entity.NetEntityIdentifier;
+import io.github.jevaengine.netcommon.user.AuthenticationQuery;
+import io.github.jevaengine.netcommon.user.UserCredentials;
+import io.github.jevaengine.netcommon.user.WorldShareRequestApplication;
+import io.github.jevaengine.netcommon.user.WorldShareRequestApplicationDeclined;
+import io.github.jevaengine.netcommon.world.NetWorldIdentifier;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+/*
+ * Registers the classes exchanged by the server and client. Ids, once assigned, must never be changed or reused, as both
+ * ends must agree on them; new classes take the next free id. Ids up to LAST_ID are reserved for netcommon, registries
+ * extending this one assign theirs after it.
+ */
+public class NetClassRegistry extends ClassRegistry
+{
+	public static final int LAST_ID = 127;
+
+	public NetClassRegistry()
+	{
+		register(32, NetEntityIdentifier.class);
+		register(33, NetWorldIdentifier.class);
+		register(34, Vector3F.class);
+		register(35, Vector2F.class);
+		register(36, Vector2D.class, new Vector2DSerializer());
+
+		register(40, io.github.jevaengine.netcommon.entity.Signal.class);
+		register(41, FlagSet.class);
+		register(42, FlagCleared.class);
+		register(43, InitializeFlags.class);
+		register(44, InitializeEntity.class);
+
+		register(48, io.github.jevaengine.netcommon.world.Signal.class);
+		register(49, io.github.jevaengine.netcommon.world.InitializationArguments.class);
+
+		register(52, io.github.jevaengine.netcommon.user.Signal.class);
+		register(53, UserCredentials.class);
+		register(54, AuthenticationQuery.class);
+		register(55, WorldShareRequestApplication.class);
+		register(56, WorldShareRequestApplicationDeclined.class);
+
+		register(60, io.github.jevaengine.netcommon.certificate.entity.Signal.class);
+		register(61, io.github.jevaengine.netcommon.certificate.entity.InitializationArguments.class);
+		register(62, HostWorldAssignment.class);
+	}
+
+	private static final class Vector2DSerializer extends Serializer<Vector2D>
+	{
+		@Override
+		public void write(Kryo kryo, Output output, Vector2D v)
+		{
+			output.writeInt(v.x, false);
+			output.writeInt(v.y, false);
+		}
+
+		@Override
+		public Vector2D read(Kryo kryo, Input input, Class<Vector2D> type)
+		{
+			return new Vector2D(input.readInt(false), input.readInt(false));
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package io.github.jevaengine.netcommon;
+
+import io.github.jevaengine.math.Vector3F;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+/*
+ * Encodes a vector as the number of 1/PRECISION units along each axis, as variable length integers. Locations within a
+ * few hundred tiles of the origin thereby take three bytes per axis rather than four, and components at zero take one.
+ * The encoding is lossy, and thus only suited to locations in the world; it is used by the messages which carry them
+ * rather than being registered for Vector3F itself.
+ */
+public final class QuantizedVector3FSerializer extends Serializer<Vector3F>
+{
+	public static final float PRECISION = 1024.0F;
+
+	public static void writeVector(Output output, Vector3F v)
+	{
+		output.writeInt(Math.round(v.x * PRECISION), false);
+		output.writeInt(Math.round(v.y * PRECISION), false);
+		output.writeInt(Math.round(v.z * PRECISION), false);
+	}
+
+	public static Vector3F readVector(Input input)
+	{
+		float x = input.readInt(false) / PRECISION;
+		float y = input.readInt(false) / PRECISION;
+		float z = input.readInt(false) / PRECISION;
+
+		return new Vector3F(x, y, z);
+	}
+
+	@Override
+	public void write(Kryo kryo, Output output, Vector3F v)
+	{
+		writeVector(output, v);
+	}
+
+	@Override
+	public Vector3F read(Kryo kryo, Input input, Class<Vector3F> type)
+	{
+		return readVector(input);
+	}
+}
@@ -47,7 +47,10 @@ import io.github.jevaengine.world.entity.NullEntityModelMapping;
 import io.github.jevaengine.world.entity.tasks.MovementTask;
 import io.github.jevaengine.world.entity.tasks.WonderTask;
 import io.github.jevaengine.world.pathfinding.AStarRouteFactory;
+import io.github.jevaengine.world.pathfinding.CachingRouteFactory;
 import io.github.jevaengine.world.pathfinding.DefaultRoutingRules;
+import io.github.jevaengine.world.pathfinding.HierarchicalRouteFactory;
+import io.github.jevaengine.world.pathfinding.IRouteFactory;
 import io.github.jevaengine.world.scene.model.ISceneModelFactory;
 import io.github.jevaengine.world.steering.VelocityLimitSteeringDriverFactory;
 
@@ -56,6 +59,9 @@ import org.slf4j.LoggerFactory;
 
 public final class RpgCharacter extends Actor
 {
+	//Shared so that the abstract sector graphs and cached routes it builds are reused across every character of a world.
+	private static final IRouteFactory MOVEMENT_ROUTE_FACTORY = new CachingRouteFactory(new HierarchicalRouteFactory());
+	
 	private String m_name;
 	private int m_maxHealth;
 	private float m_visibility;
@@ -244,7 +250,7 @@ public final class RpgCharacter extends Actor
 	
 	public void moveTo(Vector3F location, float arrivalTolorance)
 	{
-		getTaskModel().addTask(new MovementTask(new VelocityLimitSteeringDriverFactory(m_speed), new AStarRouteFactory(), new DefaultRoutingRules(Direction.ALL_DIRECTIONS), location.getXy(), arrivalTolorance));
+		getTaskModel().addTask(new MovementTask(new VelocityLimitSteeringDriverFactory(m_speed), MOVEMENT_ROUTE_FACTORY, new DefaultRoutingRules(Direction.ALL_DIRECTIONS), location.getXy(), arrivalTolorance));
 	}
 
 	public void attack(RpgCharacter character, int attackPeriod)
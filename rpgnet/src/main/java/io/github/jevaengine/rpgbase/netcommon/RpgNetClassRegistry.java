@@ -0,0 +1,109 @@
+package io.github.jevaengine.rpgbase.netcommon;
+
+import io.github.jevaengine.math.Vector3F;
+import io.github.jevaengine.netcommon.NetClassRegistry;
+import io.github.jevaengine.netcommon.QuantizedVector3FSerializer;
+import io.github.jevaengine.rpgbase.netcommon.certificate.rpgcharacter.CertificatePermissionLevel;
+import io.github.jevaengine.rpgbase.netcommon.certificate.rpgcharacter.UpdateCertificatePermissionLevel;
+import io.github.jevaengine.rpgbase.netcommon.dialogue.EndDialogue;
+import io.github.jevaengine.rpgbase.netcommon.dialogue.QueryAnswer;
+import io.github.jevaengine.rpgbase.netcommon.dialogue.SubmitAnswer;
+import io.github.jevaengine.rpgbase.netcommon.rpgcharacter.AddInventoryItem;
+import io.github.jevaengine.rpgbase.netcommon.rpgcharacter.Attack;
+import io.github.jevaengine.rpgbase.netcommon.rpgcharacter.EquipItem;
+import io.github.jevaengine.rpgbase.netcommon.rpgcharacter.HealthSet;
+import io.github.jevaengine.rpgbase.netcommon.rpgcharacter.InventoryAction;
+import io.github.jevaengine.rpgbase.netcommon.rpgcharacter.Movement;
+import io.github.jevaengine.rpgbase.netcommon.rpgcharacter.QueryMoveTo;
+import io.github.jevaengine.rpgbase.netcommon.rpgcharacter.RemoveInventoryItem;
+import io.github.jevaengine.rpgbase.netcommon.rpgcharacter.UnequipItem;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+/*
+ * Registers the classes exchanged by the rpg server and client, after those of netcommon. As with NetClassRegistry, ids
+ * must never be changed or reused. Messages sent every tick are given serializers of their own.
+ */
+public class RpgNetClassRegistry extends NetClassRegistry
+{
+	public RpgNetClassRegistry()
+	{
+		register(128, Movement.class, new MovementSerializer());
+		register(129, QueryMoveTo.class, new QueryMoveToSerializer());
+		register(130, HealthSet.class, new HealthSetSerializer());
+		register(131, Attack.class);
+		register(132, InventoryAction.class);
+		register(133, AddInventoryItem.class);
+		register(134, RemoveInventoryItem.class);
+		register(135, EquipItem.class);
+		register(136, UnequipItem.class);
+
+		register(144, io.github.jevaengine.rpgbase.netcommon.dialogue.Signal.class);
+		register(145, QueryAnswer.class);
+		register(146, SubmitAnswer.class);
+		register(147, EndDialogue.class);
+
+		register(152, CertificatePermissionLevel.class);
+		register(153, UpdateCertificatePermissionLevel.class);
+	}
+
+	//Characters are usually at rest at their destination, in which case the destination is not written.
+	private static final class MovementSerializer extends Serializer<Movement>
+	{
+		@Override
+		public void write(Kryo kryo, Output output, Movement movement)
+		{
+			boolean isAtRest = movement.getLocation().equals(movement.getDestination());
+
+			QuantizedVector3FSerializer.writeVector(output, movement.getLocation());
+			output.writeBoolean(isAtRest);
+
+			if (!isAtRest)
+				QuantizedVector3FSerializer.writeVector(output, movement.getDestination());
+		}
+
+		@Override
+		public Movement read(Kryo kryo, Input input, Class<Movement> type)
+		{
+			Vector3F location = QuantizedVector3FSerializer.readVector(input);
+
+			if (input.readBoolean())
+				return new Movement(location);
+			else
+				return new Movement(location, QuantizedVector3FSerializer.readVector(input));
+		}
+	}
+
+	private static final class QueryMoveToSerializer extends Serializer<QueryMoveTo>
+	{
+		@Override
+		public void write(Kryo kryo, Output output, QueryMoveTo query)
+		{
+			QuantizedVector3FSerializer.writeVector(output, query.getDestination());
+		}
+
+		@Override
+		public QueryMoveTo read(Kryo kryo, Input input, Class<QueryMoveTo> type)
+		{
+			return new QueryMoveTo(QuantizedVector3FSerializer.readVector(input));
+		}
+	}
+
+	private static final class HealthSetSerializer extends Serializer<HealthSet>
+	{
+		@Override
+		public void write(Kryo kryo, Output output, HealthSet health)
+		{
+			output.writeInt(health.getHealth(), false);
+		}
+
+		@Override
+		public HealthSet read(Kryo kryo, Input input, Class<HealthSet> type)
+		{
+			return new HealthSet(input.readInt(false));
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package io.github.jevaengine.rpgbase.netcommon;
+
+import io.github.jevaengine.communication.ClassRegistry;
+import io.github.jevaengine.math.Vector3F;
+import io.github.jevaengine.netcommon.entity.FlagCleared;
+import io.github.jevaengine.netcommon.entity.FlagSet;
+import io.github.jevaengine.netcommon.entity.NetEntityIdentifier;
+import io.github.jevaengine.netcommon.user.AuthenticationQuery;
+import io.github.jevaengine.netcommon.user.UserCredentials;
+import io.github.jevaengine.netcommon.user.WorldShareRequestApplication;
+import io.github.jevaengine.netcommon.world.NetWorldIdentifier;
+import io.github.jevaengine.rpgbase.netcommon.certificate.rpgcharacter.CertificatePermissionLevel;
+import io.github.jevaengine.rpgbase.netcommon.certificate.rpgcharacter.UpdateCertificatePermissionLevel;
+import io.github.jevaengine.rpgbase.netcommon.dialogue.EndDialogue;
+import io.github.jevaengine.rpgbase.netcommon.dialogue.QueryAnswer;
+import io.github.jevaengine.rpgbase.netcommon.dialogue.SubmitAnswer;
+import io.github.jevaengine.rpgbase.netcommon.rpgcharacter.Attack;
+import io.github.jevaengine.rpgbase.netcommon.rpgcharacter.EquipItem;
+import io.github.jevaengine.rpgbase.netcommon.rpgcharacter.HealthSet;
+import io.github.jevaengine.rpgbase.netcommon.rpgcharacter.Movement;
+import io.github.jevaengine.rpgbase.netcommon.rpgcharacter.QueryMoveTo;
+import io.github.jevaengine.rpgbase.netcommon.rpgcharacter.RemoveInventoryItem;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Output;
+
+/*
+ * Prints the number of bytes a representative instance of each message takes on the wire, encoded by a Kryo instance
+ * without any registrations, as messages were before class registration, and by one configured by RpgNetClassRegistry.
+ * Sizes are of the message's encoding alone, before any frame compression.
+ */
+public final class WireSizeBenchmark
+{
+	private WireSizeBenchmark() { }
+
+	public static void main(String[] args)
+	{
+		Kryo unregistered = new Kryo(null);
+		Kryo registered = new Kryo(null);
+
+		ClassRegistry registry = new RpgNetClassRegistry();
+		registry.configure(registered);
+
+		Vector3F location = new Vector3F(24.5F, 130.25F, 0);
+
+		Object[] samples = new Object[] {
+			new Movement(location),
+			new Movement(location, new Vector3F(26, 128, 0)),
+			new QueryMoveTo(new Vector3F(26, 128, 0)),
+			new HealthSet(85),
+			new Attack("goblin_3"),
+			new EquipItem("item/sword.jitm"),
+			new RemoveInventoryItem(4),
+			new SubmitAnswer("Yes"),
+			new EndDialogue(),
+			new QueryAnswer(new NetEntityIdentifier("merchant"), new NetEntityIdentifier("player"), "Buy something?", new String[] {"Yes", "No"}),
+			new UpdateCertificatePermissionLevel(CertificatePermissionLevel.Player),
+			io.github.jevaengine.rpgbase.netcommon.dialogue.Signal.EndDialogue,
+			new FlagSet("questStage", 2),
+			new FlagCleared("questStage"),
+			new AuthenticationQuery(new UserCredentials("player")),
+			new WorldShareRequestApplication(new NetWorldIdentifier("world/town.jmp")),
+			io.github.jevaengine.netcommon.user.Signal.Ping,
+		};
+
+		System.out.println(String.format("%-36s %12s %12s", "Message", "Unregistered", "Registered"));
+
+		int unregisteredTotal = 0;
+		int registeredTotal = 0;
+
+		for (Object sample : samples)
+		{
+			int unregisteredSize = measure(unregistered, sample);
+			int registeredSize = measure(registered, sample);
+
+			unregisteredTotal += unregisteredSize;
+			registeredTotal += registeredSize;
+
+			String name = sample.getClass().getSimpleName() + (sample instanceof Enum ? "." + sample : "");
+			System.out.println(String.format("%-36s %12d %12d", name, unregisteredSize, registeredSize));
+		}
+
+		System.out.println(String.format("%-36s %12d %12d", "Total", unregisteredTotal, registeredTotal));
+	}
+
+	private static int measure(Kryo kryo, Object message)
+	{
+		Output output = new Output(64, -1);
+		kryo.writeClassAndObject(output, message);
+
+		return output.position();
+	}
+}
@@ -18,10 +18,11 @@ package io.github.jevaengine.rpgbase.server;
 
 import io.github.jevaengine.Core;
 import io.github.jevaengine.CoreMode;
-import io.github.jevaengine.game.DefaultGame;
 import io.github.jevaengine.rpgbase.server.library.RpgServerLibrary;
 import io.github.jevaengine.script.ScriptExecuteException;
 import io.github.jevaengine.script.rhino.RhinoScript;
+import io.github.jevaengine.server.ServerGameDriver;
+import io.github.jevaengine.util.SynchronousExecutor.ISynchronousTask;
 
 import java.awt.Color;
 import java.awt.Point;
@@ -42,6 +43,8 @@ public class Main
 {
 	private static final int WINX = 800;
 	private static final int WINY = 600;
+	
+	private static final int TICK_RATE = 50;
 
 	/*
 	
@@ -54,7 +57,7 @@ public class Main
 	{	
 		boolean guiMode = Arrays.binarySearch(args,"gui") >= 0;
 		
-		DefaultGame game = new RpgServerGame();
+		RpgServerGame game = new RpgServerGame();
 		Core.initialize(game, new RpgServerLibrary(), guiMode ? CoreMode.Normal : CoreMode.LogicOnly, Executors.newCachedThreadPool());
 		
 		if(guiMode)
@@ -62,19 +65,18 @@ public class Main
 		else
 			game.init();
 
+		ServerGameDriver driver = new ServerGameDriver(game, TICK_RATE);
+		driver.begin();
+		
 		try(Scanner scanner = new Scanner(System.in))
 		{
 			String scriptLog = "";
 			int emptyCount = 0;
 			
-			RhinoScript m_script = new RhinoScript();
-			
-
-			long lastTime;
+			final RhinoScript m_script = new RhinoScript();
 			
 			do
 			{
-				lastTime = System.currentTimeMillis();
 				if(System.in.available() > 0 && scanner.hasNextLine())
 				{
 					String line = scanner.nextLine();
@@ -89,15 +91,27 @@ public class Main
 					
 					if(emptyCount >= 2)
 					{
-						try
-						{
-							m_script.evaluate(scriptLog);
-						}catch(ScriptExecuteException e)
-						{
-							System.out.println("Error: " + e.toString());
-						}
+						final String script = scriptLog;
+						
+						//Scripts are evaluated on the tick thread, between updates of the game.
+						game.enqueueSynchronousTask(new ISynchronousTask() {
+							@Override
+							public boolean run()
+							{
+								try
+								{
+									m_script.evaluate(script);
+								}catch(ScriptExecuteException e)
+								{
+									System.out.println("Error: " + e.toString());
+								}
+								
+								System.out.println("Executed script.");
+								return true;
+							}
+						});
+						
 						emptyCount = 0;
-						System.out.println("Executed script.");
 						scriptLog = "";
 					}
 				}
@@ -108,7 +122,7 @@ public class Main
 				{
 					Logger.getLogger(Main.class.getName()).log(Level.SEVERE, null, ex);
 				}
-			} while(game.update((int)(System.currentTimeMillis() - lastTime)));
+			} while(driver.isRunning());
 
 		}
 	}
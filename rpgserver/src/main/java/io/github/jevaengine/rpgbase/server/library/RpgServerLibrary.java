@@ -1,8 +1,10 @@
 package io.github.jevaengine.rpgbase.server.library;
 
+import io.github.jevaengine.communication.ClassRegistry;
 import io.github.jevaengine.communication.SharedEntity;
 import io.github.jevaengine.rpgbase.RpgLibrary;
 import io.github.jevaengine.rpgbase.character.RpgCharacter;
+import io.github.jevaengine.rpgbase.netcommon.RpgNetClassRegistry;
 import io.github.jevaengine.rpgbase.server.RpgCharacterCertificate;
 import io.github.jevaengine.server.ServerEntity;
 import io.github.jevaengine.server.library.IServerLibrary;
@@ -24,6 +26,12 @@ public class RpgServerLibrary extends RpgLibrary implements IServerLibrary
 		return sharedClasses;
 	}
 	
+	@Override
+	public ClassRegistry getClassRegistry()
+	{
+		return new RpgNetClassRegistry();
+	}
+	
 	@Override
 	@Nullable
 	public <T extends DefaultEntity> IServerEntityWrapFactory getServerEntityWrapFactory(Class<T> entityClass)
@@ -5,7 +5,7 @@ import io.github.jevaengine.communication.InvalidMessageException;
 import io.github.jevaengine.communication.PolicyViolationException;
 import io.github.jevaengine.communication.ShareEntityException;
 import io.github.jevaengine.communication.SnapshotSynchronizationException;
-import io.github.jevaengine.communication.tcp.RemoteSocketCommunicator;
+import io.github.jevaengine.communication.tcp.RemoteNioCommunicator;
 import io.github.jevaengine.netcommon.INetVisitor;
 import io.github.jevaengine.netcommon.user.UserCredentials;
 import io.github.jevaengine.server.ServerUser.IServerUserHandler;
@@ -32,7 +32,7 @@ public class ServerClientPool implements IInvalidMessageHandler, IVisitAuthoriza
 
 	private static final String USERNAME_MATCH_REGEX = "[a-zA-Z0-9]*";
 	
-	private HashMap<RemoteSocketCommunicator, RemoteClientManager> m_remoteCommunicatorToClient =  new HashMap<>();
+	private HashMap<RemoteNioCommunicator, RemoteClientManager> m_remoteCommunicatorToClient =  new HashMap<>();
 	private HashMap<Communicator, RemoteClientManager> m_localCommunicatorToClient = new HashMap<>();
 	
 	private Queue<RemoteClientManager> m_timedOutClients = new LinkedList<>();
@@ -60,7 +60,7 @@ public class ServerClientPool implements IInvalidMessageHandler, IVisitAuthoriza
 		closeClient(remote, "Invalid message recieved from client: " + e.toString());
 	}
 	
-	public void acceptClient(RemoteSocketCommunicator remoteCommunicator)
+	public void acceptClient(RemoteNioCommunicator remoteCommunicator)
 	{
 		synchronized (m_remoteCommunicatorToClient)
 		{
@@ -76,7 +76,7 @@ public class ServerClientPool implements IInvalidMessageHandler, IVisitAuthoriza
 		}
 	}
 
-	private void closeRawConnection(RemoteSocketCommunicator communicator, String reason)
+	private void closeRawConnection(RemoteNioCommunicator communicator, String reason)
 	{
 		communicator.dispose();
 		m_logger.info("Closed raw socket: " + reason);
@@ -168,28 +168,57 @@ public class ServerClientPool implements IInvalidMessageHandler, IVisitAuthoriza
 			for(RemoteClientManager client; (client = m_timedOutClients.poll()) != null;)
 				closeClient(client, "Timed out");
 			
+			//Clients are closed once iteration over the pool has completed.
+			HashMap<RemoteClientManager, String> failedClients = new HashMap<>();
+			
 			for(RemoteClientManager client : m_remoteCommunicatorToClient.values())
 			{
 				try
 				{
 					client.update(deltaTime);
-				} catch (InvalidMessageException | IOException | SnapshotSynchronizationException e)
+				} catch (InvalidMessageException e)
+				{
+					failedClients.put(client, "Error: " + e.toString());
+				}
+			}
+			
+			for(Map.Entry<RemoteClientManager, String> failed : failedClients.entrySet())
+				closeClient(failed.getKey(), failed.getValue());
+		}
+	}
+	
+	//Sends each client a snapshot of its shared entities, if one is due.
+	public void sendSnapshots(int deltaTime)
+	{
+		synchronized(m_remoteCommunicatorToClient)
+		{
+			HashMap<RemoteClientManager, String> failedClients = new HashMap<>();
+			
+			for(RemoteClientManager client : m_remoteCommunicatorToClient.values())
+			{
+				try
+				{
+					client.sendSnapshot(deltaTime);
+				} catch (IOException | SnapshotSynchronizationException e)
 				{
-					closeClient(client, "Error: " + e.toString());
+					failedClients.put(client, "Error: " + e.toString());
 				}
 			}
+			
+			for(Map.Entry<RemoteClientManager, String> failed : failedClients.entrySet())
+				closeClient(failed.getKey(), failed.getValue());
 		}
 	}
 	
 	public final class RemoteClientManager
 	{
 		private ServerCommunicator m_localCommunicator;
-		private RemoteSocketCommunicator m_remoteCommunicator;
+		private RemoteNioCommunicator m_remoteCommunicator;
 		private ServerUser m_user;
 
 		private Map<Class<?>, HashSet<IVisitAuthorizer<?, ?>>> m_authorizers = new HashMap<>();
 		
-		private RemoteClientManager(RemoteSocketCommunicator remoteCommunicator) throws IOException, ShareEntityException, PolicyViolationException
+		private RemoteClientManager(RemoteNioCommunicator remoteCommunicator) throws IOException, ShareEntityException, PolicyViolationException
 		{
 			m_remoteCommunicator = remoteCommunicator;
 			m_localCommunicator = new ServerCommunicator();
@@ -248,17 +277,21 @@ public class ServerClientPool implements IInvalidMessageHandler, IVisitAuthoriza
 			m_authorizers.get(hostClass).add(authorizer);
 		}
 
-		private RemoteSocketCommunicator getRemoteCommunicator()
+		private RemoteNioCommunicator getRemoteCommunicator()
 		{
 			return m_remoteCommunicator;
 		}
 
-		private void update(int deltaTime) throws InvalidMessageException, IOException, SnapshotSynchronizationException
+		private void update(int deltaTime) throws InvalidMessageException
 		{
 			m_user.synchronize();
-			m_localCommunicator.update(deltaTime);
 			m_user.update(deltaTime);
 		}
+		
+		private void sendSnapshot(int deltaTime) throws IOException, SnapshotSynchronizationException
+		{
+			m_localCommunicator.update(deltaTime);
+		}
 
 		public ServerUser getUser()
 		{
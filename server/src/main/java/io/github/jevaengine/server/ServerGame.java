@@ -17,7 +17,9 @@ import io.github.jevaengine.FutureResult;
 import io.github.jevaengine.IDisposable;
 import io.github.jevaengine.IInitializationMonitor;
 import io.github.jevaengine.ResourceLibrary;
-import io.github.jevaengine.communication.tcp.RemoteSocketCommunicator;
+import io.github.jevaengine.communication.tcp.NioServer;
+import io.github.jevaengine.communication.tcp.NioServer.INioServerObserver;
+import io.github.jevaengine.communication.tcp.RemoteNioCommunicator;
 import io.github.jevaengine.config.IImmutableVariable;
 import io.github.jevaengine.config.ISerializable;
 import io.github.jevaengine.config.IVariable;
@@ -30,15 +32,16 @@ import io.github.jevaengine.netcommon.world.NetWorldIdentifier;
 import io.github.jevaengine.script.ScriptEvent;
 import io.github.jevaengine.server.ServerClientPool.IServerClientPoolObserver;
 import io.github.jevaengine.server.ServerWorld.ServerWorldBridge;
+import io.github.jevaengine.server.library.IServerLibrary;
 import io.github.jevaengine.util.SynchronousExecutor;
 import io.github.jevaengine.util.SynchronousExecutor.ISynchronousTask;
 import io.github.jevaengine.world.World;
 
 import java.io.IOException;
-import java.net.ServerSocket;
-import java.net.Socket;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.mozilla.javascript.Context;
 import org.mozilla.javascript.ContextAction;
@@ -51,11 +54,14 @@ public abstract class ServerGame extends DefaultGame implements IDisposable
 {
 	private final Logger m_logger = LoggerFactory.getLogger(ServerGame.class);
 
-	private ServerListener m_listener;
+	private NioServer m_server;
 	
 	private ServerWorldPool m_worldPool = new ServerWorldPool();
 	private ServerClientPool m_clientPool = new ServerClientPool();
 	
+	//Connections are accepted on a network worker, which must not wait on the client pool, and are added to it by the tick.
+	private final Queue<RemoteNioCommunicator> m_acceptedCommunicators = new ConcurrentLinkedQueue<>();
+	
 	private Sprite m_cursor;
 
 	private SynchronousExecutor m_syncExecuter = new SynchronousExecutor();
@@ -74,8 +80,16 @@ public abstract class ServerGame extends DefaultGame implements IDisposable
 		
 		try
 		{
-			ServerSocket serverSocket = new ServerSocket(config.port);
-			m_listener = new ServerListener(serverSocket);
+			m_server = new NioServer(config.port, Core.getService(IServerLibrary.class).getClassRegistry());
+			m_server.addObserver(new INioServerObserver() {
+				@Override
+				public void connectionAccepted(RemoteNioCommunicator communicator)
+				{
+					m_acceptedCommunicators.add(communicator);
+				}
+			});
+			
+			m_logger.info("Server accepting connections");
 		} catch (IOException e)
 		{
 			m_logger.error("Unable to initialize server: " + e.toString());
@@ -85,7 +99,7 @@ public abstract class ServerGame extends DefaultGame implements IDisposable
 	@Override
 	public void dispose()
 	{
-		m_listener.stop();
+		m_server.dispose();
 	}
 
 	@Override
@@ -100,13 +114,43 @@ public abstract class ServerGame extends DefaultGame implements IDisposable
 	@Override
 	public boolean update(int deltaTime)
 	{
-		m_clientPool.update(deltaTime);
+		updateClients(deltaTime);
+		updateWorlds(deltaTime);
+		synchronize();
+		sendSnapshots(deltaTime);
 		
-		m_worldPool.update(deltaTime, m_clientPool);
+		return true;
+	}
+	
+	//The phases of a server tick, in the order they are performed by update. See ServerGameDriver.
+	public final void updateClients(int deltaTime)
+	{
+		for(RemoteNioCommunicator communicator; (communicator = m_acceptedCommunicators.poll()) != null;)
+			m_clientPool.acceptClient(communicator);
 		
+		m_clientPool.update(deltaTime);
+	}
+	
+	public final void updateWorlds(int deltaTime)
+	{
+		m_worldPool.update(deltaTime);
+	}
+	
+	public final void synchronize()
+	{
+		m_worldPool.synchronize(m_clientPool);
 		m_syncExecuter.execute();
-		
-		return true;
+	}
+	
+	public final void sendSnapshots(int deltaTime)
+	{
+		m_clientPool.sendSnapshots(deltaTime);
+	}
+	
+	//The task is run during the synchronization phase of the next tick.
+	public final void enqueueSynchronousTask(ISynchronousTask task)
+	{
+		m_syncExecuter.enqueue(task);
 	}
 	
 	public final IVisitAuthorizationPool getVisitAuthorizationPool()
@@ -212,60 +256,6 @@ public abstract class ServerGame extends DefaultGame implements IDisposable
 		}
 	}
 	
-	private class ServerListener
-	{
-		private ServerSocket m_socket;
-
-		private volatile boolean m_queryStop = false;
-
-		private Listener m_listener;
-
-		public ServerListener(ServerSocket socket)
-		{
-			m_socket = socket;
-
-			m_listener = new Listener();
-
-			m_logger.info("Server accepting connections");
-
-			new Thread(m_listener).start();
-		}
-
-		public void stop()
-		{
-			m_queryStop = true;
-
-			try
-			{
-				m_socket.close();
-			} catch (IOException e)
-			{}
-		}
-
-		private class Listener implements Runnable
-		{
-			@Override
-			public void run()
-			{
-				while(!m_queryStop)
-				{
-					try
-					{
-						Socket remoteSocket = m_socket.accept();
-						remoteSocket.setTcpNoDelay(true);
-						m_clientPool.acceptClient(new RemoteSocketCommunicator(remoteSocket));
-					} catch (IOException e)
-					{
-						if (!m_queryStop)
-							m_logger.warn("Server listener ended prematurely");
-
-						m_queryStop = true;
-					}
-				}
-			}
-		}
-	}
-
 	public static class ServerConfiguration implements ISerializable
 	{
 		public String script;
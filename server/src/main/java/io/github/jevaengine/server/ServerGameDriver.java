@@ -0,0 +1,240 @@
+package io.github.jevaengine.server;
+
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Drives a server game without rendering it. Ticks are scheduled against a fixed timeline measured with nanoTime, so
+ * that the time taken by a tick does not delay those that follow it. When ticks fall behind, the ticks that are due are
+ * coalesced into a single update of their combined duration, up to a limit beyond which they are skipped outright.
+ *
+ * Every phase of a tick is timed individually, such that a tick overrunning its budget can be attributed to a phase.
+ */
+public final class ServerGameDriver
+{
+	private static final long NANOS_PER_MILLISECOND = 1000000L;
+
+	private static final int DEFAULT_MAX_COALESCED_TICKS = 4;
+
+	private static final TickPhase[] PHASES = TickPhase.values();
+
+	private final ServerGame m_game;
+
+	private final int m_tickLength;
+	private final int m_maxCoalescedTicks;
+
+	private volatile boolean m_runGame = false;
+	private volatile boolean m_isRunning = false;
+
+	private final long[] m_lastPhaseTimes = new long[PHASES.length];
+	private final long[] m_totalPhaseTimes = new long[PHASES.length];
+	private final long[] m_peakPhaseTimes = new long[PHASES.length];
+	private final long[] m_phaseOverrunCounts = new long[PHASES.length];
+
+	private long m_tickCount = 0;
+	private long m_overrunCount = 0;
+	private long m_coalescedTickCount = 0;
+	private long m_skippedTickCount = 0;
+	private long m_peakTickTime = 0;
+
+	public ServerGameDriver(ServerGame game, int tickRate, int maxCoalescedTicks)
+	{
+		m_game = game;
+		m_tickLength = Math.max(1, Math.round(1000.0F / tickRate));
+		m_maxCoalescedTicks = Math.max(1, maxCoalescedTicks);
+	}
+
+	public ServerGameDriver(ServerGame game, int tickRate)
+	{
+		this(game, tickRate, DEFAULT_MAX_COALESCED_TICKS);
+	}
+
+	public void begin()
+	{
+		if(m_isRunning)
+			return;
+
+		m_runGame = true;
+		m_isRunning = true;
+
+		Thread thread = new Thread(new TickDriver(), "Server Tick Driver");
+		thread.start();
+	}
+
+	public void stop()
+	{
+		m_runGame = false;
+	}
+
+	public boolean isRunning()
+	{
+		return m_isRunning;
+	}
+
+	//Length of a tick, in milliseconds.
+	public int getTickLength()
+	{
+		return m_tickLength;
+	}
+
+	private long tick(int deltaTime, long[] phaseTimes)
+	{
+		long start = System.nanoTime();
+
+		m_game.updateClients(deltaTime);
+		long clientsUpdated = System.nanoTime();
+
+		m_game.updateWorlds(deltaTime);
+		long worldsUpdated = System.nanoTime();
+
+		m_game.synchronize();
+		long worldsSynchronized = System.nanoTime();
+
+		m_game.sendSnapshots(deltaTime);
+		long end = System.nanoTime();
+
+		phaseTimes[TickPhase.ClientPoolUpdate.ordinal()] = clientsUpdated - start;
+		phaseTimes[TickPhase.WorldPoolUpdate.ordinal()] = worldsUpdated - clientsUpdated;
+		phaseTimes[TickPhase.Synchronization.ordinal()] = worldsSynchronized - worldsUpdated;
+		phaseTimes[TickPhase.SnapshotSend.ordinal()] = end - worldsSynchronized;
+
+		return end - start;
+	}
+
+	private synchronized void record(long[] phaseTimes, long tickTime, int coalescedTicks, long skippedTicks)
+	{
+		m_tickCount++;
+		m_coalescedTickCount += coalescedTicks - 1;
+		m_skippedTickCount += skippedTicks;
+		m_peakTickTime = Math.max(m_peakTickTime, tickTime);
+
+		int slowestPhase = 0;
+
+		for(int i = 0; i < PHASES.length; i++)
+		{
+			m_lastPhaseTimes[i] = phaseTimes[i];
+			m_totalPhaseTimes[i] += phaseTimes[i];
+			m_peakPhaseTimes[i] = Math.max(m_peakPhaseTimes[i], phaseTimes[i]);
+
+			if(phaseTimes[i] > phaseTimes[slowestPhase])
+				slowestPhase = i;
+		}
+
+		//Overruns are attributed to the phase that took the largest share of the tick.
+		if(tickTime > m_tickLength * NANOS_PER_MILLISECOND)
+		{
+			m_overrunCount++;
+			m_phaseOverrunCounts[slowestPhase]++;
+		}
+	}
+
+	public synchronized long getTickCount()
+	{
+		return m_tickCount;
+	}
+
+	//Ticks that took longer than the tick length to perform.
+	public synchronized long getOverrunCount()
+	{
+		return m_overrunCount;
+	}
+
+	//Overrunning ticks in which the given phase took the longest.
+	public synchronized long getOverrunCount(TickPhase phase)
+	{
+		return m_phaseOverrunCounts[phase.ordinal()];
+	}
+
+	//Ticks that were folded into the update of another, late, tick.
+	public synchronized long getCoalescedTickCount()
+	{
+		return m_coalescedTickCount;
+	}
+
+	//Ticks that were dropped because they were too far behind to be coalesced.
+	public synchronized long getSkippedTickCount()
+	{
+		return m_skippedTickCount;
+	}
+
+	//Time taken, in milliseconds, by the most expensive tick.
+	public synchronized float getPeakTickTime()
+	{
+		return m_peakTickTime / (float)NANOS_PER_MILLISECOND;
+	}
+
+	//Time taken, in milliseconds, by the given phase of the most recent tick.
+	public synchronized float getLastPhaseTime(TickPhase phase)
+	{
+		return m_lastPhaseTimes[phase.ordinal()] / (float)NANOS_PER_MILLISECOND;
+	}
+
+	public synchronized float getAveragePhaseTime(TickPhase phase)
+	{
+		return m_tickCount == 0 ? 0 : (m_totalPhaseTimes[phase.ordinal()] / (float)m_tickCount) / NANOS_PER_MILLISECOND;
+	}
+
+	public synchronized float getPeakPhaseTime(TickPhase phase)
+	{
+		return m_peakPhaseTimes[phase.ordinal()] / (float)NANOS_PER_MILLISECOND;
+	}
+
+	public synchronized void resetMetrics()
+	{
+		for(int i = 0; i < PHASES.length; i++)
+		{
+			m_lastPhaseTimes[i] = 0;
+			m_totalPhaseTimes[i] = 0;
+			m_peakPhaseTimes[i] = 0;
+			m_phaseOverrunCounts[i] = 0;
+		}
+
+		m_tickCount = 0;
+		m_overrunCount = 0;
+		m_coalescedTickCount = 0;
+		m_skippedTickCount = 0;
+		m_peakTickTime = 0;
+	}
+
+	public enum TickPhase
+	{
+		ClientPoolUpdate,
+		WorldPoolUpdate,
+		Synchronization,
+		SnapshotSend,
+	}
+
+	private class TickDriver implements Runnable
+	{
+		@Override
+		public void run()
+		{
+			long step = m_tickLength * NANOS_PER_MILLISECOND;
+			long[] phaseTimes = new long[PHASES.length];
+
+			long nextTick = System.nanoTime();
+
+			while(m_runGame)
+			{
+				long now = System.nanoTime();
+
+				if(now - nextTick < 0)
+				{
+					LockSupport.parkNanos(nextTick - now);
+					continue;
+				}
+
+				//The schedule advances by whole ticks from where it began, so that it does not drift with the ticks performed.
+				long dueTicks = (now - nextTick) / step + 1;
+				int coalescedTicks = (int)Math.min(dueTicks, m_maxCoalescedTicks);
+
+				long tickTime = tick(coalescedTicks * m_tickLength, phaseTimes);
+
+				nextTick += dueTicks * step;
+
+				record(phaseTimes, tickTime, coalescedTicks, dueTicks - coalescedTicks);
+			}
+
+			m_isRunning = false;
+		}
+	}
+}
@@ -58,11 +58,21 @@ public class ServerWorldPool implements IServerWorldLookup
 	}
 	
 	public void update(int deltaTime, IInvalidMessageHandler handler)
+	{
+		update(deltaTime);
+		synchronize(handler);
+	}
+	
+	public void update(int deltaTime)
 	{
 		for (ServerWorld serverWorld : m_worlds.values())
-		{
 			serverWorld.update(deltaTime);
-			
+	}
+	
+	public void synchronize(IInvalidMessageHandler handler)
+	{
+		for (ServerWorld serverWorld : m_worlds.values())
+		{
 			try
 			{
 				serverWorld.synchronize();
@@ -12,6 +12,7 @@
  ******************************************************************************/
 package io.github.jevaengine.server.library;
 
+import io.github.jevaengine.communication.ClassRegistry;
 import io.github.jevaengine.communication.SharedEntity;
 import io.github.jevaengine.server.ServerEntity;
 import io.github.jevaengine.util.Nullable;
@@ -26,6 +27,9 @@ public interface IServerLibrary
 	
 	List<Class<? extends SharedEntity>> getSharedClasses();
 	
+	//Must register the same classes, under the same ids, as that of the client library.
+	ClassRegistry getClassRegistry();
+	
 	interface IServerEntityWrapFactory
 	{
 		ServerEntity<? extends DefaultEntity> wrap(DefaultEntity entity);